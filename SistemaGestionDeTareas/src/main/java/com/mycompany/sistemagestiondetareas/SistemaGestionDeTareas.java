@@ -3,7 +3,11 @@
  */
 package com.mycompany.sistemagestiondetareas;
 
+import com.mycompany.sistemagestiondetareas.controlador.DatosIniciales;
+import com.mycompany.sistemagestiondetareas.util.ConcesionLider;
 import com.mycompany.sistemagestiondetareas.util.ConexionBD;
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
+import com.mycompany.sistemagestiondetareas.util.MigracionesBD;
 import com.mycompany.sistemagestiondetareas.util.RecordatorioScheduler;
 import com.mycompany.sistemagestiondetareas.vista.Login;
 import javax.swing.SwingUtilities;
@@ -12,6 +16,7 @@ import javax.swing.UIManager;
 public class SistemaGestionDeTareas {
 
     private static RecordatorioScheduler recordatorioScheduler;
+    private static ConcesionLider concesionRecordatorios;
 
     /**
      * Método principal que inicia la aplicación.
@@ -25,19 +30,30 @@ public class SistemaGestionDeTareas {
             // Si falla la configuración, se usa el look and feel por defecto
         }
         
-        // Iniciar el scheduler de recordatorios
+        // Aplicar las migraciones pendientes del esquema (índices, tablas nuevas)
+        MigracionesBD.aplicar();
+        
+        // Crear los datos por defecto si la base de datos está vacía (una sola vez por proceso)
+        DatosIniciales.asegurar();
+        
+        // Iniciar el scheduler de recordatorios solo en el proceso que tenga la concesión
+        // (con varios procesos contra la misma base de datos, uno solo envía los avisos)
         recordatorioScheduler = new RecordatorioScheduler();
-        recordatorioScheduler.iniciar();
+        concesionRecordatorios = new ConcesionLider("recordatorios", ConexionBD.getDuracionConcesionMs(),
+                recordatorioScheduler::iniciar, recordatorioScheduler::detener);
+        recordatorioScheduler.setPermisoEnvio(concesionRecordatorios::esLiderVigente);
+        concesionRecordatorios.iniciar();
         
         // Agrega un hook para cerrar la conexión a la base de datos cuando la aplicación termina
         Runtime.getRuntime().addShutdownHook(new Thread() {
             @Override
             public void run() {
-                // Detener scheduler
-                if (recordatorioScheduler != null) {
-                    recordatorioScheduler.detener();
+                // Detener scheduler y liberar su concesión
+                if (concesionRecordatorios != null) {
+                    concesionRecordatorios.detener();
                 }
                 
+                EjecutorBD.cerrar();
                 ConexionBD.cerrarConexion();
                 System.out.println("Conexión a la base de datos cerrada correctamente");
             }
@@ -2,8 +2,16 @@ package com.mycompany.sistemagestiondetareas.controlador;
 
 import com.mycompany.sistemagestiondetareas.dao.CostoDAO;
 import com.mycompany.sistemagestiondetareas.modelo.Costo;
+import com.mycompany.sistemagestiondetareas.modelo.Proyecto;
+import com.mycompany.sistemagestiondetareas.modelo.TotalesCosto;
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para gestionar los costos del sistema.
@@ -11,10 +19,20 @@ import java.util.List;
 public class ControladorCosto {
     private final CostoDAO costoDAO;
     
-    public ControladorCosto() {
+    // Instancia única, compartida por todas las ventanas
+    private static final ControladorCosto INSTANCIA = new ControladorCosto();
+    
+    private ControladorCosto() {
         this.costoDAO = new CostoDAO();
     }
     
+    /**
+     * @return Controlador compartido por toda la aplicación.
+     */
+    public static ControladorCosto getInstancia() {
+        return INSTANCIA;
+    }
+    
     /**
      * Registra un nuevo costo en el sistema.
      * @param tipo Tipo de referencia (PROYECTO o TAREA).
@@ -29,7 +47,13 @@ public class ControladorCosto {
                               double monto, String tipoCosto, int idUsuarioRegistro) {
         Costo costo = new Costo(tipo, idReferencia, descripcion, monto, tipoCosto, 
                               new Date(), idUsuarioRegistro);
-        return costoDAO.insertar(costo);
+        Costo registrado = costoDAO.insertar(costo);
+        
+        // Los totales de costos forman parte del resumen del proyecto
+        if (registrado != null && "PROYECTO".equals(tipo)) {
+            EventosEntidad.publicar(Proyecto.class, EventosEntidad.Operacion.ACTUALIZADA, idReferencia);
+        }
+        return registrado;
     }
     
     /**
@@ -42,6 +66,35 @@ public class ControladorCosto {
         return costoDAO.listarPorReferencia(tipo, idReferencia);
     }
     
+    /**
+     * Cuenta los costos de un proyecto o tarea.
+     * @param tipo Tipo de referencia (PROYECTO o TAREA).
+     * @param idReferencia ID del proyecto o tarea.
+     * @return Número de costos asociados.
+     */
+    public int contarCostosPorReferencia(String tipo, int idReferencia) {
+        return costoDAO.contarPorReferencia(tipo, idReferencia);
+    }
+    
+    /**
+     * Obtiene una página de los costos de un proyecto o tarea, ordenada en el servidor.
+     * @param tipo Tipo de referencia (PROYECTO o TAREA).
+     * @param idReferencia ID del proyecto o tarea.
+     * @param desplazamiento Posición del primer costo (desde 0).
+     * @param limite Número máximo de costos.
+     * @param orden Columna de orden (ver {@link CostoDAO#listarPaginaPorReferencia}).
+     * @param descendente true para orden descendente.
+     * @return Costos de la página.
+     */
+    public List<Costo> obtenerPaginaDeCostos(String tipo, int idReferencia, int desplazamiento, int limite,
+                                             String orden, boolean descendente) {
+        if (desplazamiento < 0 || limite <= 0) {
+            return new ArrayList<>();
+        }
+        
+        return costoDAO.listarPaginaPorReferencia(tipo, idReferencia, desplazamiento, limite, orden, descendente);
+    }
+    
     /**
      * Obtiene los costos registrados por un usuario.
      * @param idUsuario ID del usuario.
@@ -58,11 +111,27 @@ public class ControladorCosto {
      * @return Balance total (adelantos - retrasos - gastos planificados).
      */
     public double calcularBalanceTotal(String tipo, int idReferencia) {
-        double adelantos = costoDAO.calcularTotalPorTipo(tipo, idReferencia, "ADELANTO");
-        double retrasos = costoDAO.calcularTotalPorTipo(tipo, idReferencia, "RETRASO");
-        double gastos = costoDAO.calcularTotalPorTipo(tipo, idReferencia, "GASTO_PLANIFICADO");
-        
-        return adelantos - retrasos - gastos;
+        return costoDAO.calcularTotales(tipo, idReferencia).getBalance();
+    }
+    
+    /**
+     * Calcula los totales de todos los tipos de costo con una sola consulta.
+     * @param tipo Tipo de referencia (PROYECTO o TAREA).
+     * @param idReferencia ID del proyecto o tarea.
+     * @return Totales de retrasos, adelantos y gastos planificados.
+     */
+    public TotalesCosto calcularTotales(String tipo, int idReferencia) {
+        return costoDAO.calcularTotales(tipo, idReferencia);
+    }
+    
+    /**
+     * Calcula los totales por tipo de costo de varios proyectos o tareas.
+     * @param tipo Tipo de referencia (PROYECTO o TAREA).
+     * @param idsReferencia IDs de los proyectos o tareas.
+     * @return Totales por ID de referencia.
+     */
+    public Map<Integer, TotalesCosto> calcularTotalesPorReferencias(String tipo, Collection<Integer> idsReferencia) {
+        return costoDAO.calcularTotalesPorReferencias(tipo, idsReferencia);
     }
     
     /**
@@ -75,4 +144,36 @@ public class ControladorCosto {
     public double calcularTotalPorTipo(String tipo, int idReferencia, String tipoCosto) {
         return costoDAO.calcularTotalPorTipo(tipo, idReferencia, tipoCosto);
     }
+    
+    /**
+     * Versión asíncrona de {@link #calcularTotalPorTipo(String, int, String)}.
+     * @return Future con la suma total de los costos.
+     */
+    public CompletableFuture<Double> calcularTotalPorTipoAsincrono(String tipo, int idReferencia, String tipoCosto) {
+        return EjecutorBD.ejecutar(() -> costoDAO.calcularTotalPorTipo(tipo, idReferencia, tipoCosto));
+    }
+    
+    /**
+     * Versión asíncrona de {@link #calcularTotales(String, int)}.
+     * @return Future con los totales de retrasos, adelantos y gastos planificados.
+     */
+    public CompletableFuture<TotalesCosto> calcularTotalesAsincrono(String tipo, int idReferencia) {
+        return EjecutorBD.ejecutar(() -> costoDAO.calcularTotales(tipo, idReferencia));
+    }
+    
+    /**
+     * Versión asíncrona de {@link #calcularBalanceTotal(String, int)}.
+     * @return Future con el balance total.
+     */
+    public CompletableFuture<Double> calcularBalanceTotalAsincrono(String tipo, int idReferencia) {
+        return calcularTotalesAsincrono(tipo, idReferencia).thenApply(TotalesCosto::getBalance);
+    }
+    
+    /**
+     * Versión asíncrona de {@link #obtenerCostosPorReferencia(String, int)}.
+     * @return Future con la lista de costos asociados.
+     */
+    public CompletableFuture<List<Costo>> obtenerCostosPorReferenciaAsincrono(String tipo, int idReferencia) {
+        return EjecutorBD.ejecutar(() -> costoDAO.listarPorReferencia(tipo, idReferencia));
+    }
 } 
\ No newline at end of file
@@ -2,9 +2,13 @@ package com.mycompany.sistemagestiondetareas.controlador;
 
 import com.mycompany.sistemagestiondetareas.dao.ProyectoDAO;
 import com.mycompany.sistemagestiondetareas.modelo.Proyecto;
+import com.mycompany.sistemagestiondetareas.modelo.ProyectoResumen;
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para la gestión de proyectos.
@@ -13,28 +17,27 @@ public class ControladorProyecto {
     // DAO para acceso a la base de datos
     private final ProyectoDAO proyectoDAO;
     
-    // Constructor que inicializa el DAO y verifica datos iniciales
-    public ControladorProyecto() {
+    // Instancia única, compartida por todas las ventanas
+    private static final ControladorProyecto INSTANCIA = new ControladorProyecto();
+    
+    // Constructor que inicializa el DAO (los datos iniciales los crea DatosIniciales al arrancar)
+    private ControladorProyecto() {
         this.proyectoDAO = new ProyectoDAO();
-        verificarDatosIniciales();
     }
     
     /**
-     * Verifica si existen datos iniciales y los crea si es necesario.
+     * @return Controlador compartido por toda la aplicación.
      */
-    private void verificarDatosIniciales() {
-        List<Proyecto> proyectos = obtenerTodosLosProyectos();
-        
-        // Si no hay proyectos, crear los proyectos por defecto
-        if (proyectos.isEmpty()) {
-            Date ahora = new Date();
-            Date futuro = new Date(ahora.getTime() + 30L * 24 * 60 * 60 * 1000); // 30 días después
-            
-            crearProyecto("Sistema de Gestión", "Desarrollo de un sistema de gestión de tareas",
-                         ahora, futuro, 1, "VERDE", 0.0);
-            crearProyecto("Migración de Datos", "Migración de datos de sistema antiguo",
-                         ahora, futuro, 2, "AMARILLO", 0.0);
-        }
+    public static ControladorProyecto getInstancia() {
+        return INSTANCIA;
+    }
+    
+    /**
+     * Comprueba si hay al menos un proyecto, sin leer la tabla entera.
+     * @return true si existe alguna fila.
+     */
+    public boolean hayProyectos() {
+        return proyectoDAO.existeAlguno();
     }
     
     /**
@@ -68,7 +71,11 @@ public class ControladorProyecto {
         Proyecto proyecto = new Proyecto(nombre, descripcion, fechaInicio, fechaFin, idResponsable, nivelRiesgo, presupuestoTotal);
         
         // Insertar en la base de datos
-        return proyectoDAO.insertar(proyecto);
+        Proyecto creado = proyectoDAO.insertar(proyecto);
+        if (creado != null) {
+            EventosEntidad.publicar(Proyecto.class, EventosEntidad.Operacion.CREADA, creado.getId());
+        }
+        return creado;
     }
     
     /**
@@ -77,7 +84,11 @@ public class ControladorProyecto {
      * @return true si se actualizó correctamente, false en caso contrario.
      */
     public boolean actualizarProyecto(Proyecto proyecto) {
-        return proyectoDAO.actualizar(proyecto);
+        boolean actualizado = proyectoDAO.actualizar(proyecto);
+        if (actualizado) {
+            EventosEntidad.publicar(Proyecto.class, EventosEntidad.Operacion.ACTUALIZADA, proyecto.getId());
+        }
+        return actualizado;
     }
     
     /**
@@ -124,6 +135,61 @@ public class ControladorProyecto {
             return false;
         }
         
-        return proyectoDAO.eliminar(id);
+        // Sus tareas se eliminan en cascada
+        boolean eliminado = proyectoDAO.eliminar(id);
+        if (eliminado) {
+            EventosEntidad.publicar(Proyecto.class, EventosEntidad.Operacion.ELIMINADA, id);
+        }
+        return eliminado;
+    }
+    
+    /**
+     * Obtiene el resumen de todos los proyectos (responsable y totales de costos).
+     * @return Lista de resúmenes de proyectos.
+     */
+    public List<ProyectoResumen> obtenerResumenesDeProyectos() {
+        return proyectoDAO.listarResumenes();
+    }
+    
+    /**
+     * Obtiene el resumen de los proyectos asignados a un responsable.
+     * @param idResponsable ID del responsable.
+     * @return Lista de resúmenes de los proyectos del responsable.
+     */
+    public List<ProyectoResumen> obtenerResumenesPorResponsable(int idResponsable) {
+        if (idResponsable <= 0) {
+            return new ArrayList<>();
+        }
+        
+        return proyectoDAO.listarResumenesPorResponsable(idResponsable);
+    }
+    
+    /**
+     * Obtiene el resumen de un proyecto (responsable y totales de costos).
+     * @param id ID del proyecto.
+     * @return Resumen del proyecto o null si no existe.
+     */
+    public ProyectoResumen obtenerResumenDeProyecto(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        
+        return proyectoDAO.buscarResumenPorId(id);
+    }
+    
+    /**
+     * Versión asíncrona de {@link #obtenerProyectoPorId(int)}.
+     * @return Future con el proyecto encontrado o null si no existe.
+     */
+    public CompletableFuture<Proyecto> obtenerProyectoPorIdAsincrono(int id) {
+        return EjecutorBD.ejecutar(() -> obtenerProyectoPorId(id));
+    }
+    
+    /**
+     * Versión asíncrona de {@link #obtenerTodosLosProyectos()}.
+     * @return Future con la lista de todos los proyectos.
+     */
+    public CompletableFuture<List<Proyecto>> obtenerTodosLosProyectosAsincrono() {
+        return EjecutorBD.ejecutar(() -> obtenerTodosLosProyectos());
     }
 } 
\ No newline at end of file
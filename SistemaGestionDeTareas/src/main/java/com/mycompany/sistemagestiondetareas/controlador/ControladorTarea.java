@@ -1,12 +1,23 @@
 package com.mycompany.sistemagestiondetareas.controlador;
 
+import com.mycompany.sistemagestiondetareas.dao.AccesoDatosException;
+import com.mycompany.sistemagestiondetareas.dao.ComentarioTareaDAO;
 import com.mycompany.sistemagestiondetareas.dao.TareaDAO;
+import com.mycompany.sistemagestiondetareas.modelo.ComentarioTarea;
 import com.mycompany.sistemagestiondetareas.modelo.Tarea;
+import com.mycompany.sistemagestiondetareas.modelo.TareaResumen;
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
 import com.mycompany.sistemagestiondetareas.util.Notificador;
+import com.mycompany.sistemagestiondetareas.util.UnidadDeTrabajo;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Controlador para la gestión de tareas.
@@ -14,31 +25,32 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ControladorTarea {
     // DAO para acceso a la base de datos
     private final TareaDAO tareaDAO;
+    private final ComentarioTareaDAO comentarioDAO;
     private final Notificador notificador;
     
-    // Constructor que inicializa el DAO y verifica datos iniciales
-    public ControladorTarea() {
+    // Instancia única, compartida por todas las ventanas
+    private static final ControladorTarea INSTANCIA = new ControladorTarea();
+    
+    // Constructor que inicializa el DAO (los datos iniciales los crea DatosIniciales al arrancar)
+    private ControladorTarea() {
         this.tareaDAO = new TareaDAO();
+        this.comentarioDAO = new ComentarioTareaDAO();
         this.notificador = new Notificador(new ConcurrentHashMap<>());
-        verificarDatosIniciales();
     }
     
     /**
-     * Verifica si existen datos iniciales y los crea si es necesario.
+     * @return Controlador compartido por toda la aplicación.
      */
-    private void verificarDatosIniciales() {
-        List<Tarea> tareas = obtenerTodasLasTareas();
-        
-        // Si no hay tareas, crear las tareas por defecto
-        if (tareas.isEmpty()) {
-            Date ahora = new Date();
-            Date futuro = new Date(ahora.getTime() + 7L * 24 * 60 * 60 * 1000); // 7 días después
-            
-            crearTarea("Diseñar interfaz", "Diseñar la interfaz de usuario del sistema", 
-                      ahora, futuro, 1, 1, "PENDIENTE", "");
-            crearTarea("Implementar base de datos", "Crear el esquema de la base de datos", 
-                      ahora, futuro, 1, 2, "EN PROCESO", "Esquema inicial creado");
-        }
+    public static ControladorTarea getInstancia() {
+        return INSTANCIA;
+    }
+    
+    /**
+     * Comprueba si hay al menos una tarea, sin leer la tabla entera.
+     * @return true si existe alguna fila.
+     */
+    public boolean hayTareas() {
+        return tareaDAO.existeAlguno();
     }
     
     /**
@@ -72,7 +84,11 @@ public class ControladorTarea {
                                idProyecto, idResponsable, estado, comentarios != null ? comentarios : "");
         
         // Insertar en la base de datos
-        return tareaDAO.insertar(tarea);
+        Tarea creada = tareaDAO.insertar(tarea);
+        if (creada != null) {
+            EventosEntidad.publicar(Tarea.class, EventosEntidad.Operacion.CREADA, creada.getId());
+        }
+        return creada;
     }
     
     /**
@@ -114,7 +130,11 @@ public class ControladorTarea {
                                comentarios != null ? comentarios : "");
         
         // Actualizar en la base de datos
-        return tareaDAO.actualizar(tarea);
+        boolean actualizada = tareaDAO.actualizar(tarea);
+        if (actualizada) {
+            EventosEntidad.publicar(Tarea.class, EventosEntidad.Operacion.ACTUALIZADA, id);
+        }
+        return actualizada;
     }
     
     /**
@@ -133,24 +153,38 @@ public class ControladorTarea {
         // Validar estado
         nuevoEstado = validarEstado(nuevoEstado);
         
-        // Obtener tarea actual para comparar estados
-        Tarea tarea = obtenerTareaPorId(id);
-        if (tarea == null) {
-            return false;
-        }
-        
-        String estadoAnterior = tarea.getEstado();
+        final String estado = nuevoEstado;
         
-        // Actualizar estado en la base de datos
-        boolean exito = tareaDAO.actualizarEstado(id, nuevoEstado, comentarioAdicional);
-        
-        if (exito) {
-            // Enviar notificación del cambio de estado
-            tarea.setEstado(nuevoEstado);
-            notificador.notificarCambioEstadoTarea(tarea, estadoAnterior);
+        // Lectura, cambio de estado, comentario y notificación en una sola transacción
+        try {
+            return UnidadDeTrabajo.ejecutar(unidad -> {
+                // Obtener tarea actual para comparar estados
+                Tarea tarea = obtenerTareaPorId(id);
+                if (tarea == null) {
+                    return false;
+                }
+                
+                String estadoAnterior = tarea.getEstado();
+                
+                // Solo se escribe la columna estado al confirmar
+                unidad.registrar(tarea, TareaDAO.MAPEO);
+                tarea.setEstado(estado);
+                
+                if (comentarioAdicional != null && !comentarioAdicional.trim().isEmpty()
+                        && !comentarioDAO.agregar(id, comentarioAdicional)) {
+                    unidad.marcarParaDeshacer();
+                    return false;
+                }
+                
+                // Enviar notificación del cambio de estado
+                notificador.notificarCambioEstadoTarea(tarea, estadoAnterior);
+                EventosEntidad.publicar(Tarea.class, EventosEntidad.Operacion.ACTUALIZADA, id);
+                return true;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar estado de tarea: " + e.getMessage());
+            return false;
         }
-        
-        return exito;
     }
     
     /**
@@ -166,6 +200,20 @@ public class ControladorTarea {
         return tareaDAO.buscarPorId(id);
     }
     
+    /**
+     * Obtiene una página del historial de comentarios de una tarea, del más reciente al más antiguo.
+     * @param idTarea ID de la tarea.
+     * @param antesDeId ID del último comentario de la página anterior (0 para la primera página).
+     * @return Comentarios de la página (como máximo {@link ComentarioTareaDAO#TAMANO_PAGINA}).
+     */
+    public List<ComentarioTarea> obtenerComentariosDeTarea(int idTarea, long antesDeId) {
+        if (idTarea <= 0) {
+            return new ArrayList<>();
+        }
+        
+        return comentarioDAO.listarPagina(idTarea, antesDeId, ComentarioTareaDAO.TAMANO_PAGINA);
+    }
+    
     /**
      * Obtiene todas las tareas.
      * @return Lista de todas las tareas.
@@ -174,6 +222,106 @@ public class ControladorTarea {
         return tareaDAO.listarTodas();
     }
     
+    /**
+     * Recorre todas las tareas sin cargarlas completas en memoria.
+     * @param accion Acción a ejecutar con cada tarea, en orden de ID.
+     * @throws AccesoDatosException Si la lectura falla a mitad de recorrido.
+     */
+    public void recorrerTodasLasTareas(Consumer<Tarea> accion) {
+        try (Stream<Tarea> tareas = tareaDAO.streamTodas()) {
+            tareas.forEach(accion);
+        }
+    }
+    
+    /**
+     * Recorre todas las tareas con el nombre de su proyecto y de su responsable,
+     * usando una sola consulta y sin cargarlas completas en memoria.
+     * @param accion Acción a ejecutar con cada resumen, en orden de ID.
+     * @throws AccesoDatosException Si la lectura falla a mitad de recorrido.
+     */
+    public void recorrerResumenesDeTareas(Consumer<TareaResumen> accion) {
+        try (Stream<TareaResumen> resumenes = tareaDAO.streamResumenes()) {
+            resumenes.forEach(accion);
+        }
+    }
+    
+    /**
+     * Obtiene una tarea con el nombre de su proyecto y de su responsable.
+     * @param id ID de la tarea.
+     * @return Resumen de la tarea o null si no existe.
+     */
+    public TareaResumen obtenerResumenDeTarea(int id) {
+        if (id <= 0) {
+            return null;
+        }
+        
+        return tareaDAO.buscarResumenPorId(id);
+    }
+    
+    /**
+     * Obtiene las tareas de un proyecto con el nombre del proyecto y del responsable.
+     * @param idProyecto ID del proyecto.
+     * @return Lista de resúmenes de las tareas del proyecto.
+     */
+    public List<TareaResumen> obtenerResumenesPorProyecto(int idProyecto) {
+        if (idProyecto <= 0) {
+            return new ArrayList<>();
+        }
+        
+        return tareaDAO.listarResumenesPorProyecto(idProyecto);
+    }
+    
+    /**
+     * Obtiene las tareas de un responsable con el nombre del proyecto y del responsable.
+     * @param idResponsable ID del responsable.
+     * @return Lista de resúmenes de las tareas asignadas al responsable.
+     */
+    public List<TareaResumen> obtenerResumenesPorResponsable(int idResponsable) {
+        if (idResponsable <= 0) {
+            return new ArrayList<>();
+        }
+        
+        return tareaDAO.listarResumenesPorResponsable(idResponsable);
+    }
+    
+    /**
+     * Obtiene una página de tareas ordenadas por ID.
+     * @param despuesDeId ID de la última tarea de la página anterior (0 para la primera).
+     * @param limite Número máximo de tareas.
+     * @return Lista de tareas de la página.
+     */
+    public List<Tarea> obtenerPaginaDeTareas(int despuesDeId, int limite) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+        
+        return tareaDAO.listarPagina(despuesDeId, limite);
+    }
+    
+    /**
+     * Cuenta todas las tareas.
+     * @return Número de tareas.
+     */
+    public int contarTareas() {
+        return tareaDAO.contarTodas();
+    }
+    
+    /**
+     * Obtiene una página del listado de tareas por posición, ordenada en el servidor.
+     * @param desplazamiento Posición de la primera tarea (desde 0).
+     * @param limite Número máximo de tareas.
+     * @param orden Clave de la columna de orden (ver {@link TareaDAO#listarResumenesPagina}).
+     * @param descendente true para orden descendente.
+     * @return Resúmenes de las tareas de la página.
+     */
+    public List<TareaResumen> obtenerPaginaDeResumenes(int desplazamiento, int limite, String orden, boolean descendente) {
+        if (desplazamiento < 0 || limite <= 0) {
+            return new ArrayList<>();
+        }
+        
+        return tareaDAO.listarResumenesPagina(desplazamiento, limite, orden, descendente);
+    }
+    
     /**
      * Obtiene las tareas de un proyecto específico.
      * @param idProyecto ID del proyecto.
@@ -210,7 +358,11 @@ public class ControladorTarea {
             return false;
         }
         
-        return tareaDAO.eliminar(id);
+        boolean eliminada = tareaDAO.eliminar(id);
+        if (eliminada) {
+            EventosEntidad.publicar(Tarea.class, EventosEntidad.Operacion.ELIMINADA, id);
+        }
+        return eliminada;
     }
     
     /**
@@ -230,4 +382,28 @@ public class ControladorTarea {
                 return "PENDIENTE"; // Valor predeterminado
         }
     }
+    
+    /**
+     * Versión asíncrona de {@link #obtenerTareaPorId(int)}.
+     * @return Future con la tarea encontrada o null si no existe.
+     */
+    public CompletableFuture<Tarea> obtenerTareaPorIdAsincrono(int id) {
+        return EjecutorBD.ejecutar(() -> obtenerTareaPorId(id));
+    }
+    
+    /**
+     * Versión asíncrona de {@link #obtenerTareasPorProyecto(int)}.
+     * @return Future con la lista de tareas del proyecto.
+     */
+    public CompletableFuture<List<Tarea>> obtenerTareasPorProyectoAsincrono(int idProyecto) {
+        return EjecutorBD.ejecutar(() -> obtenerTareasPorProyecto(idProyecto));
+    }
+    
+    /**
+     * Versión asíncrona de {@link #obtenerTareasPorResponsable(int)}.
+     * @return Future con la lista de tareas asignadas al responsable.
+     */
+    public CompletableFuture<List<Tarea>> obtenerTareasPorResponsableAsincrono(int idResponsable) {
+        return EjecutorBD.ejecutar(() -> obtenerTareasPorResponsable(idResponsable));
+    }
 } 
\ No newline at end of file
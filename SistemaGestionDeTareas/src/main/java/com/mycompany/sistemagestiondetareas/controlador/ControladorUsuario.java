@@ -2,7 +2,10 @@ package com.mycompany.sistemagestiondetareas.controlador;
 
 import com.mycompany.sistemagestiondetareas.dao.UsuarioDAO;
 import com.mycompany.sistemagestiondetareas.modelo.Usuario;
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para la gestión de usuarios.
@@ -11,23 +14,27 @@ public class ControladorUsuario {
     // DAO para acceso a la base de datos
     private final UsuarioDAO usuarioDAO;
     
-    // Constructor que inicializa el DAO y verifica datos iniciales
-    public ControladorUsuario() {
+    // Instancia única, compartida por todas las ventanas
+    private static final ControladorUsuario INSTANCIA = new ControladorUsuario();
+    
+    // Constructor que inicializa el DAO (los datos iniciales los crea DatosIniciales al arrancar)
+    private ControladorUsuario() {
         this.usuarioDAO = new UsuarioDAO();
-        verificarDatosIniciales();
     }
     
     /**
-     * Verifica si existen datos iniciales y los crea si es necesario.
+     * @return Controlador compartido por toda la aplicación.
      */
-    private void verificarDatosIniciales() {
-        List<Usuario> usuarios = obtenerTodosLosUsuarios();
-        
-        // Si no hay usuarios, crear los usuarios por defecto
-        if (usuarios.isEmpty()) {
-            registrarUsuario("Admin", "Sistema", "admin@sistema.com", "admin123", true);
-            registrarUsuario("Usuario", "Normal", "usuario@sistema.com", "user123", false);
-        }
+    public static ControladorUsuario getInstancia() {
+        return INSTANCIA;
+    }
+    
+    /**
+     * Comprueba si hay al menos un usuario, sin leer la tabla entera.
+     * @return true si existe alguna fila.
+     */
+    public boolean hayUsuarios() {
+        return usuarioDAO.existeAlguno();
     }
     
     /**
@@ -57,7 +64,11 @@ public class ControladorUsuario {
         Usuario usuario = new Usuario(nombre, apellido, email, password, esAdmin);
         
         // Insertar en la base de datos
-        return usuarioDAO.insertar(usuario);
+        Usuario registrado = usuarioDAO.insertar(usuario);
+        if (registrado != null) {
+            EventosEntidad.publicar(Usuario.class, EventosEntidad.Operacion.CREADA, registrado.getId());
+        }
+        return registrado;
     }
     
     /**
@@ -112,7 +123,11 @@ public class ControladorUsuario {
             return false;
         }
         
-        return usuarioDAO.actualizar(usuario);
+        boolean actualizado = usuarioDAO.actualizar(usuario);
+        if (actualizado) {
+            EventosEntidad.publicar(Usuario.class, EventosEntidad.Operacion.ACTUALIZADA, usuario.getId());
+        }
+        return actualizado;
     }
     
     /**
@@ -142,6 +157,27 @@ public class ControladorUsuario {
             return false;
         }
         
-        return usuarioDAO.eliminar(id);
+        // Sus proyectos y tareas se eliminan en cascada
+        boolean eliminado = usuarioDAO.eliminar(id);
+        if (eliminado) {
+            EventosEntidad.publicar(Usuario.class, EventosEntidad.Operacion.ELIMINADA, id);
+        }
+        return eliminado;
+    }
+    
+    /**
+     * Versión asíncrona de {@link #obtenerUsuarioPorId(int)}.
+     * @return Future con el usuario encontrado o null si no existe.
+     */
+    public CompletableFuture<Usuario> obtenerUsuarioPorIdAsincrono(int id) {
+        return EjecutorBD.ejecutar(() -> obtenerUsuarioPorId(id));
+    }
+    
+    /**
+     * Versión asíncrona de {@link #obtenerTodosLosUsuarios()}.
+     * @return Future con la lista de todos los usuarios.
+     */
+    public CompletableFuture<List<Usuario>> obtenerTodosLosUsuariosAsincrono() {
+        return EjecutorBD.ejecutar(() -> obtenerTodosLosUsuarios());
     }
 } 
\ No newline at end of file
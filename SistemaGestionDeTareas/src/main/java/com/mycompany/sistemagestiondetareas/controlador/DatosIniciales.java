@@ -0,0 +1,57 @@
+package com.mycompany.sistemagestiondetareas.controlador;
+
+import java.util.Date;
+
+/**
+ * Crea los datos por defecto (usuarios, proyectos y tareas) la primera vez que arranca la aplicación.
+ *
+ * Se ejecuta una sola vez por proceso, al arrancar, en lugar de en cada constructor de controlador.
+ * Cada comprobación es un {@code SELECT 1 ... LIMIT 1}, así que su coste no depende del tamaño de las tablas.
+ * El orden importa: los proyectos y las tareas por defecto referencian a los usuarios 1 y 2 y al proyecto 1.
+ */
+public class DatosIniciales {
+
+    private static boolean verificados = false;
+
+    /** Constructor privado: evita instanciación */
+    private DatosIniciales() {}
+
+    /**
+     * Crea los datos por defecto de las tablas vacías. Las llamadas posteriores no hacen nada.
+     */
+    public static synchronized void asegurar() {
+        if (verificados) {
+            return;
+        }
+
+        ControladorUsuario controladorUsuario = ControladorUsuario.getInstancia();
+        if (!controladorUsuario.hayUsuarios()) {
+            controladorUsuario.registrarUsuario("Admin", "Sistema", "admin@sistema.com", "admin123", true);
+            controladorUsuario.registrarUsuario("Usuario", "Normal", "usuario@sistema.com", "user123", false);
+        }
+
+        Date ahora = new Date();
+
+        ControladorProyecto controladorProyecto = ControladorProyecto.getInstancia();
+        if (!controladorProyecto.hayProyectos()) {
+            Date futuro = new Date(ahora.getTime() + 30L * 24 * 60 * 60 * 1000); // 30 días después
+
+            controladorProyecto.crearProyecto("Sistema de Gestión", "Desarrollo de un sistema de gestión de tareas",
+                         ahora, futuro, 1, "VERDE", 0.0);
+            controladorProyecto.crearProyecto("Migración de Datos", "Migración de datos de sistema antiguo",
+                         ahora, futuro, 2, "AMARILLO", 0.0);
+        }
+
+        ControladorTarea controladorTarea = ControladorTarea.getInstancia();
+        if (!controladorTarea.hayTareas()) {
+            Date futuro = new Date(ahora.getTime() + 7L * 24 * 60 * 60 * 1000); // 7 días después
+
+            controladorTarea.crearTarea("Diseñar interfaz", "Diseñar la interfaz de usuario del sistema",
+                      ahora, futuro, 1, 1, "PENDIENTE", "");
+            controladorTarea.crearTarea("Implementar base de datos", "Crear el esquema de la base de datos",
+                      ahora, futuro, 1, 2, "EN PROCESO", "Esquema inicial creado");
+        }
+
+        verificados = true;
+    }
+}
@@ -0,0 +1,26 @@
+package com.mycompany.sistemagestiondetareas.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Envoltorio no comprobado de una {@link SQLException}, para los errores que no pueden
+ * declararse como excepción comprobada (por ejemplo, al consumir un Stream de un DAO).
+ */
+public class AccesoDatosException extends RuntimeException {
+
+    /**
+     * @param mensaje Descripción de la operación que falló.
+     * @param causa Error original de la base de datos.
+     */
+    public AccesoDatosException(String mensaje, SQLException causa) {
+        super(mensaje + ": " + causa.getMessage(), causa);
+    }
+
+    /**
+     * @return Error original de la base de datos.
+     */
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
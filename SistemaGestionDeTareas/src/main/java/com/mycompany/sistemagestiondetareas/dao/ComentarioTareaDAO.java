@@ -0,0 +1,80 @@
+package com.mycompany.sistemagestiondetareas.dao;
+
+import com.mycompany.sistemagestiondetareas.modelo.ComentarioTarea;
+import com.mycompany.sistemagestiondetareas.util.ConexionBD;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase DAO para el historial de comentarios de las tareas (tabla comentarios_tarea).
+ *
+ * Cada comentario es una fila: añadir uno es un INSERT cuyo coste no depende de la longitud
+ * del historial, y la lectura es por páginas, de más reciente a más antiguo, sobre el índice (id_tarea, id).
+ */
+public class ComentarioTareaDAO {
+
+    // Comentarios por página en el historial
+    public static final int TAMANO_PAGINA = 20;
+
+    private static final String SQL_INSERT = "INSERT INTO comentarios_tarea (id_tarea, texto) VALUES (?, ?)";
+    // Página del historial, de más reciente a más antiguo
+    static final String SQL_PAGINA = "SELECT id, id_tarea, texto, fecha FROM comentarios_tarea "
+            + "WHERE id_tarea = ? AND id < ? ORDER BY id DESC LIMIT ?";
+
+    /**
+     * Añade un comentario al historial de una tarea.
+     * @param idTarea ID de la tarea.
+     * @param texto Texto del comentario.
+     * @return true si se añadió, false si la tarea no existe o hubo error.
+     */
+    public boolean agregar(int idTarea, String texto) {
+        try (Connection conn = ConexionBD.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+
+            stmt.setInt(1, idTarea);
+            stmt.setString(2, texto);
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            // Incluye el fallo de la clave foránea si la tarea no existe
+            System.err.println("Error al agregar comentario a la tarea: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Obtiene una página del historial de una tarea, de más reciente a más antiguo,
+     * usando paginación por clave (keyset).
+     * @param idTarea ID de la tarea.
+     * @param antesDeId ID del último comentario de la página anterior (0 para la primera página).
+     * @param limite Número máximo de comentarios.
+     * @return Comentarios con ID menor que antesDeId, del más reciente al más antiguo.
+     */
+    public List<ComentarioTarea> listarPagina(int idTarea, long antesDeId, int limite) {
+        List<ComentarioTarea> comentarios = new ArrayList<>(Math.max(0, limite));
+
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_PAGINA)) {
+
+            stmt.setInt(1, idTarea);
+            stmt.setLong(2, antesDeId > 0 ? antesDeId : Long.MAX_VALUE);
+            stmt.setInt(3, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    comentarios.add(new ComentarioTarea(
+                            rs.getLong(1), rs.getInt(2), rs.getString(3), rs.getTimestamp(4)));
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al listar comentarios de la tarea: " + e.getMessage());
+        }
+
+        return comentarios;
+    }
+}
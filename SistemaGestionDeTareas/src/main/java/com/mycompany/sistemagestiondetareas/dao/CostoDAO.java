@@ -1,6 +1,7 @@
 package com.mycompany.sistemagestiondetareas.dao;
 
 import com.mycompany.sistemagestiondetareas.modelo.Costo;
+import com.mycompany.sistemagestiondetareas.modelo.TotalesCosto;
 import com.mycompany.sistemagestiondetareas.util.ConexionBD;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -9,32 +10,65 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Clase DAO para operaciones de la entidad Costo en la base de datos.
  */
 public class CostoDAO {
     
+    // Columnas de los listados, en el orden que usa extraerCostoDeResultSet
+    private static final String COLUMNAS = "id, tipo, id_referencia, descripcion, monto, tipo_costo, fecha_registro, id_usuario_registro";
+    
+    private static final int COL_ID = 1;
+    private static final int COL_TIPO = 2;
+    private static final int COL_ID_REFERENCIA = 3;
+    private static final int COL_DESCRIPCION = 4;
+    private static final int COL_MONTO = 5;
+    private static final int COL_TIPO_COSTO = 6;
+    private static final int COL_FECHA_REGISTRO = 7;
+    private static final int COL_ID_USUARIO_REGISTRO = 8;
+    
+    // Columnas por las que se puede ordenar el listado paginado
+    private static final Set<String> ORDEN_LISTADO = Set.of(
+            "id", "descripcion", "monto", "tipo_costo", "fecha_registro", "id_usuario_registro");
+    
+    // Consultas filtradas u ordenadas (PlanesConsultasTest comprueba sus planes)
+    static final String SQL_POR_REFERENCIA = "SELECT " + COLUMNAS + " FROM costos WHERE tipo = ? AND id_referencia = ?";
+    static final String SQL_CONTAR_POR_REFERENCIA = "SELECT COUNT(*) FROM costos WHERE tipo = ? AND id_referencia = ?";
+    static final String SQL_POR_USUARIO = "SELECT " + COLUMNAS + " FROM costos WHERE id_usuario_registro = ?";
+    static final String SQL_TOTAL_POR_TIPO = "SELECT SUM(monto) as total FROM costos WHERE tipo = ? AND id_referencia = ? AND tipo_costo = ?";
+    
+    private static final String SQL_INSERT = "INSERT INTO costos (tipo, id_referencia, descripcion, monto, tipo_costo, fecha_registro, id_usuario_registro) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    // Filas por bloque en las inserciones por lotes
+    public static final int TAMANO_BLOQUE_POR_DEFECTO = 500;
+    
+    // Totales de los tres tipos de costo en una sola pasada (agregación condicional)
+    private static final String COLUMNAS_TOTALES = "SUM(CASE WHEN tipo_costo = 'RETRASO' THEN monto ELSE 0 END), "
+            + "SUM(CASE WHEN tipo_costo = 'ADELANTO' THEN monto ELSE 0 END), "
+            + "SUM(CASE WHEN tipo_costo = 'GASTO_PLANIFICADO' THEN monto ELSE 0 END)";
+    static final String SQL_TOTALES = "SELECT " + COLUMNAS_TOTALES + " FROM costos WHERE tipo = ? AND id_referencia = ?";
+    
+    // Máximo de IDs por consulta en los cálculos por lotes
+    private static final int MAXIMO_IDS_POR_CONSULTA = 1000;
+    
     /**
      * Inserta un nuevo costo en la base de datos.
      * @param costo Costo a insertar.
      * @return Costo con ID generado o null si hubo error.
      */
     public Costo insertar(Costo costo) {
-        String sql = "INSERT INTO costos (tipo, id_referencia, descripcion, monto, tipo_costo, fecha_registro, id_usuario_registro) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        
         try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
             
-            stmt.setString(1, costo.getTipo());
-            stmt.setInt(2, costo.getIdReferencia());
-            stmt.setString(3, costo.getDescripcion());
-            stmt.setDouble(4, costo.getMonto());
-            stmt.setString(5, costo.getTipoCosto());
-            stmt.setTimestamp(6, new Timestamp(costo.getFechaRegistro().getTime()));
-            stmt.setInt(7, costo.getIdUsuarioRegistro());
+            asignarParametrosInsercion(stmt, costo);
             
             int filasAfectadas = stmt.executeUpdate();
             
@@ -56,6 +90,33 @@ public class CostoDAO {
         }
     }
     
+    /**
+     * Inserta varios costos usando lotes JDBC con el tamaño de bloque por defecto.
+     * @param costos Costos a insertar; los insertados reciben su ID generado.
+     * @return Resultado con los IDs en el orden de entrada y los errores por fila.
+     */
+    public ResultadoLote insertarLote(List<Costo> costos) {
+        return insertarLote(costos, TAMANO_BLOQUE_POR_DEFECTO);
+    }
+    
+    /**
+     * Inserta varios costos usando lotes JDBC.
+     * @param costos Costos a insertar; los insertados reciben su ID generado.
+     * @param tamanoBloque Número de filas enviadas en cada lote.
+     * @return Resultado con los IDs en el orden de entrada y los errores por fila.
+     */
+    public ResultadoLote insertarLote(List<Costo> costos, int tamanoBloque) {
+        ResultadoLote resultado = InsercionLote.insertar(SQL_INSERT, costos, tamanoBloque,
+                this::asignarParametrosInsercion, Costo::setId);
+        
+        if (!resultado.isCompleto()) {
+            System.err.println("Error al insertar lote de costos: " + resultado.getErrores().size()
+                    + " de " + costos.size() + " filas fallaron.");
+        }
+        
+        return resultado;
+    }
+    
     /**
      * Obtiene los costos de un proyecto o tarea.
      * @param tipo Tipo de referencia (PROYECTO o TAREA).
@@ -63,11 +124,10 @@ public class CostoDAO {
      * @return Lista de costos asociados.
      */
     public List<Costo> listarPorReferencia(String tipo, int idReferencia) {
-        String sql = "SELECT * FROM costos WHERE tipo = ? AND id_referencia = ?";
         List<Costo> costos = new ArrayList<>();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_REFERENCIA)) {
             
             stmt.setString(1, tipo);
             stmt.setInt(2, idReferencia);
@@ -86,17 +146,89 @@ public class CostoDAO {
         return costos;
     }
     
+    /**
+     * Cuenta los costos de un proyecto o tarea.
+     * @param tipo Tipo de referencia (PROYECTO o TAREA).
+     * @param idReferencia ID del proyecto o tarea.
+     * @return Número de costos, o 0 si hubo error.
+     */
+    public int contarPorReferencia(String tipo, int idReferencia) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_CONTAR_POR_REFERENCIA)) {
+            
+            stmt.setString(1, tipo);
+            stmt.setInt(2, idReferencia);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al contar costos por referencia: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Obtiene una página de los costos de un proyecto o tarea por posición, ordenada en el servidor.
+     * @param tipo Tipo de referencia (PROYECTO o TAREA).
+     * @param idReferencia ID del proyecto o tarea.
+     * @param desplazamiento Posición del primer costo (desde 0).
+     * @param limite Número máximo de costos.
+     * @param orden Columna de orden (id, descripcion, monto, tipo_costo, fecha_registro o
+     *              id_usuario_registro); cualquier otro valor ordena por ID.
+     * @param descendente true para orden descendente.
+     * @return Costos de la página.
+     */
+    public List<Costo> listarPaginaPorReferencia(String tipo, int idReferencia, int desplazamiento, int limite,
+                                                 String orden, boolean descendente) {
+        List<Costo> costos = new ArrayList<>(Math.max(0, limite));
+        
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(sqlPaginaPorReferencia(orden, descendente))) {
+            
+            stmt.setString(1, tipo);
+            stmt.setInt(2, idReferencia);
+            stmt.setInt(3, limite);
+            stmt.setInt(4, desplazamiento);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    costos.add(extraerCostoDeResultSet(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al listar página de costos: " + e.getMessage());
+        }
+        
+        return costos;
+    }
+    
+    /**
+     * @return SQL de {@link #listarPaginaPorReferencia}; parámetros: tipo, ID de referencia, límite y desplazamiento.
+     */
+    static String sqlPaginaPorReferencia(String orden, boolean descendente) {
+        String direccion = descendente ? " DESC" : " ASC";
+        String columna = ORDEN_LISTADO.contains(orden) ? orden : "id";
+        // El ID desempata las filas con el mismo valor para que las páginas no se solapen
+        return "SELECT " + COLUMNAS + " FROM costos WHERE tipo = ? AND id_referencia = ? ORDER BY "
+                + columna + direccion + ", id" + direccion + " LIMIT ? OFFSET ?";
+    }
+    
     /**
      * Obtiene los costos registrados por un usuario.
      * @param idUsuario ID del usuario.
      * @return Lista de costos registrados por el usuario.
      */
     public List<Costo> listarPorUsuario(int idUsuario) {
-        String sql = "SELECT * FROM costos WHERE id_usuario_registro = ?";
         List<Costo> costos = new ArrayList<>();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_USUARIO)) {
             
             stmt.setInt(1, idUsuario);
             
@@ -122,10 +254,8 @@ public class CostoDAO {
      * @return Suma total de los costos.
      */
     public double calcularTotalPorTipo(String tipo, int idReferencia, String tipoCosto) {
-        String sql = "SELECT SUM(monto) as total FROM costos WHERE tipo = ? AND id_referencia = ? AND tipo_costo = ?";
-        
-        try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_TOTAL_POR_TIPO)) {
             
             stmt.setString(1, tipo);
             stmt.setInt(2, idReferencia);
@@ -145,26 +275,123 @@ public class CostoDAO {
     }
     
     /**
-     * Extrae un objeto Costo de un ResultSet.
-     * @param rs ResultSet con datos de costo.
+     * Calcula los totales de todos los tipos de costo de un proyecto o tarea con una sola consulta.
+     * @param tipo Tipo de referencia (PROYECTO o TAREA).
+     * @param idReferencia ID del proyecto o tarea.
+     * @return Totales por tipo de costo (en 0 si no hay costos o hubo error).
+     */
+    public TotalesCosto calcularTotales(String tipo, int idReferencia) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_TOTALES)) {
+            
+            stmt.setString(1, tipo);
+            stmt.setInt(2, idReferencia);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return extraerTotalesDeResultSet(rs, 1);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al calcular totales de costos: " + e.getMessage());
+        }
+        
+        return new TotalesCosto();
+    }
+    
+    /**
+     * Calcula los totales por tipo de costo de varios proyectos o tareas agrupando por referencia.
+     * Los IDs se consultan en bloques de MAXIMO_IDS_POR_CONSULTA.
+     * @param tipo Tipo de referencia (PROYECTO o TAREA).
+     * @param idsReferencia IDs de los proyectos o tareas.
+     * @return Totales por ID; los IDs sin costos tienen totales en 0.
+     */
+    public Map<Integer, TotalesCosto> calcularTotalesPorReferencias(String tipo, Collection<Integer> idsReferencia) {
+        Map<Integer, TotalesCosto> totales = new HashMap<>();
+        for (Integer id : idsReferencia) {
+            totales.put(id, new TotalesCosto());
+        }
+        if (totales.isEmpty()) {
+            return totales;
+        }
+        
+        List<Integer> ids = new ArrayList<>(totales.keySet());
+        try (Connection conn = ConexionBD.obtenerConexionLectura()) {
+            for (int inicio = 0; inicio < ids.size(); inicio += MAXIMO_IDS_POR_CONSULTA) {
+                List<Integer> bloque = ids.subList(inicio, Math.min(inicio + MAXIMO_IDS_POR_CONSULTA, ids.size()));
+                String sql = "SELECT id_referencia, " + COLUMNAS_TOTALES + " FROM costos WHERE tipo = ? AND id_referencia IN ("
+                        + String.join(", ", Collections.nCopies(bloque.size(), "?")) + ") GROUP BY id_referencia";
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, tipo);
+                    for (int i = 0; i < bloque.size(); i++) {
+                        stmt.setInt(i + 2, bloque.get(i));
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            totales.put(rs.getInt(1), extraerTotalesDeResultSet(rs, 2));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al calcular totales de costos por lotes: " + e.getMessage());
+        }
+        
+        return totales;
+    }
+    
+    /**
+     * Asigna los parámetros de la sentencia de inserción.
+     * @param stmt Sentencia preparada con SQL_INSERT.
+     * @param costo Costo a insertar.
+     * @throws SQLException Si ocurre un error al asignar los parámetros.
+     */
+    private void asignarParametrosInsercion(PreparedStatement stmt, Costo costo) throws SQLException {
+        stmt.setString(1, costo.getTipo());
+        stmt.setInt(2, costo.getIdReferencia());
+        stmt.setString(3, costo.getDescripcion());
+        stmt.setDouble(4, costo.getMonto());
+        stmt.setString(5, costo.getTipoCosto());
+        stmt.setTimestamp(6, new Timestamp(costo.getFechaRegistro().getTime()));
+        stmt.setInt(7, costo.getIdUsuarioRegistro());
+    }
+    
+    /**
+     * Extrae los totales de las tres columnas de COLUMNAS_TOTALES.
+     * @param rs ResultSet posicionado en una fila.
+     * @param primeraColumna Posición de la primera columna de COLUMNAS_TOTALES.
+     * @return Totales por tipo de costo (SUM devuelve NULL sin filas, que se lee como 0).
+     * @throws SQLException Si ocurre un error al acceder a los datos.
+     */
+    private TotalesCosto extraerTotalesDeResultSet(ResultSet rs, int primeraColumna) throws SQLException {
+        return new TotalesCosto(rs.getDouble(primeraColumna), rs.getDouble(primeraColumna + 1),
+                rs.getDouble(primeraColumna + 2));
+    }
+    
+    /**
+     * Extrae un objeto Costo de un ResultSet leyendo las columnas por posición.
+     * @param rs ResultSet con las columnas de COLUMNAS.
      * @return Objeto Costo.
      * @throws SQLException Si ocurre un error al acceder a los datos.
      */
     private Costo extraerCostoDeResultSet(ResultSet rs) throws SQLException {
         Costo costo = new Costo();
-        costo.setId(rs.getInt("id"));
-        costo.setTipo(rs.getString("tipo"));
-        costo.setIdReferencia(rs.getInt("id_referencia"));
-        costo.setDescripcion(rs.getString("descripcion"));
-        costo.setMonto(rs.getDouble("monto"));
-        costo.setTipoCosto(rs.getString("tipo_costo"));
-        
-        Timestamp fechaRegistro = rs.getTimestamp("fecha_registro");
+        costo.setId(rs.getInt(COL_ID));
+        costo.setTipo(rs.getString(COL_TIPO));
+        costo.setIdReferencia(rs.getInt(COL_ID_REFERENCIA));
+        costo.setDescripcion(rs.getString(COL_DESCRIPCION));
+        costo.setMonto(rs.getDouble(COL_MONTO));
+        costo.setTipoCosto(rs.getString(COL_TIPO_COSTO));
+        
+        Timestamp fechaRegistro = rs.getTimestamp(COL_FECHA_REGISTRO);
         if (fechaRegistro != null) {
             costo.setFechaRegistro(new Date(fechaRegistro.getTime()));
         }
         
-        costo.setIdUsuarioRegistro(rs.getInt("id_usuario_registro"));
+        costo.setIdUsuarioRegistro(rs.getInt(COL_ID_USUARIO_REGISTRO));
         
         return costo;
     }
@@ -0,0 +1,155 @@
+package com.mycompany.sistemagestiondetareas.dao;
+
+import com.mycompany.sistemagestiondetareas.util.ConexionBD;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Inserción por lotes compartida por los DAO.
+ *
+ * - Envía las filas en bloques con executeBatch(); con rewriteBatchedStatements=true
+ *   el driver convierte cada bloque en INSERT de varias filas.
+ * - Cada bloque va en su propia transacción. Si falla, se deshace y sus filas se
+ *   reintentan de una en una para saber exactamente cuáles fallan.
+ * - Los fallos se deshacen hasta un punto de guardado del bloque o de la fila, nunca la
+ *   transacción entera: dentro de una UnidadDeTrabajo las filas insertadas siguen en la
+ *   unidad y se confirman con ella.
+ */
+class InsercionLote {
+
+    /**
+     * Asigna los parámetros de una entidad en la sentencia de inserción.
+     */
+    interface AsignadorParametros<T> {
+        void asignar(PreparedStatement stmt, T entidad) throws SQLException;
+    }
+
+    /**
+     * Recibe el ID generado para una entidad insertada.
+     */
+    interface ReceptorId<T> {
+        void recibir(T entidad, int id);
+    }
+
+    private InsercionLote() {}
+
+    /**
+     * Inserta las entidades en bloques de {@code tamanoBloque} filas.
+     * Si se pierde la conexión a mitad del lote, las filas no confirmadas se marcan como fallidas.
+     * @param sql Sentencia INSERT con parámetros.
+     * @param entidades Entidades a insertar.
+     * @param tamanoBloque Número de filas por bloque.
+     * @param asignador Asigna los parámetros de cada entidad.
+     * @param receptor Recibe el ID generado de cada entidad insertada.
+     * @return Resultado con los IDs en orden de entrada y los errores por fila.
+     */
+    static <T> ResultadoLote insertar(String sql, List<T> entidades, int tamanoBloque,
+                                      AsignadorParametros<T> asignador, ReceptorId<T> receptor) {
+        if (tamanoBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor que 0");
+        }
+
+        ResultadoLote resultado = new ResultadoLote(entidades.size());
+        if (entidades.isEmpty()) {
+            return resultado;
+        }
+
+        int pendiente = 0;
+        try (Connection conn = ConexionBD.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            conn.setAutoCommit(false);
+            try {
+                while (pendiente < entidades.size()) {
+                    int fin = Math.min(pendiente + tamanoBloque, entidades.size());
+                    insertarBloque(conn, stmt, entidades, pendiente, fin, asignador, receptor, resultado);
+                    pendiente = fin;
+                }
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            for (int i = pendiente; i < entidades.size(); i++) {
+                resultado.registrarError(i, e.getMessage());
+            }
+        }
+
+        return resultado;
+    }
+
+    private static <T> void insertarBloque(Connection conn, PreparedStatement stmt, List<T> entidades,
+                                           int inicio, int fin, AsignadorParametros<T> asignador,
+                                           ReceptorId<T> receptor, ResultadoLote resultado) throws SQLException {
+        Savepoint inicioBloque = conn.setSavepoint();
+        try {
+            for (int i = inicio; i < fin; i++) {
+                asignador.asignar(stmt, entidades.get(i));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            int[] ids = new int[fin - inicio];
+            int leidos = 0;
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                while (rs.next() && leidos < ids.length) {
+                    ids[leidos++] = rs.getInt(1);
+                }
+            }
+            if (leidos != ids.length) {
+                throw new SQLException("Se esperaban " + ids.length + " claves generadas y se obtuvieron " + leidos);
+            }
+
+            conn.releaseSavepoint(inicioBloque);
+            conn.commit();
+            for (int i = inicio; i < fin; i++) {
+                resultado.registrarId(i, ids[i - inicio]);
+                receptor.recibir(entidades.get(i), ids[i - inicio]);
+            }
+        } catch (BatchUpdateException | RuntimeException e) {
+            // Fila con error en el bloque (restricción, dato nulo...): se aíslan fila por fila
+            conn.rollback(inicioBloque);
+            stmt.clearBatch();
+            insertarFilaPorFila(conn, stmt, entidades, inicio, fin, asignador, receptor, resultado);
+        } catch (SQLException e) {
+            conn.rollback(inicioBloque);
+            stmt.clearBatch();
+            throw e;
+        }
+    }
+
+    /**
+     * Reintenta un bloque fallido fila por fila para aislar las filas con error.
+     */
+    private static <T> void insertarFilaPorFila(Connection conn, PreparedStatement stmt, List<T> entidades,
+                                                int inicio, int fin, AsignadorParametros<T> asignador,
+                                                ReceptorId<T> receptor, ResultadoLote resultado) throws SQLException {
+        for (int i = inicio; i < fin; i++) {
+            T entidad = entidades.get(i);
+            Savepoint inicioFila = conn.setSavepoint();
+            try {
+                asignador.asignar(stmt, entidad);
+                stmt.executeUpdate();
+
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (!rs.next()) {
+                        throw new SQLException("No se obtuvo la clave generada");
+                    }
+                    int id = rs.getInt(1);
+                    conn.releaseSavepoint(inicioFila);
+                    conn.commit();
+                    resultado.registrarId(i, id);
+                    receptor.recibir(entidad, id);
+                }
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback(inicioFila);
+                resultado.registrarError(i, e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+        }
+    }
+}
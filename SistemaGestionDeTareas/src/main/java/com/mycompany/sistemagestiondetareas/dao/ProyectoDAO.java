@@ -1,7 +1,10 @@
 package com.mycompany.sistemagestiondetareas.dao;
 
 import com.mycompany.sistemagestiondetareas.modelo.Proyecto;
+import com.mycompany.sistemagestiondetareas.modelo.ProyectoResumen;
+import com.mycompany.sistemagestiondetareas.util.CacheEntidades;
 import com.mycompany.sistemagestiondetareas.util.ConexionBD;
+import com.mycompany.sistemagestiondetareas.util.UnidadDeTrabajo;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -9,6 +12,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -16,9 +20,35 @@ import java.util.List;
  */
 public class ProyectoDAO {
     
+    // Caché de buscarPorId compartida por todas las instancias
+    private static final CacheEntidades<Proyecto> CACHE = new CacheEntidades<>("proyectos",
+            ConexionBD.getTamanoCacheEntidades(), ConexionBD.getTtlCacheEntidadesMs(), ProyectoDAO::copiar);
+    
     private static final String SQL_INSERT = "INSERT INTO proyectos (nombre, descripcion, fecha_inicio, fecha_fin, id_responsable, nivel_riesgo, presupuesto_total) VALUES (?, ?, ?, ?, ?, ?, ?)";
     private static final String SQL_UPDATE = "UPDATE proyectos SET nombre = ?, descripcion = ?, fecha_inicio = ?, fecha_fin = ?, id_responsable = ?, nivel_riesgo = ?, presupuesto_total = ? WHERE id = ?";
     
+    // Resumen de proyectos: responsable y totales de costos en una sola consulta.
+    // {0} filtra los costos agregados y {1} los proyectos.
+    private static final String SQL_RESUMEN =
+            "SELECT p.id, p.nombre, p.descripcion, p.fecha_inicio, p.fecha_fin, p.id_responsable, p.nivel_riesgo, p.presupuesto_total, "
+            + "CONCAT(u.nombre, ' ', u.apellido), "
+            + "COALESCE(c.retrasos, 0), COALESCE(c.adelantos, 0), COALESCE(c.gastos, 0) "
+            + "FROM proyectos p "
+            + "LEFT JOIN usuarios u ON u.id = p.id_responsable "
+            + "LEFT JOIN (SELECT id_referencia, "
+            + "SUM(CASE WHEN tipo_costo = 'RETRASO' THEN monto ELSE 0 END) AS retrasos, "
+            + "SUM(CASE WHEN tipo_costo = 'ADELANTO' THEN monto ELSE 0 END) AS adelantos, "
+            + "SUM(CASE WHEN tipo_costo = 'GASTO_PLANIFICADO' THEN monto ELSE 0 END) AS gastos "
+            + "FROM costos WHERE tipo = 'PROYECTO'{0} GROUP BY id_referencia) c ON c.id_referencia = p.id"
+            + "{1} ORDER BY p.id";
+    
+    // Filtros de las consultas por responsable o por ID (PlanesConsultasTest comprueba sus planes)
+    static final String SQL_POR_RESPONSABLE = "SELECT * FROM proyectos WHERE id_responsable = ?";
+    static final String FILTRO_COSTOS_RESPONSABLE = " AND id_referencia IN (SELECT id FROM proyectos WHERE id_responsable = ?)";
+    static final String FILTRO_PROYECTOS_RESPONSABLE = " WHERE p.id_responsable = ?";
+    static final String FILTRO_COSTOS_PROYECTO = " AND id_referencia = ?";
+    static final String FILTRO_PROYECTOS_ID = " WHERE p.id = ?";
+    
     /**
      * Inserta un nuevo proyecto en la base de datos.
      * @param proyecto Proyecto a insertar.
@@ -74,7 +104,10 @@ public class ProyectoDAO {
             stmt.setDouble(7, proyecto.getPresupuestoTotal());
             stmt.setInt(8, proyecto.getId());
             
-            return stmt.executeUpdate() > 0;
+            int filasAfectadas = stmt.executeUpdate();
+            invalidarCache(proyecto.getId());
+            
+            return filasAfectadas > 0;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -95,6 +128,7 @@ public class ProyectoDAO {
             stmt.setInt(1, id);
             
             int filasAfectadas = stmt.executeUpdate();
+            invalidarCache(id);
             
             return filasAfectadas > 0;
         } catch (SQLException e) {
@@ -104,21 +138,33 @@ public class ProyectoDAO {
     }
     
     /**
-     * Busca un proyecto por su ID.
+     * Busca un proyecto por su ID, primero en la caché de proyectos.
      * @param id ID del proyecto a buscar.
      * @return Proyecto encontrado o null si no existe.
      */
     public Proyecto buscarPorId(int id) {
+        Proyecto enCache = CACHE.obtener(id);
+        if (enCache != null) {
+            return enCache;
+        }
+        
         String sql = "SELECT * FROM proyectos WHERE id = ?";
+        // Lo que se guarda en la caché se lee del primario: la réplica puede ir por detrás
+        long marca = CACHE.marca();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
+        try (Connection conn = ConexionBD.obtenerConexionPrimario();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extraerProyectoDeResultSet(rs);
+                    Proyecto proyecto = extraerProyectoDeResultSet(rs);
+                    // Dentro de una unidad de trabajo podría leerse un cambio aún sin confirmar
+                    if (UnidadDeTrabajo.actual() == null) {
+                        CACHE.poner(id, proyecto, marca);
+                    }
+                    return proyecto;
                 }
             }
             
@@ -129,6 +175,27 @@ public class ProyectoDAO {
         }
     }
     
+    /**
+     * Comprueba si hay al menos un proyecto, sin recorrer la tabla.
+     * Se consulta el servidor principal, porque la respuesta decide si se insertan datos.
+     * @return true si la tabla tiene filas (también si hubo error, para no duplicar datos).
+     */
+    public boolean existeAlguno() {
+        String sql = "SELECT 1 FROM proyectos LIMIT 1";
+        
+        try (Connection conn = ConexionBD.obtenerConexionPrimario();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            return rs.next();
+            
+        } catch (SQLException e) {
+            System.err.println("Error al comprobar si hay proyectos: " + e.getMessage());
+        }
+        
+        return true;
+    }
+    
     /**
      * Obtiene todos los proyectos de la base de datos.
      * @return Lista de todos los proyectos.
@@ -137,7 +204,7 @@ public class ProyectoDAO {
         String sql = "SELECT * FROM proyectos";
         List<Proyecto> proyectos = new ArrayList<>();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -159,11 +226,10 @@ public class ProyectoDAO {
      * @return Lista de proyectos asignados al responsable.
      */
     public List<Proyecto> listarPorResponsable(int idResponsable) {
-        String sql = "SELECT * FROM proyectos WHERE id_responsable = ?";
         List<Proyecto> proyectos = new ArrayList<>();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_RESPONSABLE)) {
             
             stmt.setInt(1, idResponsable);
             
@@ -181,6 +247,114 @@ public class ProyectoDAO {
         return proyectos;
     }
     
+    /**
+     * Obtiene el resumen de todos los proyectos con una sola consulta.
+     * @return Resúmenes de proyectos ordenados por ID.
+     */
+    public List<ProyectoResumen> listarResumenes() {
+        return consultarResumenes("", "", 0);
+    }
+    
+    /**
+     * Obtiene el resumen de los proyectos de un responsable con una sola consulta.
+     * @param idResponsable ID del responsable.
+     * @return Resúmenes de los proyectos del responsable.
+     */
+    public List<ProyectoResumen> listarResumenesPorResponsable(int idResponsable) {
+        return consultarResumenes(FILTRO_COSTOS_RESPONSABLE, FILTRO_PROYECTOS_RESPONSABLE, idResponsable);
+    }
+    
+    /**
+     * Obtiene el resumen de un proyecto con una sola consulta.
+     * @param id ID del proyecto.
+     * @return Resumen del proyecto o null si no existe.
+     */
+    public ProyectoResumen buscarResumenPorId(int id) {
+        List<ProyectoResumen> resumenes = consultarResumenes(FILTRO_COSTOS_PROYECTO, FILTRO_PROYECTOS_ID, id);
+        return resumenes.isEmpty() ? null : resumenes.get(0);
+    }
+    
+    /**
+     * @return SQL_RESUMEN con los filtros indicados; ambos usan el mismo parámetro.
+     */
+    static String sqlResumenes(String filtroCostos, String filtroProyectos) {
+        return SQL_RESUMEN.replace("{0}", filtroCostos).replace("{1}", filtroProyectos);
+    }
+    
+    /**
+     * Ejecuta SQL_RESUMEN con los filtros indicados; ambos usan el mismo parámetro.
+     */
+    private List<ProyectoResumen> consultarResumenes(String filtroCostos, String filtroProyectos, int parametro) {
+        List<ProyectoResumen> resumenes = new ArrayList<>();
+        
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(sqlResumenes(filtroCostos, filtroProyectos))) {
+            
+            if (!filtroProyectos.isEmpty()) {
+                stmt.setInt(1, parametro);
+                stmt.setInt(2, parametro);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Proyecto proyecto = new Proyecto();
+                    proyecto.setId(rs.getInt(1));
+                    proyecto.setNombre(rs.getString(2));
+                    proyecto.setDescripcion(rs.getString(3));
+                    proyecto.setFechaInicio(rs.getTimestamp(4));
+                    proyecto.setFechaFin(rs.getTimestamp(5));
+                    proyecto.setIdResponsable(rs.getInt(6));
+                    proyecto.setNivelRiesgo(rs.getString(7));
+                    proyecto.setPresupuestoTotal(rs.getDouble(8));
+                    
+                    resumenes.add(new ProyectoResumen(proyecto, rs.getString(9),
+                            rs.getDouble(10), rs.getDouble(11), rs.getDouble(12)));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al listar resumen de proyectos: " + e.getMessage());
+        }
+        
+        return resumenes;
+    }
+    
+    /**
+     * @return Estadísticas de la caché de proyectos.
+     */
+    public static CacheEntidades.Estadisticas estadisticasCache() {
+        return CACHE.estadisticas();
+    }
+    
+    /**
+     * Quita de la caché los proyectos de un responsable (se eliminan en cascada con el usuario).
+     * @param idResponsable ID del usuario responsable.
+     */
+    static void invalidarCachePorResponsable(int idResponsable) {
+        CACHE.invalidarSi(proyecto -> proyecto.getIdResponsable() == idResponsable);
+    }
+    
+    /**
+     * Quita un proyecto de la caché. Dentro de una unidad de trabajo se vuelve a quitar tras el commit,
+     * por si otro hilo lo cacheó con el valor anterior mientras tanto.
+     */
+    private static void invalidarCache(int id) {
+        CACHE.invalidar(id);
+        if (UnidadDeTrabajo.actual() != null) {
+            UnidadDeTrabajo.despuesDeConfirmar(() -> CACHE.invalidar(id));
+        }
+    }
+    
+    /**
+     * Copia un proyecto para la caché (las fechas son mutables).
+     */
+    private static Proyecto copiar(Proyecto proyecto) {
+        return new Proyecto(proyecto.getId(), proyecto.getNombre(), proyecto.getDescripcion(),
+                proyecto.getFechaInicio() != null ? (Date) proyecto.getFechaInicio().clone() : null,
+                proyecto.getFechaFin() != null ? (Date) proyecto.getFechaFin().clone() : null,
+                proyecto.getIdResponsable(), proyecto.getNivelRiesgo(), proyecto.getPresupuestoTotal());
+    }
+    
     /**
      * Extrae un objeto Proyecto de un ResultSet.
      * @param rs ResultSet con datos de proyecto.
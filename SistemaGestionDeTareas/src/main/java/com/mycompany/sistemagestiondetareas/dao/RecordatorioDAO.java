@@ -0,0 +1,113 @@
+package com.mycompany.sistemagestiondetareas.dao;
+
+import com.mycompany.sistemagestiondetareas.modelo.Tarea;
+import com.mycompany.sistemagestiondetareas.util.ConexionBD;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Clase DAO para el registro de recordatorios enviados (tabla recordatorios_enviados).
+ *
+ * Cada fila es (tarea, tipo de recordatorio, vencimiento avisado): si la tarea cambia de
+ * vencimiento, el nuevo vencimiento se avisa de nuevo; si no, el aviso no se repite aunque
+ * el proceso se reinicie. La consulta y el registro se hacen por lotes.
+ */
+public class RecordatorioDAO {
+
+    // Máximo de IDs por consulta IN (...)
+    private static final int MAXIMO_IDS_POR_CONSULTA = 1000;
+
+    private static final String SQL_INSERT = "INSERT IGNORE INTO recordatorios_enviados (id_tarea, tipo, vencimiento) VALUES (?, ?, ?)";
+
+    /**
+     * Busca, con una consulta por bloque de IDs, qué tareas ya tienen avisado su vencimiento actual.
+     * Se consulta el servidor principal, porque la respuesta decide si se envía un correo.
+     * @param tipo Tipo de recordatorio.
+     * @param tareas Tareas a comprobar (con su vencimiento actual).
+     * @return IDs de las tareas cuyo vencimiento ya se avisó (vacío si hubo error: se prefiere avisar de más).
+     */
+    public Set<Integer> buscarEnviados(String tipo, Collection<Tarea> tareas) {
+        Map<Integer, Long> vencimientos = new HashMap<>();
+        for (Tarea tarea : tareas) {
+            if (tarea.getFechaVencimiento() != null) {
+                vencimientos.put(tarea.getId(), tarea.getFechaVencimiento().getTime());
+            }
+        }
+
+        Set<Integer> enviados = new HashSet<>();
+        if (vencimientos.isEmpty()) {
+            return enviados;
+        }
+
+        List<Integer> ids = new ArrayList<>(vencimientos.keySet());
+        try (Connection conn = ConexionBD.obtenerConexionPrimario()) {
+            for (int inicio = 0; inicio < ids.size(); inicio += MAXIMO_IDS_POR_CONSULTA) {
+                List<Integer> bloque = ids.subList(inicio, Math.min(inicio + MAXIMO_IDS_POR_CONSULTA, ids.size()));
+                String sql = "SELECT id_tarea, vencimiento FROM recordatorios_enviados WHERE tipo = ? AND id_tarea IN ("
+                        + String.join(", ", Collections.nCopies(bloque.size(), "?")) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setString(1, tipo);
+                    for (int i = 0; i < bloque.size(); i++) {
+                        stmt.setInt(i + 2, bloque.get(i));
+                    }
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            int idTarea = rs.getInt(1);
+                            Timestamp vencimiento = rs.getTimestamp(2);
+                            if (vencimiento != null && vencimiento.getTime() == vencimientos.get(idTarea)) {
+                                enviados.add(idTarea);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al consultar recordatorios enviados: " + e.getMessage());
+            enviados.clear();
+        }
+
+        return enviados;
+    }
+
+    /**
+     * Registra en un solo lote los recordatorios enviados. Los ya registrados se ignoran.
+     * @param tipo Tipo de recordatorio.
+     * @param tareas Tareas avisadas (con el vencimiento avisado).
+     * @return true si se registraron, false si hubo error.
+     */
+    public boolean registrar(String tipo, Collection<Tarea> tareas) {
+        if (tareas.isEmpty()) {
+            return true;
+        }
+
+        try (Connection conn = ConexionBD.obtenerConexion();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+
+            for (Tarea tarea : tareas) {
+                stmt.setInt(1, tarea.getId());
+                stmt.setString(2, tipo);
+                stmt.setTimestamp(3, new Timestamp(tarea.getFechaVencimiento().getTime()));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error al registrar recordatorios enviados: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.mycompany.sistemagestiondetareas.dao;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de una inserción por lotes.
+ *
+ * Guarda el ID generado de cada fila en el mismo orden de la lista de entrada
+ * (0 si la fila no se insertó) y el mensaje de error de cada fila fallida.
+ */
+public class ResultadoLote {
+    private final int[] ids;
+    private final Map<Integer, String> errores = new TreeMap<>();
+
+    /**
+     * @param totalFilas Número de filas enviadas en el lote.
+     */
+    public ResultadoLote(int totalFilas) {
+        this.ids = new int[totalFilas];
+    }
+
+    void registrarId(int posicion, int id) {
+        ids[posicion] = id;
+    }
+
+    void registrarError(int posicion, String mensaje) {
+        ids[posicion] = 0;
+        errores.put(posicion, mensaje);
+    }
+
+    /**
+     * @return IDs generados en el orden de entrada; 0 en las filas que fallaron.
+     */
+    public int[] getIds() {
+        return ids.clone();
+    }
+
+    /**
+     * @return Errores por posición de la fila en la lista de entrada.
+     */
+    public Map<Integer, String> getErrores() {
+        return Collections.unmodifiableMap(errores);
+    }
+
+    /**
+     * @return Número de filas insertadas correctamente.
+     */
+    public int getInsertadas() {
+        return ids.length - errores.size();
+    }
+
+    /**
+     * @return true si todas las filas se insertaron.
+     */
+    public boolean isCompleto() {
+        return errores.isEmpty();
+    }
+}
@@ -1,7 +1,9 @@
 package com.mycompany.sistemagestiondetareas.dao;
 
 import com.mycompany.sistemagestiondetareas.modelo.Tarea;
+import com.mycompany.sistemagestiondetareas.modelo.TareaResumen;
 import com.mycompany.sistemagestiondetareas.util.ConexionBD;
+import com.mycompany.sistemagestiondetareas.util.UnidadDeTrabajo;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -9,33 +11,118 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Clase DAO para operaciones de la entidad Tarea en la base de datos.
  */
 public class TareaDAO {
     
+    // Proyecciones: los listados no traen los TEXT completos, solo un extracto de la descripción
+    private static final int LONGITUD_EXTRACTO = 200;
+    private static final String COLUMNAS_RESUMEN = "id, nombre, fecha_creacion, fecha_vencimiento, id_proyecto, id_responsable, estado, LEFT(descripcion, " + LONGITUD_EXTRACTO + ")";
+    private static final String COLUMNAS_COMPLETAS = "id, nombre, fecha_creacion, fecha_vencimiento, id_proyecto, id_responsable, estado, descripcion, comentarios";
+    
+    // Posición de cada columna en las proyecciones anteriores
+    private static final int COL_ID = 1;
+    private static final int COL_NOMBRE = 2;
+    private static final int COL_FECHA_CREACION = 3;
+    private static final int COL_FECHA_VENCIMIENTO = 4;
+    private static final int COL_ID_PROYECTO = 5;
+    private static final int COL_ID_RESPONSABLE = 6;
+    private static final int COL_ESTADO = 7;
+    private static final int COL_DESCRIPCION = 8;
+    private static final int COL_COMENTARIOS = 9;
+    
+    // Listado con el nombre del proyecto y del responsable: COLUMNAS_RESUMEN más dos columnas
+    private static final String SQL_LISTADO_COLUMNAS = "SELECT t.id, t.nombre, t.fecha_creacion, t.fecha_vencimiento, t.id_proyecto, t.id_responsable, t.estado, LEFT(t.descripcion, " + LONGITUD_EXTRACTO + "), "
+            + "p.nombre, CONCAT(u.nombre, ' ', u.apellido) ";
+    private static final String SQL_LISTADO_JOINS = "LEFT JOIN proyectos p ON p.id = t.id_proyecto "
+            + "LEFT JOIN usuarios u ON u.id = t.id_responsable";
+    private static final String SQL_LISTADO = SQL_LISTADO_COLUMNAS + "FROM tareas t " + SQL_LISTADO_JOINS;
+    private static final int COL_NOMBRE_PROYECTO = 9;
+    private static final int COL_NOMBRE_RESPONSABLE = 10;
+    
+    // Columnas por las que se puede ordenar el listado paginado (clave -> expresión de SQL_LISTADO)
+    private static final Map<String, String> ORDEN_LISTADO = Map.of(
+            "id", "t.id",
+            "nombre", "t.nombre",
+            "fecha_creacion", "t.fecha_creacion",
+            "fecha_vencimiento", "t.fecha_vencimiento",
+            "proyecto", "p.nombre",
+            "responsable", "CONCAT(u.nombre, ' ', u.apellido)",
+            "estado", "t.estado");
+    
+    // Consultas filtradas u ordenadas (PlanesConsultasTest comprueba sus planes)
+    static final String SQL_PAGINA = "SELECT " + COLUMNAS_RESUMEN + " FROM tareas WHERE id > ? ORDER BY id LIMIT ?";
+    static final String SQL_POR_PROYECTO = "SELECT " + COLUMNAS_RESUMEN + " FROM tareas WHERE id_proyecto = ?";
+    static final String SQL_POR_RESPONSABLE = "SELECT " + COLUMNAS_RESUMEN + " FROM tareas WHERE id_responsable = ?";
+    static final String FILTRO_PROYECTO = " WHERE t.id_proyecto = ?";
+    static final String FILTRO_RESPONSABLE = " WHERE t.id_responsable = ?";
+    
+    private static final String SQL_INSERT = "INSERT INTO tareas (nombre, descripcion, fecha_creacion, fecha_vencimiento, id_proyecto, id_responsable, estado, comentarios) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // Filas por bloque en las inserciones por lotes
+    public static final int TAMANO_BLOQUE_POR_DEFECTO = 500;
+    
+    // Máximo de IDs por consulta IN (...)
+    private static final int MAXIMO_IDS_POR_CONSULTA = 1000;
+    
+    // Historial de comentarios añadidos al cambiar de estado
+    private final ComentarioTareaDAO comentarioDAO = new ComentarioTareaDAO();
+    
+    /**
+     * Columnas actualizables de una tarea para el seguimiento de cambios de {@link UnidadDeTrabajo}.
+     * La descripción y los comentarios solo se incluyen si la tarea tiene sus textos completos.
+     */
+    public static final UnidadDeTrabajo.Mapeo<Tarea> MAPEO = new UnidadDeTrabajo.Mapeo<Tarea>() {
+        @Override
+        public String getTabla() {
+            return "tareas";
+        }
+        
+        @Override
+        public int getId(Tarea tarea) {
+            return tarea.getId();
+        }
+        
+        @Override
+        public Map<String, Object> getColumnas(Tarea tarea) {
+            Map<String, Object> columnas = new LinkedHashMap<>();
+            columnas.put("nombre", tarea.getNombre());
+            columnas.put("fecha_vencimiento", tarea.getFechaVencimiento());
+            columnas.put("id_proyecto", tarea.getIdProyecto());
+            columnas.put("id_responsable", tarea.getIdResponsable());
+            columnas.put("estado", tarea.getEstado());
+            if (tarea.isTextosCargados()) {
+                columnas.put("descripcion", tarea.getDescripcion());
+                columnas.put("comentarios", tarea.getComentarios());
+            }
+            return columnas;
+        }
+    };
+    
     /**
      * Inserta una nueva tarea en la base de datos.
      * @param tarea Tarea a insertar.
      * @return Tarea con ID generado o null si hubo error.
      */
     public Tarea insertar(Tarea tarea) {
-        String sql = "INSERT INTO tareas (nombre, descripcion, fecha_creacion, fecha_vencimiento, id_proyecto, id_responsable, estado, comentarios) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
         try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
             
-            stmt.setString(1, tarea.getNombre());
-            stmt.setString(2, tarea.getDescripcion());
-            stmt.setTimestamp(3, new Timestamp(tarea.getFechaCreacion().getTime()));
-            stmt.setTimestamp(4, new Timestamp(tarea.getFechaVencimiento().getTime()));
-            stmt.setInt(5, tarea.getIdProyecto());
-            stmt.setInt(6, tarea.getIdResponsable());
-            stmt.setString(7, tarea.getEstado());
-            stmt.setString(8, tarea.getComentarios());
+            asignarParametrosInsercion(stmt, tarea);
             
             int filasAfectadas = stmt.executeUpdate();
             
@@ -57,12 +144,44 @@ public class TareaDAO {
         }
     }
     
+    /**
+     * Inserta varias tareas usando lotes JDBC con el tamaño de bloque por defecto.
+     * @param tareas Tareas a insertar; las insertadas reciben su ID generado.
+     * @return Resultado con los IDs en el orden de entrada y los errores por fila.
+     */
+    public ResultadoLote insertarLote(List<Tarea> tareas) {
+        return insertarLote(tareas, TAMANO_BLOQUE_POR_DEFECTO);
+    }
+    
+    /**
+     * Inserta varias tareas usando lotes JDBC.
+     * @param tareas Tareas a insertar; las insertadas reciben su ID generado.
+     * @param tamanoBloque Número de filas enviadas en cada lote.
+     * @return Resultado con los IDs en el orden de entrada y los errores por fila.
+     */
+    public ResultadoLote insertarLote(List<Tarea> tareas, int tamanoBloque) {
+        ResultadoLote resultado = InsercionLote.insertar(SQL_INSERT, tareas, tamanoBloque,
+                this::asignarParametrosInsercion, Tarea::setId);
+        
+        if (!resultado.isCompleto()) {
+            System.err.println("Error al insertar lote de tareas: " + resultado.getErrores().size()
+                    + " de " + tareas.size() + " filas fallaron.");
+        }
+        
+        return resultado;
+    }
+    
     /**
      * Actualiza una tarea existente en la base de datos.
      * @param tarea Tarea a actualizar.
      * @return true si la actualización fue exitosa, false en caso contrario.
      */
     public boolean actualizar(Tarea tarea) {
+        // Una tarea de listado solo tiene un extracto de los textos: no se sobrescriben
+        if (!tarea.isTextosCargados()) {
+            return actualizarSinTextos(tarea);
+        }
+        
         String sql = "UPDATE tareas SET nombre = ?, descripcion = ?, fecha_vencimiento = ?, id_proyecto = ?, id_responsable = ?, estado = ?, comentarios = ? WHERE id = ?";
         
         try (Connection conn = ConexionBD.obtenerConexion();
@@ -87,32 +206,64 @@ public class TareaDAO {
     }
     
     /**
-     * Actualiza el estado de una tarea.
-     * @param id ID de la tarea.
-     * @param nuevoEstado Nuevo estado.
-     * @param comentario Comentario adicional.
+     * Actualiza una tarea sin tocar la descripción ni los comentarios.
+     * @param tarea Tarea a actualizar.
      * @return true si la actualización fue exitosa, false en caso contrario.
      */
-    public boolean actualizarEstado(int id, String nuevoEstado, String comentario) {
-        String sql = "UPDATE tareas SET estado = ?, comentarios = CONCAT(IFNULL(comentarios, ''), ?) WHERE id = ?";
+    private boolean actualizarSinTextos(Tarea tarea) {
+        String sql = "UPDATE tareas SET nombre = ?, fecha_vencimiento = ?, id_proyecto = ?, id_responsable = ?, estado = ? WHERE id = ?";
         
         try (Connection conn = ConexionBD.obtenerConexion();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, nuevoEstado);
-            
-            // Si hay comentario, agregar salto de línea
-            if (comentario != null && !comentario.trim().isEmpty()) {
-                stmt.setString(2, "\n" + comentario);
-            } else {
-                stmt.setString(2, "");
-            }
-            
-            stmt.setInt(3, id);
+            stmt.setString(1, tarea.getNombre());
+            stmt.setTimestamp(2, new Timestamp(tarea.getFechaVencimiento().getTime()));
+            stmt.setInt(3, tarea.getIdProyecto());
+            stmt.setInt(4, tarea.getIdResponsable());
+            stmt.setString(5, tarea.getEstado());
+            stmt.setInt(6, tarea.getId());
             
             int filasAfectadas = stmt.executeUpdate();
             
             return filasAfectadas > 0;
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar tarea: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Actualiza el estado de una tarea y, si hay comentario, lo añade a su historial
+     * (ver {@link ComentarioTareaDAO}). El coste no depende de la longitud del historial.
+     * Ambas escrituras se hacen en una {@link UnidadDeTrabajo}: se confirman juntas o ninguna.
+     * @param id ID de la tarea.
+     * @param nuevoEstado Nuevo estado.
+     * @param comentario Comentario adicional.
+     * @return true si la actualización fue exitosa, false en caso contrario.
+     */
+    public boolean actualizarEstado(int id, String nuevoEstado, String comentario) {
+        String sql = "UPDATE tareas SET estado = ? WHERE id = ?";
+        
+        try {
+            return UnidadDeTrabajo.ejecutar(unidad -> {
+                try (Connection conn = ConexionBD.obtenerConexion();
+                     PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    
+                    stmt.setString(1, nuevoEstado);
+                    stmt.setInt(2, id);
+                    
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                }
+                
+                if (comentario != null && !comentario.trim().isEmpty() && !comentarioDAO.agregar(id, comentario)) {
+                    // Sin el comentario tampoco se cambia el estado
+                    unidad.marcarParaDeshacer();
+                    return false;
+                }
+                return true;
+            });
         } catch (SQLException e) {
             System.err.println("Error al actualizar estado de tarea: " + e.getMessage());
             return false;
@@ -147,16 +298,16 @@ public class TareaDAO {
      * @return Tarea encontrada o null si no existe.
      */
     public Tarea buscarPorId(int id) {
-        String sql = "SELECT * FROM tareas WHERE id = ?";
+        String sql = "SELECT " + COLUMNAS_COMPLETAS + " FROM tareas WHERE id = ?";
         
-        try (Connection conn = ConexionBD.obtenerConexion();
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extraerTareaDeResultSet(rs);
+                    return extraerTareaDeResultSet(rs, true);
                 }
             }
             
@@ -167,20 +318,92 @@ public class TareaDAO {
         }
     }
     
+    /**
+     * Busca varias tareas por ID con una consulta por bloque de IDs, con sus textos completos.
+     * @param ids IDs de las tareas.
+     * @return Tareas encontradas por ID; los IDs que no existen no aparecen.
+     */
+    public Map<Integer, Tarea> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, Tarea> tareas = new HashMap<>();
+        if (ids.isEmpty()) {
+            return tareas;
+        }
+        
+        List<Integer> lista = new ArrayList<>(ids);
+        try (Connection conn = ConexionBD.obtenerConexionLectura()) {
+            for (int inicio = 0; inicio < lista.size(); inicio += MAXIMO_IDS_POR_CONSULTA) {
+                List<Integer> bloque = lista.subList(inicio, Math.min(inicio + MAXIMO_IDS_POR_CONSULTA, lista.size()));
+                String sql = "SELECT " + COLUMNAS_COMPLETAS + " FROM tareas WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(bloque.size(), "?")) + ")";
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < bloque.size(); i++) {
+                        stmt.setInt(i + 1, bloque.get(i));
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Tarea tarea = extraerTareaDeResultSet(rs, true);
+                            tareas.put(tarea.getId(), tarea);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar tareas por ID: " + e.getMessage());
+        }
+        
+        return tareas;
+    }
+    
+    /**
+     * Carga bajo demanda la descripción completa y los comentarios de una tarea
+     * obtenida de un listado. No hace nada si ya estaban cargados.
+     * @param tarea Tarea a completar.
+     * @return true si la tarea tiene sus textos completos, false si hubo error.
+     */
+    public boolean cargarTextos(Tarea tarea) {
+        if (tarea.isTextosCargados()) {
+            return true;
+        }
+        
+        String sql = "SELECT descripcion, comentarios FROM tareas WHERE id = ?";
+        
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, tarea.getId());
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    tarea.setDescripcion(rs.getString(1));
+                    tarea.setComentarios(rs.getString(2));
+                    tarea.setTextosCargados(true);
+                    return true;
+                }
+            }
+            
+            return false;
+        } catch (SQLException e) {
+            System.err.println("Error al cargar textos de la tarea: " + e.getMessage());
+            return false;
+        }
+    }
+    
     /**
      * Obtiene todas las tareas de la base de datos.
      * @return Lista de todas las tareas.
      */
     public List<Tarea> listarTodas() {
-        String sql = "SELECT * FROM tareas";
+        String sql = "SELECT " + COLUMNAS_RESUMEN + " FROM tareas";
         List<Tarea> tareas = new ArrayList<>();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                Tarea tarea = extraerTareaDeResultSet(rs);
+                Tarea tarea = extraerTareaDeResultSet(rs, false);
                 tareas.add(tarea);
             }
             
@@ -191,23 +414,224 @@ public class TareaDAO {
         return tareas;
     }
     
+    /**
+     * Recorre todas las tareas sin cargarlas en memoria: MySQL envía las filas
+     * una a una y cada Tarea se crea al consumirla.
+     * 
+     * El Stream mantiene prestada una conexión hasta que se cierra, por lo que debe
+     * usarse con try-with-resources:
+     * <pre>
+     * try (Stream&lt;Tarea&gt; tareas = tareaDAO.streamTodas()) {
+     *     tareas.forEach(...);
+     * }
+     * </pre>
+     * Si la lectura falla a mitad de recorrido, el consumo lanza {@link AccesoDatosException}.
+     * @return Stream de tareas ordenado por ID.
+     */
+    public Stream<Tarea> streamTodas() {
+        return stream("SELECT " + COLUMNAS_RESUMEN + " FROM tareas ORDER BY id",
+                rs -> extraerTareaDeResultSet(rs, false));
+    }
+    
+    /**
+     * Recorre todas las tareas junto con el nombre de su proyecto y de su responsable,
+     * con una sola consulta y sin cargarlas en memoria. Debe cerrarse como {@link #streamTodas()}.
+     * @return Stream de resúmenes de tareas ordenado por ID.
+     */
+    public Stream<TareaResumen> streamResumenes() {
+        return stream(SQL_LISTADO + " ORDER BY t.id", this::extraerResumenDeResultSet);
+    }
+    
+    /**
+     * Ejecuta una consulta en modo streaming y devuelve sus filas como Stream.
+     * El Stream mantiene prestada la conexión hasta que se cierra.
+     */
+    private <T> Stream<T> stream(String sql, ExtractorFila<T> extractor) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        
+        try {
+            conn = ConexionBD.obtenerConexionLectura();
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Integer.MIN_VALUE activa el envío fila a fila del driver de MySQL
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            System.err.println("Error al recorrer tareas: " + e.getMessage());
+            cerrarRecursos(rs, stmt, conn);
+            return Stream.empty();
+        }
+        
+        final Connection conexion = conn;
+        final PreparedStatement sentencia = stmt;
+        final ResultSet resultados = rs;
+        
+        Spliterator<T> filas = new Spliterators.AbstractSpliterator<T>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> accion) {
+                try {
+                    if (!resultados.next()) {
+                        return false;
+                    }
+                    accion.accept(extractor.extraer(resultados));
+                    return true;
+                } catch (SQLException e) {
+                    // Terminar aquí daría un resultado incompleto que parece completo
+                    throw new AccesoDatosException("Error al recorrer tareas", e);
+                }
+            }
+        };
+        
+        return StreamSupport.stream(filas, false)
+                .onClose(() -> cerrarRecursos(resultados, sentencia, conexion));
+    }
+    
+    /**
+     * Obtiene una página de tareas usando paginación por clave (keyset):
+     * el coste no depende de la posición de la página.
+     * @param despuesDeId ID de la última tarea de la página anterior (0 para la primera página).
+     * @param limite Número máximo de tareas de la página.
+     * @return Tareas con ID mayor que despuesDeId, ordenadas por ID.
+     */
+    public List<Tarea> listarPagina(int despuesDeId, int limite) {
+        List<Tarea> tareas = new ArrayList<>(Math.max(0, limite));
+        
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_PAGINA)) {
+            
+            stmt.setInt(1, despuesDeId);
+            stmt.setInt(2, limite);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tareas.add(extraerTareaDeResultSet(rs, false));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al listar página de tareas: " + e.getMessage());
+        }
+        
+        return tareas;
+    }
+    
+    /**
+     * Comprueba si hay al menos una tarea, sin recorrer la tabla.
+     * Se consulta el servidor principal, porque la respuesta decide si se insertan datos.
+     * @return true si la tabla tiene filas (también si hubo error, para no duplicar datos).
+     */
+    public boolean existeAlguno() {
+        String sql = "SELECT 1 FROM tareas LIMIT 1";
+        
+        try (Connection conn = ConexionBD.obtenerConexionPrimario();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            return rs.next();
+            
+        } catch (SQLException e) {
+            System.err.println("Error al comprobar si hay tareas: " + e.getMessage());
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Cuenta todas las tareas.
+     * @return Número de tareas, o 0 si hubo error.
+     */
+    public int contarTodas() {
+        String sql = "SELECT COUNT(*) FROM tareas";
+        
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al contar tareas: " + e.getMessage());
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Obtiene una página del listado de tareas (con nombre de proyecto y responsable)
+     * por posición, ordenada en el servidor. A diferencia de {@link #listarPagina(int, int)}
+     * permite saltar a cualquier posición, como necesita una tabla que se desplaza libremente.
+     * @param desplazamiento Posición de la primera fila (desde 0).
+     * @param limite Número máximo de filas.
+     * @param orden Clave de la columna de orden (id, nombre, fecha_creacion, fecha_vencimiento,
+     *              proyecto, responsable o estado); cualquier otro valor ordena por ID.
+     * @param descendente true para orden descendente.
+     * @return Resúmenes de las tareas de la página.
+     */
+    public List<TareaResumen> listarResumenesPagina(int desplazamiento, int limite, String orden, boolean descendente) {
+        List<TareaResumen> resumenes = new ArrayList<>(Math.max(0, limite));
+        
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(sqlResumenesPagina(orden, descendente))) {
+            
+            stmt.setInt(1, limite);
+            stmt.setInt(2, desplazamiento);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resumenes.add(extraerResumenDeResultSet(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al listar página de resumen de tareas: " + e.getMessage());
+        }
+        
+        return resumenes;
+    }
+    
+    /**
+     * @return SQL de {@link #listarResumenesPagina}; parámetros: límite y desplazamiento.
+     */
+    static String sqlResumenesPagina(String orden, boolean descendente) {
+        String direccion = descendente ? " DESC" : " ASC";
+        String columna = ORDEN_LISTADO.getOrDefault(orden, "t.id");
+        // El ID desempata las filas con el mismo valor para que las páginas no se solapen
+        String ordenSql = " ORDER BY " + columna + direccion + ", t.id" + direccion;
+
+        if (!columna.startsWith("t.")) {
+            // Orden por una columna de otra tabla: no hay índice que lo resuelva
+            return SQL_LISTADO + ordenSql + " LIMIT ? OFFSET ?";
+        }
+
+        // Con los JOIN el optimizador ordena la tabla entera antes de aplicar el LIMIT: los ID
+        // de la página se leen primero solo de tareas, recorriendo el índice de la columna,
+        // y los JOIN se hacen únicamente para esas filas
+        return SQL_LISTADO_COLUMNAS
+                + "FROM (SELECT t.id FROM tareas t" + ordenSql + " LIMIT ? OFFSET ?) pagina "
+                + "JOIN tareas t ON t.id = pagina.id "
+                + SQL_LISTADO_JOINS + ordenSql;
+    }
+    
     /**
      * Obtiene las tareas de un proyecto específico.
      * @param idProyecto ID del proyecto.
      * @return Lista de tareas del proyecto.
      */
     public List<Tarea> listarPorProyecto(int idProyecto) {
-        String sql = "SELECT * FROM tareas WHERE id_proyecto = ?";
         List<Tarea> tareas = new ArrayList<>();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_PROYECTO)) {
             
             stmt.setInt(1, idProyecto);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Tarea tarea = extraerTareaDeResultSet(rs);
+                    Tarea tarea = extraerTareaDeResultSet(rs, false);
                     tareas.add(tarea);
                 }
             }
@@ -225,17 +649,16 @@ public class TareaDAO {
      * @return Lista de tareas asignadas al responsable.
      */
     public List<Tarea> listarPorResponsable(int idResponsable) {
-        String sql = "SELECT * FROM tareas WHERE id_responsable = ?";
         List<Tarea> tareas = new ArrayList<>();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_RESPONSABLE)) {
             
             stmt.setInt(1, idResponsable);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    Tarea tarea = extraerTareaDeResultSet(rs);
+                    Tarea tarea = extraerTareaDeResultSet(rs, false);
                     tareas.add(tarea);
                 }
             }
@@ -248,32 +671,215 @@ public class TareaDAO {
     }
     
     /**
-     * Extrae un objeto Tarea de un ResultSet.
-     * @param rs ResultSet con datos de tarea.
-     * @return Objeto Tarea.
+     * Obtiene las tareas que vencen en un intervalo y están en alguno de los estados dados, con sus textos completos.
+     * Usa el índice (estado, fecha_vencimiento): por cada estado se lee solo el tramo del índice
+     * dentro del intervalo, así que el coste depende de las tareas que vencen, no del tamaño de la tabla.
+     * @param desde Inicio del intervalo (excluido).
+     * @param hasta Fin del intervalo (excluido).
+     * @param estados Estados incluidos (por ejemplo, PENDIENTE y EN PROCESO).
+     * @return Tareas que vencen en el intervalo, por fecha de vencimiento.
+     */
+    public List<Tarea> listarPorVencimientoEntre(Date desde, Date hasta, Collection<String> estados) {
+        List<Tarea> tareas = new ArrayList<>();
+        if (estados.isEmpty()) {
+            return tareas;
+        }
+        
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(sqlPorVencimiento(estados.size()))) {
+            
+            int indice = 1;
+            for (String estado : estados) {
+                stmt.setString(indice++, estado);
+            }
+            stmt.setTimestamp(indice++, new Timestamp(desde.getTime()));
+            stmt.setTimestamp(indice, new Timestamp(hasta.getTime()));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tareas.add(extraerTareaDeResultSet(rs, true));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al listar tareas por vencimiento: " + e.getMessage());
+        }
+        
+        return tareas;
+    }
+    
+    /**
+     * @return SQL de {@link #listarPorVencimientoEntre}; parámetros: los estados, desde y hasta.
+     */
+    static String sqlPorVencimiento(int estados) {
+        // Con IN (y no estado <> ?) las dos columnas del índice acotan el rango leído
+        return "SELECT " + COLUMNAS_COMPLETAS + " FROM tareas "
+                + "WHERE estado IN (" + String.join(", ", Collections.nCopies(estados, "?")) + ") "
+                + "AND fecha_vencimiento > ? AND fecha_vencimiento < ? "
+                + "ORDER BY fecha_vencimiento";
+    }
+    
+    /**
+     * Obtiene las tareas de un proyecto con el nombre del proyecto y del responsable.
+     * @param idProyecto ID del proyecto.
+     * @return Lista de resúmenes de las tareas del proyecto.
+     */
+    public List<TareaResumen> listarResumenesPorProyecto(int idProyecto) {
+        return consultarResumenes(FILTRO_PROYECTO, idProyecto);
+    }
+    
+    /**
+     * Obtiene las tareas de un responsable con el nombre del proyecto y del responsable.
+     * @param idResponsable ID del responsable.
+     * @return Lista de resúmenes de las tareas asignadas al responsable.
+     */
+    public List<TareaResumen> listarResumenesPorResponsable(int idResponsable) {
+        return consultarResumenes(FILTRO_RESPONSABLE, idResponsable);
+    }
+    
+    /**
+     * Busca una tarea por su ID con el nombre del proyecto y del responsable.
+     * @param id ID de la tarea.
+     * @return Resumen de la tarea o null si no existe.
+     */
+    public TareaResumen buscarResumenPorId(int id) {
+        List<TareaResumen> resumenes = consultarResumenes(" WHERE t.id = ?", id);
+        return resumenes.isEmpty() ? null : resumenes.get(0);
+    }
+    
+    /**
+     * Obtiene todas las tareas con el nombre del proyecto y del responsable.
+     * Para tablas grandes es preferible {@link #streamResumenes()}.
+     * @return Lista de resúmenes de todas las tareas.
+     */
+    public List<TareaResumen> listarResumenes() {
+        return consultarResumenes("", 0);
+    }
+    
+    /**
+     * @return SQL_LISTADO con un filtro opcional de un parámetro entero, ordenado por ID.
+     */
+    static String sqlResumenes(String filtro) {
+        return SQL_LISTADO + filtro + " ORDER BY t.id";
+    }
+    
+    /**
+     * Ejecuta SQL_LISTADO con un filtro opcional de un parámetro entero.
+     */
+    private List<TareaResumen> consultarResumenes(String filtro, int parametro) {
+        List<TareaResumen> resumenes = new ArrayList<>();
+        
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(sqlResumenes(filtro))) {
+            
+            if (!filtro.isEmpty()) {
+                stmt.setInt(1, parametro);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    resumenes.add(extraerResumenDeResultSet(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error al listar resumen de tareas: " + e.getMessage());
+        }
+        
+        return resumenes;
+    }
+    
+    /**
+     * Cierra los recursos de una consulta en orden inverso, ignorando los nulos.
+     */
+    private void cerrarRecursos(ResultSet rs, Statement stmt, Connection conn) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al cerrar consulta de tareas: " + e.getMessage());
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                System.err.println("Error al devolver la conexión: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Asigna los parámetros de la sentencia de inserción.
+     * @param stmt Sentencia preparada con SQL_INSERT.
+     * @param tarea Tarea a insertar.
+     * @throws SQLException Si ocurre un error al asignar los parámetros.
+     */
+    private void asignarParametrosInsercion(PreparedStatement stmt, Tarea tarea) throws SQLException {
+        stmt.setString(1, tarea.getNombre());
+        stmt.setString(2, tarea.getDescripcion());
+        stmt.setTimestamp(3, new Timestamp(tarea.getFechaCreacion().getTime()));
+        stmt.setTimestamp(4, new Timestamp(tarea.getFechaVencimiento().getTime()));
+        stmt.setInt(5, tarea.getIdProyecto());
+        stmt.setInt(6, tarea.getIdResponsable());
+        stmt.setString(7, tarea.getEstado());
+        stmt.setString(8, tarea.getComentarios());
+    }
+    
+    /**
+     * Extrae un resumen de tarea de un ResultSet de SQL_LISTADO.
+     * @param rs ResultSet posicionado en una fila.
+     * @return Resumen con la tarea y los nombres de su proyecto y responsable.
+     * @throws SQLException Si ocurre un error al acceder a los datos.
+     */
+    private TareaResumen extraerResumenDeResultSet(ResultSet rs) throws SQLException {
+        return new TareaResumen(extraerTareaDeResultSet(rs, false),
+                rs.getString(COL_NOMBRE_PROYECTO), rs.getString(COL_NOMBRE_RESPONSABLE));
+    }
+    
+    /**
+     * Extrae un objeto Tarea de un ResultSet leyendo las columnas por posición.
+     * @param rs ResultSet con COLUMNAS_RESUMEN o COLUMNAS_COMPLETAS.
+     * @param completa true si el ResultSet trae COLUMNAS_COMPLETAS.
+     * @return Objeto Tarea; si no es completa, solo con un extracto de la descripción.
      * @throws SQLException Si ocurre un error al acceder a los datos.
      */
-    private Tarea extraerTareaDeResultSet(ResultSet rs) throws SQLException {
+    private Tarea extraerTareaDeResultSet(ResultSet rs, boolean completa) throws SQLException {
         Tarea tarea = new Tarea();
-        tarea.setId(rs.getInt("id"));
-        tarea.setNombre(rs.getString("nombre"));
-        tarea.setDescripcion(rs.getString("descripcion"));
+        tarea.setId(rs.getInt(COL_ID));
+        tarea.setNombre(rs.getString(COL_NOMBRE));
         
-        Timestamp fechaCreacion = rs.getTimestamp("fecha_creacion");
+        Timestamp fechaCreacion = rs.getTimestamp(COL_FECHA_CREACION);
         if (fechaCreacion != null) {
             tarea.setFechaCreacion(new Date(fechaCreacion.getTime()));
         }
         
-        Timestamp fechaVencimiento = rs.getTimestamp("fecha_vencimiento");
+        Timestamp fechaVencimiento = rs.getTimestamp(COL_FECHA_VENCIMIENTO);
         if (fechaVencimiento != null) {
             tarea.setFechaVencimiento(new Date(fechaVencimiento.getTime()));
         }
         
-        tarea.setIdProyecto(rs.getInt("id_proyecto"));
-        tarea.setIdResponsable(rs.getInt("id_responsable"));
-        tarea.setEstado(rs.getString("estado"));
-        tarea.setComentarios(rs.getString("comentarios"));
+        tarea.setIdProyecto(rs.getInt(COL_ID_PROYECTO));
+        tarea.setIdResponsable(rs.getInt(COL_ID_RESPONSABLE));
+        tarea.setEstado(rs.getString(COL_ESTADO));
+        tarea.setDescripcion(rs.getString(COL_DESCRIPCION));
+        
+        if (completa) {
+            tarea.setComentarios(rs.getString(COL_COMENTARIOS));
+        }
+        tarea.setTextosCargados(completa);
         
         return tarea;
     }
+    
+    /**
+     * Convierte la fila actual de un ResultSet en un objeto.
+     */
+    private interface ExtractorFila<T> {
+        T extraer(ResultSet rs) throws SQLException;
+    }
 } 
\ No newline at end of file
@@ -1,20 +1,37 @@
 package com.mycompany.sistemagestiondetareas.dao;
 
 import com.mycompany.sistemagestiondetareas.modelo.Usuario;
+import com.mycompany.sistemagestiondetareas.util.CacheEntidades;
 import com.mycompany.sistemagestiondetareas.util.ConexionBD;
+import com.mycompany.sistemagestiondetareas.util.UnidadDeTrabajo;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clase DAO para operaciones de la entidad Usuario en la base de datos.
  */
 public class UsuarioDAO {
     
+    // Caché de buscarPorId compartida por todas las instancias
+    private static final CacheEntidades<Usuario> CACHE = new CacheEntidades<>("usuarios",
+            ConexionBD.getTamanoCacheEntidades(), ConexionBD.getTtlCacheEntidadesMs(), UsuarioDAO::copiar);
+    
+    // Máximo de IDs por consulta IN (...)
+    private static final int MAXIMO_IDS_POR_CONSULTA = 1000;
+    
+    // Búsqueda del inicio de sesión, sobre el índice único de email
+    static final String SQL_POR_EMAIL = "SELECT * FROM usuarios WHERE email = ?";
+    
     /**
      * Inserta un nuevo usuario en la base de datos.
      * @param usuario Usuario a insertar.
@@ -71,6 +88,7 @@ public class UsuarioDAO {
             stmt.setInt(6, usuario.getId());
             
             int filasAfectadas = stmt.executeUpdate();
+            invalidarCache(usuario.getId());
             
             return filasAfectadas > 0;
         } catch (SQLException e) {
@@ -93,6 +111,9 @@ public class UsuarioDAO {
             stmt.setInt(1, id);
             
             int filasAfectadas = stmt.executeUpdate();
+            invalidarCache(id);
+            // Sus proyectos se eliminan en cascada
+            ProyectoDAO.invalidarCachePorResponsable(id);
             
             return filasAfectadas > 0;
         } catch (SQLException e) {
@@ -102,21 +123,33 @@ public class UsuarioDAO {
     }
     
     /**
-     * Busca un usuario por su ID.
+     * Busca un usuario por su ID, primero en la caché de usuarios.
      * @param id ID del usuario a buscar.
      * @return Usuario encontrado o null si no existe.
      */
     public Usuario buscarPorId(int id) {
+        Usuario enCache = CACHE.obtener(id);
+        if (enCache != null) {
+            return enCache;
+        }
+        
         String sql = "SELECT * FROM usuarios WHERE id = ?";
+        // Lo que se guarda en la caché se lee del primario: la réplica puede ir por detrás
+        long marca = CACHE.marca();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
+        try (Connection conn = ConexionBD.obtenerConexionPrimario();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return extraerUsuarioDeResultSet(rs);
+                    Usuario usuario = extraerUsuarioDeResultSet(rs);
+                    // Dentro de una unidad de trabajo podría leerse un cambio aún sin confirmar
+                    if (UnidadDeTrabajo.actual() == null) {
+                        CACHE.poner(id, usuario, marca);
+                    }
+                    return usuario;
                 }
             }
             
@@ -127,16 +160,66 @@ public class UsuarioDAO {
         }
     }
     
+    /**
+     * Busca varios usuarios por ID: primero en la caché de usuarios y el resto con una
+     * consulta IN por bloque de IDs.
+     * @param ids IDs de los usuarios.
+     * @return Usuarios encontrados por ID; los IDs que no existen no aparecen.
+     */
+    public Map<Integer, Usuario> buscarPorIds(Collection<Integer> ids) {
+        Map<Integer, Usuario> usuarios = new HashMap<>();
+        List<Integer> pendientes = new ArrayList<>();
+        for (Integer id : new LinkedHashSet<>(ids)) {
+            Usuario enCache = CACHE.obtener(id);
+            if (enCache != null) {
+                usuarios.put(id, enCache);
+            } else {
+                pendientes.add(id);
+            }
+        }
+        if (pendientes.isEmpty()) {
+            return usuarios;
+        }
+        
+        boolean cachear = UnidadDeTrabajo.actual() == null;
+        long marca = CACHE.marca();
+        try (Connection conn = ConexionBD.obtenerConexionPrimario()) {
+            for (int inicio = 0; inicio < pendientes.size(); inicio += MAXIMO_IDS_POR_CONSULTA) {
+                List<Integer> bloque = pendientes.subList(inicio, Math.min(inicio + MAXIMO_IDS_POR_CONSULTA, pendientes.size()));
+                String sql = "SELECT * FROM usuarios WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(bloque.size(), "?")) + ")";
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < bloque.size(); i++) {
+                        stmt.setInt(i + 1, bloque.get(i));
+                    }
+                    
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Usuario usuario = extraerUsuarioDeResultSet(rs);
+                            usuarios.put(usuario.getId(), usuario);
+                            if (cachear) {
+                                CACHE.poner(usuario.getId(), usuario, marca);
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al buscar usuarios por ID: " + e.getMessage());
+        }
+        
+        return usuarios;
+    }
+    
     /**
      * Busca un usuario por su email.
      * @param email Email del usuario a buscar.
      * @return Usuario encontrado o null si no existe.
      */
     public Usuario buscarPorEmail(String email) {
-        String sql = "SELECT * FROM usuarios WHERE email = ?";
-        
-        try (Connection conn = ConexionBD.obtenerConexion();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
+             PreparedStatement stmt = conn.prepareStatement(SQL_POR_EMAIL)) {
             
             stmt.setString(1, email);
             
@@ -153,6 +236,27 @@ public class UsuarioDAO {
         }
     }
     
+    /**
+     * Comprueba si hay al menos un usuario, sin recorrer la tabla.
+     * Se consulta el servidor principal, porque la respuesta decide si se insertan datos.
+     * @return true si la tabla tiene filas (también si hubo error, para no duplicar datos).
+     */
+    public boolean existeAlguno() {
+        String sql = "SELECT 1 FROM usuarios LIMIT 1";
+        
+        try (Connection conn = ConexionBD.obtenerConexionPrimario();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            return rs.next();
+            
+        } catch (SQLException e) {
+            System.err.println("Error al comprobar si hay usuarios: " + e.getMessage());
+        }
+        
+        return true;
+    }
+    
     /**
      * Obtiene todos los usuarios de la base de datos.
      * @return Lista de todos los usuarios.
@@ -161,7 +265,7 @@ public class UsuarioDAO {
         String sql = "SELECT * FROM usuarios";
         List<Usuario> usuarios = new ArrayList<>();
         
-        try (Connection conn = ConexionBD.obtenerConexion();
+        try (Connection conn = ConexionBD.obtenerConexionLectura();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
@@ -177,6 +281,32 @@ public class UsuarioDAO {
         return usuarios;
     }
     
+    /**
+     * @return Estadísticas de la caché de usuarios.
+     */
+    public static CacheEntidades.Estadisticas estadisticasCache() {
+        return CACHE.estadisticas();
+    }
+    
+    /**
+     * Quita un usuario de la caché. Dentro de una unidad de trabajo se vuelve a quitar tras el commit,
+     * por si otro hilo lo cacheó con el valor anterior mientras tanto.
+     */
+    private static void invalidarCache(int id) {
+        CACHE.invalidar(id);
+        if (UnidadDeTrabajo.actual() != null) {
+            UnidadDeTrabajo.despuesDeConfirmar(() -> CACHE.invalidar(id));
+        }
+    }
+    
+    /**
+     * Copia un usuario para la caché.
+     */
+    private static Usuario copiar(Usuario usuario) {
+        return new Usuario(usuario.getId(), usuario.getNombre(), usuario.getApellido(),
+                usuario.getEmail(), usuario.getPassword(), usuario.isEsAdmin());
+    }
+    
     /**
      * Extrae un objeto Usuario de un ResultSet.
      * @param rs ResultSet con datos de usuario.
@@ -0,0 +1,64 @@
+package com.mycompany.sistemagestiondetareas.modelo;
+
+import java.util.Date;
+
+/**
+ * Clase que representa un comentario del historial de una tarea.
+ * Los comentarios solo se añaden; no se modifican ni se borran (salvo con la tarea).
+ */
+public class ComentarioTarea {
+    private long id;
+    private int idTarea;
+    private String texto;
+    private Date fecha;
+
+    // Constructor vacío
+    public ComentarioTarea() {
+    }
+
+    // Constructor completo
+    public ComentarioTarea(long id, int idTarea, String texto, Date fecha) {
+        this.id = id;
+        this.idTarea = idTarea;
+        this.texto = texto;
+        this.fecha = fecha;
+    }
+
+    // Getters y setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getIdTarea() {
+        return idTarea;
+    }
+
+    public void setIdTarea(int idTarea) {
+        this.idTarea = idTarea;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    @Override
+    public String toString() {
+        return "ComentarioTarea{" + "id=" + id + ", idTarea=" + idTarea + ", fecha=" + fecha + '}';
+    }
+}
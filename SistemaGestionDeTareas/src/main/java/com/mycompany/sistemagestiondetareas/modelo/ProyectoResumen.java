@@ -0,0 +1,81 @@
+package com.mycompany.sistemagestiondetareas.modelo;
+
+/**
+ * Vista de solo lectura de un proyecto con el nombre de su responsable
+ * y los totales de costos por tipo.
+ */
+public class ProyectoResumen {
+    private Proyecto proyecto;
+    private String nombreResponsable; // Nombre y apellido, null si el usuario no existe
+    private double totalRetrasos;
+    private double totalAdelantos;
+    private double totalGastosPlanificados;
+
+    // Constructor vacío
+    public ProyectoResumen() {
+    }
+
+    // Constructor completo
+    public ProyectoResumen(Proyecto proyecto, String nombreResponsable, double totalRetrasos,
+                          double totalAdelantos, double totalGastosPlanificados) {
+        this.proyecto = proyecto;
+        this.nombreResponsable = nombreResponsable;
+        this.totalRetrasos = totalRetrasos;
+        this.totalAdelantos = totalAdelantos;
+        this.totalGastosPlanificados = totalGastosPlanificados;
+    }
+
+    /**
+     * Calcula el balance del proyecto.
+     * @return Presupuesto total - gastos planificados + adelantos - retrasos.
+     */
+    public double getBalance() {
+        return proyecto.getPresupuestoTotal() - totalGastosPlanificados + totalAdelantos - totalRetrasos;
+    }
+
+    // Getters y setters
+    public Proyecto getProyecto() {
+        return proyecto;
+    }
+
+    public void setProyecto(Proyecto proyecto) {
+        this.proyecto = proyecto;
+    }
+
+    public String getNombreResponsable() {
+        return nombreResponsable;
+    }
+
+    public void setNombreResponsable(String nombreResponsable) {
+        this.nombreResponsable = nombreResponsable;
+    }
+
+    public double getTotalRetrasos() {
+        return totalRetrasos;
+    }
+
+    public void setTotalRetrasos(double totalRetrasos) {
+        this.totalRetrasos = totalRetrasos;
+    }
+
+    public double getTotalAdelantos() {
+        return totalAdelantos;
+    }
+
+    public void setTotalAdelantos(double totalAdelantos) {
+        this.totalAdelantos = totalAdelantos;
+    }
+
+    public double getTotalGastosPlanificados() {
+        return totalGastosPlanificados;
+    }
+
+    public void setTotalGastosPlanificados(double totalGastosPlanificados) {
+        this.totalGastosPlanificados = totalGastosPlanificados;
+    }
+
+    @Override
+    public String toString() {
+        return proyecto.getNombre();
+    }
+}
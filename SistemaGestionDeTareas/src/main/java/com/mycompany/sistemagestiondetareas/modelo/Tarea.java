@@ -15,6 +15,8 @@ public class Tarea {
     private int idResponsable;
     private String estado; // Pendiente, En proceso, Completada
     private String comentarios;
+    // false si la tarea viene de un listado y solo tiene un extracto de la descripción
+    private boolean textosCargados = true;
     
     // Constructor vacío
     public Tarea() {
@@ -120,6 +122,14 @@ public class Tarea {
         this.comentarios = comentarios;
     }
     
+    public boolean isTextosCargados() {
+        return textosCargados;
+    }
+
+    public void setTextosCargados(boolean textosCargados) {
+        this.textosCargados = textosCargados;
+    }
+    
     @Override
     public String toString() {
         return nombre;
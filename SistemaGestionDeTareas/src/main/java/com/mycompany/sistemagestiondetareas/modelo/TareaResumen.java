@@ -0,0 +1,52 @@
+package com.mycompany.sistemagestiondetareas.modelo;
+
+/**
+ * Vista de solo lectura de una tarea de listado con el nombre de su proyecto
+ * y el nombre completo de su responsable.
+ */
+public class TareaResumen {
+    private Tarea tarea;
+    private String nombreProyecto;     // null si el proyecto no existe
+    private String nombreResponsable;  // Nombre y apellido, null si el usuario no existe
+
+    // Constructor vacío
+    public TareaResumen() {
+    }
+
+    // Constructor completo
+    public TareaResumen(Tarea tarea, String nombreProyecto, String nombreResponsable) {
+        this.tarea = tarea;
+        this.nombreProyecto = nombreProyecto;
+        this.nombreResponsable = nombreResponsable;
+    }
+
+    // Getters y setters
+    public Tarea getTarea() {
+        return tarea;
+    }
+
+    public void setTarea(Tarea tarea) {
+        this.tarea = tarea;
+    }
+
+    public String getNombreProyecto() {
+        return nombreProyecto;
+    }
+
+    public void setNombreProyecto(String nombreProyecto) {
+        this.nombreProyecto = nombreProyecto;
+    }
+
+    public String getNombreResponsable() {
+        return nombreResponsable;
+    }
+
+    public void setNombreResponsable(String nombreResponsable) {
+        this.nombreResponsable = nombreResponsable;
+    }
+
+    @Override
+    public String toString() {
+        return tarea.getNombre();
+    }
+}
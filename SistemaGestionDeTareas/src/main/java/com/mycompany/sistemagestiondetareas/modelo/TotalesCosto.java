@@ -0,0 +1,54 @@
+package com.mycompany.sistemagestiondetareas.modelo;
+
+/**
+ * Totales de costos por tipo de un proyecto o tarea.
+ */
+public class TotalesCosto {
+    private double retrasos;
+    private double adelantos;
+    private double gastosPlanificados;
+
+    // Constructor vacío (todos los totales en 0)
+    public TotalesCosto() {
+    }
+
+    // Constructor completo
+    public TotalesCosto(double retrasos, double adelantos, double gastosPlanificados) {
+        this.retrasos = retrasos;
+        this.adelantos = adelantos;
+        this.gastosPlanificados = gastosPlanificados;
+    }
+
+    /**
+     * Calcula el balance de costos.
+     * @return Adelantos - retrasos - gastos planificados.
+     */
+    public double getBalance() {
+        return adelantos - retrasos - gastosPlanificados;
+    }
+
+    // Getters y setters
+    public double getRetrasos() {
+        return retrasos;
+    }
+
+    public void setRetrasos(double retrasos) {
+        this.retrasos = retrasos;
+    }
+
+    public double getAdelantos() {
+        return adelantos;
+    }
+
+    public void setAdelantos(double adelantos) {
+        this.adelantos = adelantos;
+    }
+
+    public double getGastosPlanificados() {
+        return gastosPlanificados;
+    }
+
+    public void setGastosPlanificados(double gastosPlanificados) {
+        this.gastosPlanificados = gastosPlanificados;
+    }
+}
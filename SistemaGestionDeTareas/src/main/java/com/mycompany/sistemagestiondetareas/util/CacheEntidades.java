@@ -0,0 +1,372 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Caché de entidades por ID delante de un DAO, con expulsión LRU y caducidad (TTL).
+ *
+ * - Las claves son int sin envolver: una tabla hash de direccionamiento abierto lleva cada ID
+ *   a un nodo, y los nodos forman una lista LRU doblemente enlazada sobre arrays de int.
+ * - Se guarda y se entrega siempre una copia de la entidad, así que modificar el objeto
+ *   recibido no altera la caché.
+ * - Los DAO la invalidan al actualizar o eliminar la entidad. Para no guardar un valor leído antes
+ *   de una invalidación, el DAO toma una {@link #marca()} antes de leer y la pasa a {@link #poner}:
+ *   si hubo alguna invalidación entre medias, el valor no se guarda.
+ * - Cuenta aciertos, fallos, expulsiones por tamaño, caducidades e invalidaciones.
+ *
+ * Las operaciones son sincronizadas: cada una es un puñado de accesos a arrays.
+ */
+public class CacheEntidades<T> {
+
+    // Marca de ranura libre en la tabla hash (los ID válidos son mayores que 0)
+    private static final int LIBRE = 0;
+    private static final int NINGUNO = -1;
+
+    private final String nombre;
+    private final int capacidad;
+    private final long ttlNanos;
+    private final UnaryOperator<T> copia;
+
+    // Tabla hash: ID -> nodo, con sondeo lineal
+    private final int[] claves;
+    private final int[] nodosPorRanura;
+    private final int mascara;
+
+    // Nodos: entidad, ID, caducidad y enlaces de la lista LRU (cabeza = más reciente)
+    private final Object[] valores;
+    private final int[] ids;
+    private final long[] caducaEn;
+    private final int[] anterior;
+    private final int[] siguiente;
+    private int cabeza = NINGUNO;
+    private int cola = NINGUNO;
+    private int libres = NINGUNO;
+    private int tamano = 0;
+
+    private long aciertos = 0;
+    private long fallos = 0;
+    private long expulsiones = 0;
+    private long caducadas = 0;
+    private long invalidaciones = 0;
+    // Cambia con cada invalidación, esté o no la entidad en la caché
+    private long marcaInvalidacion = 0;
+
+    /**
+     * @param nombre Nombre de la caché (para las estadísticas).
+     * @param capacidad Número máximo de entidades; 0 desactiva la caché.
+     * @param ttlMs Tiempo de vida de cada entrada en milisegundos.
+     * @param copia Copia de una entidad.
+     */
+    public CacheEntidades(String nombre, int capacidad, long ttlMs, UnaryOperator<T> copia) {
+        this.nombre = nombre;
+        this.capacidad = Math.max(0, capacidad);
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.copia = copia;
+
+        // Potencia de 2 con al menos el doble de ranuras que nodos: sondeos cortos
+        int ranuras = Integer.highestOneBit(Math.max(2, this.capacidad) * 2 - 1) << 1;
+        this.claves = new int[ranuras];
+        this.nodosPorRanura = new int[ranuras];
+        this.mascara = ranuras - 1;
+
+        this.valores = new Object[this.capacidad];
+        this.ids = new int[this.capacidad];
+        this.caducaEn = new long[this.capacidad];
+        this.anterior = new int[this.capacidad];
+        this.siguiente = new int[this.capacidad];
+        for (int i = 0; i < this.capacidad; i++) {
+            siguiente[i] = i + 1 < this.capacidad ? i + 1 : NINGUNO;
+        }
+        libres = this.capacidad > 0 ? 0 : NINGUNO;
+    }
+
+    /**
+     * @param id ID de la entidad.
+     * @return Copia de la entidad en caché, o null si no está o caducó.
+     */
+    public synchronized T obtener(int id) {
+        int ranura = buscarRanura(id);
+        if (ranura == NINGUNO) {
+            fallos++;
+            return null;
+        }
+
+        int nodo = nodosPorRanura[ranura];
+        if (System.nanoTime() - caducaEn[nodo] > 0) {
+            quitar(nodo);
+            caducadas++;
+            fallos++;
+            return null;
+        }
+
+        moverAlFrente(nodo);
+        aciertos++;
+        @SuppressWarnings("unchecked")
+        T valor = (T) valores[nodo];
+        return copia.apply(valor);
+    }
+
+    /**
+     * @return Marca de invalidación actual; se toma antes de leer la entidad de la base de datos.
+     */
+    public synchronized long marca() {
+        return marcaInvalidacion;
+    }
+
+    /**
+     * Guarda una copia de la entidad, salvo que haya habido alguna invalidación desde la marca
+     * (el valor leído podría ser anterior a ella). Si la caché está llena, expulsa la usada hace más tiempo.
+     * @param id ID de la entidad.
+     * @param entidad Entidad leída de la base de datos.
+     * @param marca Marca tomada con {@link #marca()} antes de leer la entidad.
+     */
+    public synchronized void poner(int id, T entidad, long marca) {
+        if (capacidad == 0 || id <= LIBRE || entidad == null || marca != marcaInvalidacion) {
+            return;
+        }
+
+        int nodo;
+        int ranura = buscarRanura(id);
+        if (ranura != NINGUNO) {
+            nodo = nodosPorRanura[ranura];
+            moverAlFrente(nodo);
+        } else {
+            if (libres == NINGUNO) {
+                quitar(cola);
+                expulsiones++;
+            }
+            nodo = libres;
+            libres = siguiente[nodo];
+
+            ids[nodo] = id;
+            insertarEnTabla(id, nodo);
+            enlazarAlFrente(nodo);
+            tamano++;
+        }
+
+        valores[nodo] = copia.apply(entidad);
+        caducaEn[nodo] = System.nanoTime() + ttlNanos;
+    }
+
+    /**
+     * Quita una entidad de la caché, si está.
+     * @param id ID de la entidad.
+     */
+    public synchronized void invalidar(int id) {
+        marcaInvalidacion++;
+        int ranura = buscarRanura(id);
+        if (ranura != NINGUNO) {
+            quitar(nodosPorRanura[ranura]);
+            invalidaciones++;
+        }
+    }
+
+    /**
+     * Quita las entidades que cumplen una condición (por ejemplo, las afectadas por un borrado en cascada).
+     * @param condicion Condición sobre la entidad.
+     */
+    public synchronized void invalidarSi(Predicate<T> condicion) {
+        marcaInvalidacion++;
+        int nodo = cabeza;
+        while (nodo != NINGUNO) {
+            int proximo = siguiente[nodo];
+            @SuppressWarnings("unchecked")
+            T valor = (T) valores[nodo];
+            if (condicion.test(valor)) {
+                quitar(nodo);
+                invalidaciones++;
+            }
+            nodo = proximo;
+        }
+    }
+
+    /**
+     * Vacía la caché. Las estadísticas se conservan.
+     */
+    public synchronized void limpiar() {
+        marcaInvalidacion++;
+        while (cabeza != NINGUNO) {
+            quitar(cabeza);
+        }
+    }
+
+    /**
+     * @return Copia de las estadísticas actuales.
+     */
+    public synchronized Estadisticas estadisticas() {
+        return new Estadisticas(nombre, tamano, capacidad, aciertos, fallos, expulsiones, caducadas, invalidaciones);
+    }
+
+    /**
+     * Posición ideal de un ID en la tabla hash (mezcla de Fibonacci).
+     */
+    private int ranuraIdeal(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private int buscarRanura(int id) {
+        if (capacidad == 0 || id <= LIBRE) {
+            return NINGUNO;
+        }
+        for (int ranura = ranuraIdeal(id); ; ranura = (ranura + 1) & mascara) {
+            if (claves[ranura] == id) {
+                return ranura;
+            }
+            if (claves[ranura] == LIBRE) {
+                return NINGUNO;
+            }
+        }
+    }
+
+    private void insertarEnTabla(int id, int nodo) {
+        int ranura = ranuraIdeal(id);
+        while (claves[ranura] != LIBRE) {
+            ranura = (ranura + 1) & mascara;
+        }
+        claves[ranura] = id;
+        nodosPorRanura[ranura] = nodo;
+    }
+
+    /**
+     * Borra una ranura desplazando hacia atrás las claves que la sondearon,
+     * para que ninguna búsqueda se corte en el hueco.
+     */
+    private void borrarDeTabla(int ranura) {
+        int hueco = ranura;
+        int actual = ranura;
+        while (true) {
+            actual = (actual + 1) & mascara;
+            int clave = claves[actual];
+            if (clave == LIBRE) {
+                break;
+            }
+            int ideal = ranuraIdeal(clave);
+            // La clave puede ocupar el hueco si su posición ideal no está entre el hueco y su posición actual
+            boolean alcanzable = hueco <= actual
+                    ? ideal <= hueco || ideal > actual
+                    : ideal <= hueco && ideal > actual;
+            if (alcanzable) {
+                claves[hueco] = clave;
+                nodosPorRanura[hueco] = nodosPorRanura[actual];
+                hueco = actual;
+            }
+        }
+        claves[hueco] = LIBRE;
+    }
+
+    private void quitar(int nodo) {
+        borrarDeTabla(buscarRanura(ids[nodo]));
+        desenlazar(nodo);
+        valores[nodo] = null;
+        siguiente[nodo] = libres;
+        libres = nodo;
+        tamano--;
+    }
+
+    private void moverAlFrente(int nodo) {
+        if (nodo != cabeza) {
+            desenlazar(nodo);
+            enlazarAlFrente(nodo);
+        }
+    }
+
+    private void enlazarAlFrente(int nodo) {
+        anterior[nodo] = NINGUNO;
+        siguiente[nodo] = cabeza;
+        if (cabeza != NINGUNO) {
+            anterior[cabeza] = nodo;
+        }
+        cabeza = nodo;
+        if (cola == NINGUNO) {
+            cola = nodo;
+        }
+    }
+
+    private void desenlazar(int nodo) {
+        if (anterior[nodo] != NINGUNO) {
+            siguiente[anterior[nodo]] = siguiente[nodo];
+        } else {
+            cabeza = siguiente[nodo];
+        }
+        if (siguiente[nodo] != NINGUNO) {
+            anterior[siguiente[nodo]] = anterior[nodo];
+        } else {
+            cola = anterior[nodo];
+        }
+    }
+
+    /**
+     * Estadísticas de una caché en un momento dado.
+     */
+    public static final class Estadisticas {
+        private final String nombre;
+        private final int tamano;
+        private final int capacidad;
+        private final long aciertos;
+        private final long fallos;
+        private final long expulsiones;
+        private final long caducadas;
+        private final long invalidaciones;
+
+        private Estadisticas(String nombre, int tamano, int capacidad, long aciertos, long fallos,
+                             long expulsiones, long caducadas, long invalidaciones) {
+            this.nombre = nombre;
+            this.tamano = tamano;
+            this.capacidad = capacidad;
+            this.aciertos = aciertos;
+            this.fallos = fallos;
+            this.expulsiones = expulsiones;
+            this.caducadas = caducadas;
+            this.invalidaciones = invalidaciones;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public int getTamano() {
+            return tamano;
+        }
+
+        public int getCapacidad() {
+            return capacidad;
+        }
+
+        public long getAciertos() {
+            return aciertos;
+        }
+
+        public long getFallos() {
+            return fallos;
+        }
+
+        public long getExpulsiones() {
+            return expulsiones;
+        }
+
+        public long getCaducadas() {
+            return caducadas;
+        }
+
+        public long getInvalidaciones() {
+            return invalidaciones;
+        }
+
+        /**
+         * @return Proporción de búsquedas resueltas por la caché (0 si no hubo búsquedas).
+         */
+        public double getTasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0 : (double) aciertos / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d/%d entradas, %d aciertos, %d fallos (%.1f%%), %d expulsadas, %d caducadas, %d invalidadas",
+                    nombre, tamano, capacidad, aciertos, fallos, getTasaAciertos() * 100,
+                    expulsiones, caducadas, invalidaciones);
+        }
+    }
+}
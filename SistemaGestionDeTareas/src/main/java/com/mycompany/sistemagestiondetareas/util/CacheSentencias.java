@@ -0,0 +1,236 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché LRU de sentencias preparadas asociada a una conexión física del pool.
+ *
+ * - La clave es el texto SQL (más el indicador de claves generadas).
+ * - Al cerrar una sentencia obtenida de la caché, se limpian sus parámetros y queda
+ *   disponible para el siguiente uso en lugar de cerrarse en el servidor.
+ * - Con {@code useServerPrepStmts=true} en la URL, cada SQL se analiza una sola vez por conexión.
+ *
+ * Una conexión solo la usa un hilo a la vez (mientras está prestada), por lo que la
+ * caché no necesita sincronización propia.
+ */
+public class CacheSentencias {
+
+    private final Connection fisica;
+    private final int capacidad;
+    private final Contadores contadores;
+    private final LinkedHashMap<String, SentenciaCacheada> sentencias;
+
+    /**
+     * Crea la caché para una conexión física.
+     * @param fisica Conexión física propietaria de las sentencias.
+     * @param capacidad Número máximo de sentencias en caché.
+     * @param contadores Contadores compartidos por todas las cachés del pool.
+     */
+    public CacheSentencias(Connection fisica, int capacidad, Contadores contadores) {
+        this.fisica = fisica;
+        this.capacidad = capacidad;
+        this.contadores = contadores;
+        this.sentencias = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Devuelve una sentencia preparada para el SQL indicado, reutilizando la de la caché si está libre.
+     * @param envoltorio Conexión entregada al usuario (la que devuelve getConnection() de la sentencia).
+     * @param sql Texto SQL.
+     * @param clavesGeneradas Statement.RETURN_GENERATED_KEYS o Statement.NO_GENERATED_KEYS.
+     * @return Sentencia lista para asignar parámetros; cerrarla la devuelve a la caché.
+     * @throws SQLException Si falla la preparación.
+     */
+    public PreparedStatement preparar(Connection envoltorio, String sql, int clavesGeneradas) throws SQLException {
+        String clave = clavesGeneradas == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : "N:" + sql;
+        SentenciaCacheada cacheada = sentencias.get(clave);
+
+        if (cacheada != null && !cacheada.enUso) {
+            contadores.aciertos.increment();
+        } else if (cacheada != null) {
+            // El mismo SQL ya está abierto en esta conexión: se entrega una sentencia sin caché
+            contadores.fallos.increment();
+            return fisica.prepareStatement(sql, clavesGeneradas);
+        } else {
+            contadores.fallos.increment();
+            cacheada = new SentenciaCacheada(fisica.prepareStatement(sql, clavesGeneradas));
+            sentencias.put(clave, cacheada);
+            desalojarSobrantes();
+        }
+
+        cacheada.enUso = true;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new EnvoltorioSentencia(cacheada, envoltorio));
+    }
+
+    /**
+     * Libera las sentencias que quedaron abiertas al devolver la conexión al pool.
+     * Las que seguían en uso se cierran y se quitan de la caché.
+     */
+    public void liberarTodas() {
+        Iterator<SentenciaCacheada> it = sentencias.values().iterator();
+        while (it.hasNext()) {
+            SentenciaCacheada cacheada = it.next();
+            if (cacheada.enUso) {
+                it.remove();
+                cerrarFisica(cacheada);
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias de la caché.
+     */
+    public void vaciar() {
+        sentencias.values().forEach(this::cerrarFisica);
+        sentencias.clear();
+    }
+
+    /**
+     * @return Número de sentencias actualmente en caché.
+     */
+    public int getTamano() {
+        return sentencias.size();
+    }
+
+    private void desalojarSobrantes() {
+        Iterator<Map.Entry<String, SentenciaCacheada>> it = sentencias.entrySet().iterator();
+        while (sentencias.size() > capacidad && it.hasNext()) {
+            SentenciaCacheada cacheada = it.next().getValue();
+            it.remove();
+            contadores.desalojos.increment();
+            if (cacheada.enUso) {
+                cacheada.desalojada = true;
+            } else {
+                cerrarFisica(cacheada);
+            }
+        }
+    }
+
+    private void cerrarFisica(SentenciaCacheada cacheada) {
+        try {
+            cacheada.sentencia.close();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Error al cerrar sentencia de la caché: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve la sentencia a la caché tras un close() lógico.
+     */
+    private void devolver(SentenciaCacheada cacheada) throws SQLException {
+        cacheada.enUso = false;
+        if (cacheada.desalojada) {
+            cerrarFisica(cacheada);
+            return;
+        }
+        try {
+            ResultSet abierto = cacheada.sentencia.getResultSet();
+            if (abierto != null) {
+                abierto.close();
+            }
+            cacheada.sentencia.clearParameters();
+            cacheada.sentencia.clearBatch();
+        } catch (SQLException e) {
+            sentencias.values().remove(cacheada);
+            cerrarFisica(cacheada);
+            throw e;
+        }
+    }
+
+    /**
+     * Contadores de aciertos, fallos y desalojos compartidos entre las cachés de un pool.
+     */
+    public static class Contadores {
+        private final LongAdder aciertos = new LongAdder();
+        private final LongAdder fallos = new LongAdder();
+        private final LongAdder desalojos = new LongAdder();
+
+        public long getAciertos() {
+            return aciertos.sum();
+        }
+
+        public long getFallos() {
+            return fallos.sum();
+        }
+
+        public long getDesalojos() {
+            return desalojos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "aciertos=" + getAciertos() + ", fallos=" + getFallos() + ", desalojos=" + getDesalojos();
+        }
+    }
+
+    private static final class SentenciaCacheada {
+        private final PreparedStatement sentencia;
+        private boolean enUso;
+        private boolean desalojada;
+
+        private SentenciaCacheada(PreparedStatement sentencia) {
+            this.sentencia = sentencia;
+        }
+    }
+
+    /**
+     * Intercepta close(), isClosed() y getConnection(); el resto se delega en la sentencia física.
+     */
+    private final class EnvoltorioSentencia implements InvocationHandler {
+        private final SentenciaCacheada cacheada;
+        private final Connection envoltorio;
+        private boolean cerrada = false;
+
+        private EnvoltorioSentencia(SentenciaCacheada cacheada, Connection envoltorio) {
+            this.cacheada = cacheada;
+            this.envoltorio = envoltorio;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        devolver(cacheada);
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada || cacheada.sentencia.isClosed();
+                case "getConnection":
+                    return envoltorio;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (cerrada) {
+                throw new SQLException("La sentencia ya fue cerrada.");
+            }
+
+            try {
+                return method.invoke(cacheada.sentencia, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concesión de líder guardada en MySQL (tabla concesiones) para que una tarea exclusiva,
+ * como el motor de recordatorios, se ejecute en un solo proceso aunque haya varios conectados.
+ *
+ * - Cada concesión es una fila con su propietario y su expiración. Un proceso la toma si no
+ *   existe, si ya es suya o si ha expirado, con una sola sentencia condicional: la base de datos
+ *   decide quién gana y todas las horas se calculan con el reloj del servidor.
+ * - El líder la renueva cada tercio de la duración. Si cae, otro proceso la toma al expirar.
+ * - Si el líder no consigue renovar (base de datos caída), deja de actuar como líder antes de que
+ *   la concesión expire, para no coincidir con el siguiente. Cada intento de renovación tiene un
+ *   tiempo máximo de red de un intervalo, y {@link #esLiderVigente()} permite comprobarlo justo
+ *   antes de actuar aunque una renovación siga en curso.
+ * - Al detenerse, el líder la libera para que otro proceso la tome sin esperar.
+ */
+public class ConcesionLider {
+
+    private static final String SQL_INSERT = "INSERT IGNORE INTO concesiones (nombre, propietario, adquirida_en, expira_en) "
+            + "VALUES (?, ?, NOW(3), NOW(3) + INTERVAL ? MICROSECOND)";
+    // adquirida_en va antes que propietario: MySQL asigna las columnas en orden
+    private static final String SQL_RENOVAR = "UPDATE concesiones SET "
+            + "adquirida_en = IF(propietario = ?, adquirida_en, NOW(3)), "
+            + "propietario = ?, "
+            + "expira_en = NOW(3) + INTERVAL ? MICROSECOND "
+            + "WHERE nombre = ? AND (propietario = ? OR expira_en <= NOW(3))";
+    private static final String SQL_LIBERAR = "UPDATE concesiones SET expira_en = NOW(3) WHERE nombre = ? AND propietario = ?";
+
+    private final String nombre;
+    private final String propietario;
+    private final long duracionMs;
+    private final long intervaloMs;
+    private final Runnable alAdquirir;
+    private final Runnable alPerder;
+
+    private ScheduledExecutorService latido;
+    private volatile boolean lider = false;
+    // Momento (System.nanoTime) en que empezó la última renovación correcta
+    private volatile long ultimaRenovacion;
+
+    /**
+     * @param nombre Nombre de la concesión (una por tarea exclusiva).
+     * @param duracionMs Tiempo que dura la concesión sin renovar.
+     * @param alAdquirir Se ejecuta al convertirse en líder.
+     * @param alPerder Se ejecuta al dejar de ser líder.
+     */
+    public ConcesionLider(String nombre, long duracionMs, Runnable alAdquirir, Runnable alPerder) {
+        this.nombre = nombre;
+        this.propietario = generarPropietario();
+        this.duracionMs = duracionMs;
+        this.intervaloMs = Math.max(1, duracionMs / 3);
+        this.alAdquirir = alAdquirir;
+        this.alPerder = alPerder;
+    }
+
+    /**
+     * Empieza a intentar tomar la concesión y, una vez tomada, a renovarla.
+     * Los intentos se hacen en un hilo propio; este método no espera a la base de datos.
+     */
+    public synchronized void iniciar() {
+        if (latido != null) {
+            return;
+        }
+
+        latido = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "ConcesionLider-" + nombre);
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        latido.scheduleWithFixedDelay(this::latir, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deja de renovar la concesión y, si era líder, detiene la tarea y libera la concesión.
+     */
+    public synchronized void detener() {
+        if (latido == null) {
+            return;
+        }
+
+        latido.shutdownNow();
+        try {
+            latido.awaitTermination(intervaloMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        latido = null;
+
+        if (lider) {
+            perder("proceso detenido");
+            liberar();
+        }
+    }
+
+    /**
+     * @return true si este proceso tiene ahora la concesión.
+     */
+    public boolean esLider() {
+        return lider;
+    }
+
+    /**
+     * Comprobación local, sin base de datos, para hacer justo antes de cada acción exclusiva:
+     * {@link #esLider()} sigue siendo true mientras una renovación lenta está en curso, aunque
+     * la concesión ya pueda haber expirado y otro proceso tenerla.
+     * @return true si este proceso es líder y su última renovación deja aún un intervalo de margen.
+     */
+    public boolean esLiderVigente() {
+        return lider && dentroDelMargen();
+    }
+
+    /**
+     * @return Identificador de este proceso en la tabla concesiones.
+     */
+    public String getPropietario() {
+        return propietario;
+    }
+
+    /**
+     * Un intento de tomar o renovar la concesión.
+     */
+    private void latir() {
+        long inicio = System.nanoTime();
+        try {
+            if (renovar()) {
+                ultimaRenovacion = inicio;
+                if (!lider) {
+                    lider = true;
+                    System.out.println("👑 Concesión '" + nombre + "' adquirida por " + propietario);
+                    ejecutarSinFallar(alAdquirir);
+                }
+            } else if (lider) {
+                perder("otro proceso la tomó");
+            }
+        } catch (SQLException e) {
+            System.err.println("Error al renovar la concesión '" + nombre + "': " + e.getMessage());
+            // Sin renovar, la concesión expira duracionMs después de la última renovación:
+            // se deja antes, con un intervalo de margen
+            if (lider && !dentroDelMargen()) {
+                perder("no se pudo renovar a tiempo");
+            }
+        }
+    }
+
+    /**
+     * @return true si desde la última renovación correcta ha pasado menos que la duración
+     *         menos un intervalo.
+     */
+    private boolean dentroDelMargen() {
+        return System.nanoTime() - ultimaRenovacion < TimeUnit.MILLISECONDS.toNanos(duracionMs - intervaloMs);
+    }
+
+    /**
+     * Toma la concesión si no existe, si ya es de este proceso o si ha expirado.
+     * @return true si este proceso la tiene hasta dentro de duracionMs.
+     * @throws SQLException Si ocurre un error con la base de datos.
+     */
+    private boolean renovar() throws SQLException {
+        long duracionMicros = TimeUnit.MILLISECONDS.toMicros(duracionMs);
+
+        try (Connection conn = ConexionBD.obtenerConexionPrimario()) {
+            // Un intento que no responde en un intervalo falla (y cierra la conexión) en lugar
+            // de retener la concesión más allá del margen
+            int timeoutAnterior = conn.getNetworkTimeout();
+            conn.setNetworkTimeout(Runnable::run, (int) intervaloMs);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_RENOVAR)) {
+                    stmt.setString(1, propietario);
+                    stmt.setString(2, propietario);
+                    stmt.setLong(3, duracionMicros);
+                    stmt.setString(4, nombre);
+                    stmt.setString(5, propietario);
+                    if (stmt.executeUpdate() > 0) {
+                        return true;
+                    }
+                }
+
+                // La fila no existe todavía o la tiene otro proceso sin expirar
+                try (PreparedStatement stmt = conn.prepareStatement(SQL_INSERT)) {
+                    stmt.setString(1, nombre);
+                    stmt.setString(2, propietario);
+                    stmt.setLong(3, duracionMicros);
+                    return stmt.executeUpdate() > 0;
+                }
+            } finally {
+                restaurarTimeout(conn, timeoutAnterior);
+            }
+        }
+    }
+
+    private void liberar() {
+        try (Connection conn = ConexionBD.obtenerConexionPrimario()) {
+            int timeoutAnterior = conn.getNetworkTimeout();
+            conn.setNetworkTimeout(Runnable::run, (int) intervaloMs);
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_LIBERAR)) {
+                stmt.setString(1, nombre);
+                stmt.setString(2, propietario);
+                stmt.executeUpdate();
+            } finally {
+                restaurarTimeout(conn, timeoutAnterior);
+            }
+        } catch (SQLException e) {
+            // Sin liberar, otro proceso la tomará al expirar
+            System.err.println("Error al liberar la concesión '" + nombre + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve la conexión al pool con su tiempo máximo de red original. Si el tiempo se agotó,
+     * la conexión ya está cerrada y el pool la descarta.
+     */
+    private static void restaurarTimeout(Connection conn, int timeoutAnterior) {
+        try {
+            if (!conn.isClosed()) {
+                conn.setNetworkTimeout(Runnable::run, timeoutAnterior);
+            }
+        } catch (SQLException e) {
+            // La conexión queda inservible y el pool la descartará al devolverla
+        }
+    }
+
+    private void perder(String motivo) {
+        lider = false;
+        System.out.println("🔓 Concesión '" + nombre + "' perdida por " + propietario + ": " + motivo);
+        ejecutarSinFallar(alPerder);
+    }
+
+    private void ejecutarSinFallar(Runnable accion) {
+        try {
+            accion.run();
+        } catch (RuntimeException e) {
+            // Una excepción no debe detener los latidos de la concesión
+            System.err.println("Error en la tarea de la concesión '" + nombre + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Equipo, PID y un sufijo aleatorio: distingue también dos concesiones del mismo proceso.
+     */
+    private static String generarPropietario() {
+        String equipo;
+        try {
+            equipo = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            equipo = "desconocido";
+        }
+        return equipo + ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Método para testing manual con varios procesos contra la misma base de datos:
+     * se lanza varias veces y solo uno inicia el motor de recordatorios. Al cerrar ese proceso
+     * (Ctrl+C libera la concesión; kill -9 no), otro lo inicia en cuanto la concesión queda libre o expira.
+     */
+    public static void main(String[] args) {
+        MigracionesBD.aplicar();
+
+        RecordatorioScheduler scheduler = new RecordatorioScheduler();
+        ConcesionLider concesion = new ConcesionLider("recordatorios", ConexionBD.getDuracionConcesionMs(),
+                scheduler::iniciar, scheduler::detener);
+        scheduler.setPermisoEnvio(concesion::esLiderVigente);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            concesion.detener();
+            ConexionBD.cerrarConexion();
+        }));
+        concesion.iniciar();
+
+        System.out.println("Proceso " + concesion.getPropietario() + " esperando la concesión. Presiona Ctrl+C para detener.");
+        try {
+            Thread.sleep(Long.MAX_VALUE);
+        } catch (InterruptedException e) {
+            concesion.detener();
+        }
+    }
+}
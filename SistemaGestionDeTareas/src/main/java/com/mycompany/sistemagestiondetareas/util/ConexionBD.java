@@ -3,9 +3,9 @@ package com.mycompany.sistemagestiondetareas.util;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import javax.sql.DataSource;
 
 /**
  * Clase utilitaria para gestionar la conexión a la base de datos MySQL.
@@ -13,13 +13,59 @@ import java.util.Properties;
  * - Carga la configuración desde src/main/resources/db.properties.
  * - Si el archivo no existe, usa valores por defecto.
  * - Compatible con MySQL 8.0+ (usa caching_sha2_password).
+ * - Las conexiones se prestan desde un {@link PoolConexiones}; cerrarlas las devuelve al pool.
+ * - Cada conexión del pool guarda en caché sus sentencias preparadas ({@link CacheSentencias}).
+ * - Si se configura una réplica (db.lectura.*), las consultas de solo lectura usan
+ *   {@link #obtenerConexionLectura()}: van a la réplica salvo justo después de una
+ *   escritura o cuando la réplica no responde, en cuyo caso van al primario.
+ * - Si db.metricas.activas=true, las sentencias de ambos pools se miden en {@link MetricasSQL}.
+ * - Dentro de una {@link UnidadDeTrabajo}, ambos métodos devuelven la conexión de la unidad.
  */
 public class ConexionBD {
 
     private static String URL;
     private static String USUARIO;
     private static String PASSWORD;
-    private static Connection conexion = null;
+
+    // Configuración del pool (valores por defecto si no se indican en db.properties)
+    private static int POOL_MINIMO = 2;
+    private static int POOL_MAXIMO = 10;
+    private static long POOL_ESPERA_MAXIMA_MS = 5_000;
+    private static long POOL_INACTIVIDAD_MAXIMA_MS = 600_000;
+    // Detección de fugas: captura la pila de cada préstamo, solo para depurar (0 la desactiva)
+    private static long POOL_UMBRAL_FUGA_MS = 0;
+    private static int CACHE_SENTENCIAS = 64;
+
+    // Caché de entidades por ID (usuarios y proyectos)
+    private static int CACHE_ENTIDADES_MAXIMO = 1000;
+    private static long CACHE_ENTIDADES_TTL_MS = 300_000;
+
+    // Duración de las concesiones de líder entre procesos (ConcesionLider)
+    private static long CONCESION_DURACION_MS = 30_000;
+
+    // Relectura del horizonte de recordatorios (RecordatorioScheduler)
+    private static long RECORDATORIOS_RELECTURA_MS = 300_000;
+
+    // Réplica de lectura (opcional)
+    private static String URL_LECTURA;
+    private static String USUARIO_LECTURA;
+    private static String PASSWORD_LECTURA;
+    private static long VENTANA_ESCRITURA_MS = 2_000;
+    private static long REINTENTO_REPLICA_MS = 30_000;
+
+    // Métricas de sentencias
+    private static boolean METRICAS_ACTIVAS = true;
+    private static long UMBRAL_CONSULTA_LENTA_MS = 500;
+    private static int MAX_CONSULTAS_LENTAS = 100;
+    private static volatile MetricasSQL metricas = null;
+
+    private static volatile PoolConexiones pool = null;
+    private static volatile PoolConexiones poolLectura = null;
+
+    // Momento de la última escritura confirmada de esta aplicación (para leer lo recién escrito del primario)
+    private static volatile long ultimaEscritura = 0;
+    // Mientras sea mayor que el momento actual, la réplica se considera caída
+    private static volatile long replicaCaidaHasta = 0;
 
     // Carga las propiedades al iniciar la clase
     static {
@@ -55,40 +101,236 @@ public class ConexionBD {
             if (URL == null || USUARIO == null || PASSWORD == null) {
                 throw new IOException("Propiedades incompletas en db.properties");
             }
+
+            POOL_MINIMO = Integer.parseInt(props.getProperty("db.pool.minimo", String.valueOf(POOL_MINIMO)));
+            POOL_MAXIMO = Integer.parseInt(props.getProperty("db.pool.maximo", String.valueOf(POOL_MAXIMO)));
+            POOL_ESPERA_MAXIMA_MS = Long.parseLong(props.getProperty("db.pool.esperaMaximaMs", String.valueOf(POOL_ESPERA_MAXIMA_MS)));
+            POOL_INACTIVIDAD_MAXIMA_MS = Long.parseLong(props.getProperty("db.pool.inactividadMaximaMs", String.valueOf(POOL_INACTIVIDAD_MAXIMA_MS)));
+            POOL_UMBRAL_FUGA_MS = Long.parseLong(props.getProperty("db.pool.umbralFugaMs", String.valueOf(POOL_UMBRAL_FUGA_MS)));
+            CACHE_SENTENCIAS = Integer.parseInt(props.getProperty("db.sentencias.cache", String.valueOf(CACHE_SENTENCIAS)));
+            CACHE_ENTIDADES_MAXIMO = Integer.parseInt(props.getProperty("db.cacheEntidades.maximo", String.valueOf(CACHE_ENTIDADES_MAXIMO)));
+            CACHE_ENTIDADES_TTL_MS = Long.parseLong(props.getProperty("db.cacheEntidades.ttlMs", String.valueOf(CACHE_ENTIDADES_TTL_MS)));
+            CONCESION_DURACION_MS = Long.parseLong(props.getProperty("db.concesion.duracionMs", String.valueOf(CONCESION_DURACION_MS)));
+            RECORDATORIOS_RELECTURA_MS = Long.parseLong(props.getProperty("db.recordatorios.relecturaMs", String.valueOf(RECORDATORIOS_RELECTURA_MS)));
+
+            METRICAS_ACTIVAS = Boolean.parseBoolean(props.getProperty("db.metricas.activas", String.valueOf(METRICAS_ACTIVAS)));
+            UMBRAL_CONSULTA_LENTA_MS = Long.parseLong(props.getProperty("db.metricas.umbralLentaMs", String.valueOf(UMBRAL_CONSULTA_LENTA_MS)));
+            MAX_CONSULTAS_LENTAS = Integer.parseInt(props.getProperty("db.metricas.maxConsultasLentas", String.valueOf(MAX_CONSULTAS_LENTAS)));
+
+            URL = agregarOpcionesDriver(URL, props);
+
+            URL_LECTURA = props.getProperty("db.lectura.url");
+            if (URL_LECTURA != null && !URL_LECTURA.trim().isEmpty()) {
+                URL_LECTURA = agregarOpcionesDriver(URL_LECTURA.trim(), props);
+                USUARIO_LECTURA = props.getProperty("db.lectura.user", USUARIO);
+                PASSWORD_LECTURA = props.getProperty("db.lectura.password", PASSWORD);
+                VENTANA_ESCRITURA_MS = Long.parseLong(props.getProperty("db.lectura.ventanaEscrituraMs", String.valueOf(VENTANA_ESCRITURA_MS)));
+                REINTENTO_REPLICA_MS = Long.parseLong(props.getProperty("db.lectura.reintentoMs", String.valueOf(REINTENTO_REPLICA_MS)));
+            } else {
+                URL_LECTURA = null;
+            }
+        }
+    }
+
+    /**
+     * Añade a la URL las opciones del driver configuradas en db.properties.
+     */
+    private static String agregarOpcionesDriver(String url, Properties props) {
+        // Sentencias preparadas en el servidor: cada SQL se analiza una vez por conexión
+        if (Boolean.parseBoolean(props.getProperty("db.sentencias.servidor", "true"))
+                && !url.contains("useServerPrepStmts")) {
+            url += (url.contains("?") ? "&" : "?") + "useServerPrepStmts=true";
         }
+
+        // Los lotes JDBC se envían como INSERT de varias filas
+        if (Boolean.parseBoolean(props.getProperty("db.lotes.reescribir", "true"))
+                && !url.contains("rewriteBatchedStatements")) {
+            url += (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+        }
+        return url;
     }
 
     /**
-     * Devuelve una conexión activa a la base de datos.
+     * Devuelve una conexión del pool para escribir. Cerrarla (por ejemplo con try-with-resources)
+     * la devuelve al pool sin cerrar la conexión física. Cada escritura confirmada en ella
+     * (sentencia en autocommit o commit) abre la ventana en la que las lecturas van al primario.
      */
     public static Connection obtenerConexion() throws SQLException {
-        if (conexion == null || conexion.isClosed()) {
-            try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                conexion = DriverManager.getConnection(URL, USUARIO, PASSWORD);
-                System.out.println("✅ Conexión a la base de datos establecida correctamente.");
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("❌ No se encontró el driver de MySQL.", e);
-            } catch (SQLException e) {
-                throw new SQLException("❌ Error al conectar con la base de datos: " + e.getMessage(), e);
-            }
+        Connection transaccion = UnidadDeTrabajo.conexionActual();
+        if (transaccion != null) {
+            return transaccion;
         }
-        return conexion;
+        return obtenerPool().getConnection();
     }
 
     /**
-     * Cierra la conexión si está abierta.
+     * Devuelve una conexión del primario para lecturas que deben ver el último dato confirmado,
+     * como las que llenan una caché, y para escrituras internas como las de las concesiones.
+     * A diferencia de {@link #obtenerConexion()}, nunca abre la ventana de escritura: las demás
+     * lecturas siguen yendo a la réplica.
      */
-    public static void cerrarConexion() {
-        if (conexion != null) {
-            try {
-                if (!conexion.isClosed()) {
-                    conexion.close();
-                    System.out.println("🔒 Conexión a la base de datos cerrada correctamente.");
+    public static Connection obtenerConexionPrimario() throws SQLException {
+        Connection transaccion = UnidadDeTrabajo.conexionActual();
+        if (transaccion != null) {
+            return transaccion;
+        }
+        return obtenerPool().prestarSinAvisarEscrituras();
+    }
+
+    /**
+     * Devuelve una conexión para consultas de solo lectura.
+     * 
+     * Usa la réplica si está configurada, salvo durante la ventana posterior a una
+     * escritura (para leer lo recién escrito) o si la réplica falló recientemente.
+     * Si la réplica no responde, se usa el primario y se vuelve a probar más tarde.
+     */
+    public static Connection obtenerConexionLectura() throws SQLException {
+        // Dentro de una unidad de trabajo se lee de su transacción
+        Connection transaccion = UnidadDeTrabajo.conexionActual();
+        if (transaccion != null) {
+            return transaccion;
+        }
+
+        long ahora = System.currentTimeMillis();
+        if (URL_LECTURA == null
+                || ahora - ultimaEscritura < VENTANA_ESCRITURA_MS
+                || ahora < replicaCaidaHasta) {
+            return obtenerPool().prestarSinAvisarEscrituras();
+        }
+
+        try {
+            return obtenerPoolLectura().getConnection();
+        } catch (SQLException | RuntimeException e) {
+            replicaCaidaHasta = ahora + REINTENTO_REPLICA_MS;
+            System.err.println("⚠️ Réplica de lectura no disponible, usando el primario durante "
+                    + REINTENTO_REPLICA_MS + " ms: " + e.getMessage());
+            return obtenerPool().prestarSinAvisarEscrituras();
+        }
+    }
+
+    /**
+     * Devuelve el pool de conexiones, creándolo la primera vez que se solicita.
+     */
+    public static DataSource obtenerDataSource() throws SQLException {
+        return obtenerPool();
+    }
+
+    private static PoolConexiones obtenerPool() throws SQLException {
+        PoolConexiones actual = pool;
+        if (actual != null) {
+            return actual;
+        }
+
+        synchronized (ConexionBD.class) {
+            if (pool == null) {
+                try {
+                    Class.forName("com.mysql.cj.jdbc.Driver");
+                } catch (ClassNotFoundException e) {
+                    throw new SQLException("❌ No se encontró el driver de MySQL.", e);
                 }
-            } catch (SQLException e) {
-                System.err.println("⚠️ Error al cerrar la conexión: " + e.getMessage());
+                pool = new PoolConexiones(URL, USUARIO, PASSWORD, POOL_MINIMO, POOL_MAXIMO,
+                        POOL_ESPERA_MAXIMA_MS, POOL_INACTIVIDAD_MAXIMA_MS, POOL_UMBRAL_FUGA_MS,
+                        CACHE_SENTENCIAS);
+                pool.setMetricas(obtenerMetricas());
+                pool.setAlEscribir(() -> ultimaEscritura = System.currentTimeMillis());
+                System.out.println("✅ Pool de conexiones iniciado (mínimo " + POOL_MINIMO + ", máximo " + POOL_MAXIMO + ").");
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Devuelve el pool de la réplica de lectura, creándolo la primera vez.
+     */
+    private static PoolConexiones obtenerPoolLectura() throws SQLException {
+        PoolConexiones actual = poolLectura;
+        if (actual != null) {
+            return actual;
+        }
+
+        // Garantiza que el driver esté cargado
+        obtenerDataSource();
+
+        synchronized (ConexionBD.class) {
+            if (poolLectura == null) {
+                poolLectura = new PoolConexiones(URL_LECTURA, USUARIO_LECTURA, PASSWORD_LECTURA,
+                        POOL_MINIMO, POOL_MAXIMO, POOL_ESPERA_MAXIMA_MS, POOL_INACTIVIDAD_MAXIMA_MS,
+                        POOL_UMBRAL_FUGA_MS, CACHE_SENTENCIAS);
+                poolLectura.setMetricas(obtenerMetricas());
+                System.out.println("✅ Pool de la réplica de lectura iniciado.");
             }
+            return poolLectura;
+        }
+    }
+
+    /**
+     * Devuelve las métricas de sentencias compartidas por los pools.
+     * @return Métricas, o null si están desactivadas en db.properties.
+     */
+    public static MetricasSQL obtenerMetricas() {
+        if (!METRICAS_ACTIVAS) {
+            return null;
+        }
+        MetricasSQL actual = metricas;
+        if (actual != null) {
+            return actual;
+        }
+
+        synchronized (ConexionBD.class) {
+            if (metricas == null) {
+                metricas = new MetricasSQL(UMBRAL_CONSULTA_LENTA_MS, MAX_CONSULTAS_LENTAS);
+            }
+            return metricas;
+        }
+    }
+
+    /**
+     * @return Número máximo de conexiones simultáneas del pool primario.
+     */
+    public static int getTamanoMaximoPool() {
+        return POOL_MAXIMO;
+    }
+
+    /**
+     * @return Número máximo de entidades de cada caché de entidades (0 las desactiva).
+     */
+    public static int getTamanoCacheEntidades() {
+        return CACHE_ENTIDADES_MAXIMO;
+    }
+
+    /**
+     * @return Tiempo de vida de las entradas de las cachés de entidades, en milisegundos.
+     */
+    public static long getTtlCacheEntidadesMs() {
+        return CACHE_ENTIDADES_TTL_MS;
+    }
+
+    /**
+     * @return Duración de una concesión de líder sin renovar, en milisegundos.
+     */
+    public static long getDuracionConcesionMs() {
+        return CONCESION_DURACION_MS;
+    }
+
+    /**
+     * @return Intervalo entre relecturas del horizonte de recordatorios, en milisegundos.
+     */
+    public static long getRelecturaRecordatoriosMs() {
+        return RECORDATORIOS_RELECTURA_MS;
+    }
+
+    /**
+     * Cierra los pools (primario y réplica) y todas sus conexiones libres.
+     */
+    public static synchronized void cerrarConexion() {
+        if (poolLectura != null) {
+            poolLectura.cerrar();
+            poolLectura = null;
+        }
+        if (pool != null) {
+            pool.cerrar();
+            pool = null;
+            System.out.println("🔒 Pool de conexiones a la base de datos cerrado correctamente.");
         }
     }
 }
@@ -0,0 +1,75 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta llamadas a los DAO fuera del hilo que las solicita y devuelve CompletableFuture.
+ *
+ * - Permite lanzar en paralelo consultas independientes y combinar sus resultados.
+ * - El número de hilos es igual al tamaño máximo del pool de conexiones: nunca hay más
+ *   consultas en curso que conexiones disponibles; el resto espera en cola.
+ */
+public class EjecutorBD {
+
+    private static volatile ExecutorService ejecutor = null;
+
+    /** Constructor privado: evita instanciación */
+    private EjecutorBD() {}
+
+    /**
+     * Ejecuta una consulta de forma asíncrona.
+     * @param consulta Llamada a uno o varios métodos de DAO.
+     * @return Future que se completa con el resultado de la consulta.
+     */
+    public static <T> CompletableFuture<T> ejecutar(Supplier<T> consulta) {
+        return CompletableFuture.supplyAsync(consulta, obtenerEjecutor());
+    }
+
+    /**
+     * Ejecuta una operación sin resultado de forma asíncrona.
+     * @param operacion Llamada a uno o varios métodos de DAO.
+     * @return Future que se completa al terminar la operación.
+     */
+    public static CompletableFuture<Void> ejecutar(Runnable operacion) {
+        return CompletableFuture.runAsync(operacion, obtenerEjecutor());
+    }
+
+    /**
+     * Detiene los hilos del ejecutor. Las tareas en cola se descartan.
+     */
+    public static synchronized void cerrar() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    private static ExecutorService obtenerEjecutor() {
+        ExecutorService actual = ejecutor;
+        if (actual != null) {
+            return actual;
+        }
+
+        synchronized (EjecutorBD.class) {
+            if (ejecutor == null) {
+                int hilos = ConexionBD.getTamanoMaximoPool();
+                AtomicInteger contador = new AtomicInteger();
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(hilos, hilos,
+                        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                            Thread hilo = new Thread(r, "EjecutorBD-" + contador.incrementAndGet());
+                            hilo.setDaemon(true);
+                            return hilo;
+                        });
+                pool.allowCoreThreadTimeOut(true);
+                ejecutor = pool;
+            }
+            return ejecutor;
+        }
+    }
+}
@@ -46,8 +46,9 @@ public class EmailSender {
      * @param destinatario Dirección de correo del destinatario
      * @param asunto Asunto del correo
      * @param contenido Contenido del mensaje
+     * @return true si el correo se envió, false si hubo error
      */
-    public void enviarCorreo(String destinatario, String asunto, String contenido) {
+    public boolean enviarCorreo(String destinatario, String asunto, String contenido) {
         try {
             // Crea y configura el mensaje
             Message message = new MimeMessage(session);
@@ -59,8 +60,10 @@ public class EmailSender {
             // Envía el correo
             Transport.send(message);
             System.out.println("Correo enviado exitosamente a: " + destinatario);
+            return true;
         } catch (MessagingException e) {
             System.err.println("Error al enviar correo: " + e.getMessage());
+            return false;
         }
     }
 } 
\ No newline at end of file
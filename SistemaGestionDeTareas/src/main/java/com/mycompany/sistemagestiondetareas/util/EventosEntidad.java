@@ -0,0 +1,115 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Avisos de cambios en las entidades (creada, actualizada, eliminada) para que las vistas
+ * abiertas actualicen solo la fila afectada en lugar de recargar toda la tabla.
+ *
+ * - Los controladores publican el cambio después de escribir en la base de datos.
+ * - Dentro de una {@link UnidadDeTrabajo} el aviso se entrega tras el commit y se descarta si se deshace.
+ * - Los oyentes se ejecutan en el hilo que publica; las vistas deben pasar al hilo de Swing.
+ */
+public class EventosEntidad {
+
+    /**
+     * Tipo de cambio.
+     */
+    public enum Operacion {
+        CREADA, ACTUALIZADA, ELIMINADA
+    }
+
+    /**
+     * Recibe los cambios de un tipo de entidad.
+     */
+    public interface Oyente {
+        void cambio(Cambio cambio);
+    }
+
+    private static final Map<Class<?>, List<Oyente>> OYENTES = new ConcurrentHashMap<>();
+
+    /** Constructor privado: evita instanciación */
+    private EventosEntidad() {}
+
+    /**
+     * Registra un oyente para los cambios de una entidad.
+     * @param entidad Clase de la entidad (Proyecto, Tarea, Usuario...).
+     * @param oyente Oyente a registrar.
+     */
+    public static void suscribir(Class<?> entidad, Oyente oyente) {
+        OYENTES.computeIfAbsent(entidad, clave -> new CopyOnWriteArrayList<>()).add(oyente);
+    }
+
+    /**
+     * Elimina un oyente registrado con {@link #suscribir(Class, Oyente)}.
+     * @param entidad Clase de la entidad.
+     * @param oyente Oyente a eliminar.
+     */
+    public static void desuscribir(Class<?> entidad, Oyente oyente) {
+        List<Oyente> oyentes = OYENTES.get(entidad);
+        if (oyentes != null) {
+            oyentes.remove(oyente);
+        }
+    }
+
+    /**
+     * Publica un cambio. Si hay una unidad de trabajo activa, se entrega al confirmarla.
+     * @param entidad Clase de la entidad.
+     * @param operacion Tipo de cambio.
+     * @param id ID de la entidad afectada.
+     */
+    public static void publicar(Class<?> entidad, Operacion operacion, int id) {
+        Cambio cambio = new Cambio(entidad, operacion, id);
+        UnidadDeTrabajo.despuesDeConfirmar(() -> entregar(cambio));
+    }
+
+    private static void entregar(Cambio cambio) {
+        List<Oyente> oyentes = OYENTES.get(cambio.getEntidad());
+        if (oyentes == null) {
+            return;
+        }
+
+        for (Oyente oyente : oyentes) {
+            try {
+                oyente.cambio(cambio);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Error al entregar " + cambio + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Cambio de una entidad.
+     */
+    public static final class Cambio {
+        private final Class<?> entidad;
+        private final Operacion operacion;
+        private final int id;
+
+        private Cambio(Class<?> entidad, Operacion operacion, int id) {
+            this.entidad = entidad;
+            this.operacion = operacion;
+            this.id = id;
+        }
+
+        public Class<?> getEntidad() {
+            return entidad;
+        }
+
+        public Operacion getOperacion() {
+            return operacion;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return entidad.getSimpleName() + " " + id + " " + operacion;
+        }
+    }
+}
@@ -0,0 +1,714 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Métricas de ejecución de sentencias SQL.
+ *
+ * - Agrupa las ejecuciones por forma del SQL (literales sustituidos por ?, espacios normalizados
+ *   y listas IN (?, ?, ...) reducidas a IN (?)).
+ * - Por cada forma registra ejecuciones, errores, filas e histograma de latencias (p50/p95/p99).
+ * - Las ejecuciones que superan el umbral van al registro de consultas lentas junto con sus
+ *   parámetros (de cada fila, en los lotes) y el método que las lanzó. Los parámetros de columnas
+ *   sensibles, como password, no se guardan: se sustituyen por {@code ***} al asignarlos.
+ * - {@link #instantanea()} y {@link #consultasLentas()} permiten leer los datos en tiempo de ejecución.
+ *
+ * En las consultas la latencia mide hasta que el servidor entrega el primer resultado; las filas
+ * se suman al cerrar el ResultSet.
+ */
+public class MetricasSQL {
+
+    private static final Pattern LITERAL_TEXTO = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern LITERAL_NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTA_IN = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final int LONGITUD_MAXIMA_PARAMETRO = 100;
+    private static final int MAXIMO_FILAS_LOTE = 10;
+
+    // Columnas cuyos valores no se guardan en el registro de consultas lentas
+    private static final Set<String> COLUMNAS_SENSIBLES = Set.of("password");
+    private static final String VALOR_OCULTO = "***";
+    private static final Pattern INSERT_COLUMNAS = Pattern.compile(
+            "\\bINSERT\\s+(?:IGNORE\\s+)?INTO\\s+[\\w.`]+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPARACION = Pattern.compile(
+            "(\\w+)`?\\s*(?:=|<>|!=|<=|>=|<|>|\\bLIKE\\b)\\s*\\?", Pattern.CASE_INSENSITIVE);
+
+    // Clases que se saltan al buscar el método que lanzó la sentencia
+    private static final Set<String> CLASES_INTERMEDIAS = Set.of(
+            MetricasSQL.class.getName(),
+            PoolConexiones.class.getName(),
+            CacheSentencias.class.getName(),
+            "com.mycompany.sistemagestiondetareas.dao.InsercionLote");
+    private static final String PAQUETE_APLICACION = "com.mycompany.sistemagestiondetareas.";
+
+    private final long umbralLentaNanos;
+    private final int capacidadLentas;
+    private final Map<String, Registro> porForma = new ConcurrentHashMap<>();
+    // Las sentencias preparadas repiten el mismo texto: se evita normalizarlo en cada ejecución
+    private final Map<String, Registro> porSqlPreparado = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> sensiblesPorSql = new ConcurrentHashMap<>();
+    private final ArrayDeque<ConsultaLenta> lentas = new ArrayDeque<>();
+
+    /**
+     * @param umbralLentaMs Duración a partir de la cual una ejecución se considera lenta.
+     * @param capacidadLentas Número de consultas lentas que se conservan (las más recientes).
+     */
+    public MetricasSQL(long umbralLentaMs, int capacidadLentas) {
+        this.umbralLentaNanos = umbralLentaMs * 1_000_000L;
+        this.capacidadLentas = capacidadLentas;
+    }
+
+    /**
+     * @return Estadísticas de cada forma de SQL, ordenadas por tiempo total descendente.
+     */
+    public List<EstadisticaSQL> instantanea() {
+        List<EstadisticaSQL> resultado = new ArrayList<>();
+        for (Registro registro : porForma.values()) {
+            resultado.add(registro.instantanea());
+        }
+        resultado.sort(Comparator.comparingDouble(EstadisticaSQL::getTiempoTotalMs).reversed());
+        return resultado;
+    }
+
+    /**
+     * @return Últimas consultas lentas, de la más antigua a la más reciente.
+     */
+    public List<ConsultaLenta> consultasLentas() {
+        synchronized (lentas) {
+            return Collections.unmodifiableList(new ArrayList<>(lentas));
+        }
+    }
+
+    /**
+     * Descarta todas las estadísticas y el registro de consultas lentas.
+     */
+    public void reiniciar() {
+        porForma.clear();
+        porSqlPreparado.clear();
+        sensiblesPorSql.clear();
+        synchronized (lentas) {
+            lentas.clear();
+        }
+    }
+
+    /**
+     * Normaliza un SQL a su forma: sin literales, con espacios simples y listas IN reducidas.
+     * @param sql Texto SQL.
+     * @return Forma del SQL.
+     */
+    public static String normalizar(String sql) {
+        String forma = LITERAL_TEXTO.matcher(sql).replaceAll("?");
+        forma = LITERAL_NUMERO.matcher(forma).replaceAll("?");
+        forma = ESPACIOS.matcher(forma).replaceAll(" ").trim();
+        return LISTA_IN.matcher(forma).replaceAll("(?)");
+    }
+
+    /**
+     * Envuelve una sentencia para medir sus ejecuciones.
+     * @param sentencia Sentencia a medir.
+     * @param sql SQL de la sentencia preparada, o null para un Statement simple.
+     * @return Sentencia instrumentada con las mismas interfaces que la original.
+     */
+    Statement instrumentar(Statement sentencia, String sql) {
+        Class<?> interfaz = sentencia instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        Registro registro = sql != null ? porSqlPreparado.computeIfAbsent(sql, this::registroPara) : null;
+        Set<Integer> sensibles = sql != null ? sensiblesPorSql.computeIfAbsent(sql, MetricasSQL::parametrosSensibles) : null;
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[] { interfaz },
+                new SentenciaInstrumentada(sentencia, sql, registro, sensibles));
+    }
+
+    /**
+     * Busca los parámetros que se asignan a columnas sensibles: en la lista de VALUES de un
+     * INSERT y en comparaciones {@code columna = ?} (SET y WHERE).
+     * @param sql SQL de la sentencia preparada.
+     * @return Posiciones (desde 1) de los parámetros sensibles. Si el SQL nombra una columna
+     *         sensible y no se sabe qué parámetro le corresponde, se devuelven todas.
+     */
+    static Set<Integer> parametrosSensibles(String sql) {
+        // Los literales pueden contener '?' o el nombre de una columna
+        String limpio = LITERAL_TEXTO.matcher(sql).replaceAll("''");
+        Set<Integer> sensibles = new HashSet<>();
+        boolean nombraSensible = false;
+
+        Matcher insert = INSERT_COLUMNAS.matcher(limpio);
+        if (insert.find()) {
+            String[] columnas = insert.group(1).split(",");
+            List<String> valores = separarValores(limpio, insert.end());
+            int parametro = contarParametros(limpio.substring(0, insert.end()));
+            for (int i = 0; i < columnas.length && i < valores.size(); i++) {
+                if (esSensible(columnas[i])) {
+                    nombraSensible = true;
+                    if (valores.get(i).trim().equals("?")) {
+                        sensibles.add(parametro + 1);
+                    }
+                }
+                parametro += contarParametros(valores.get(i));
+            }
+        }
+
+        Matcher comparacion = COMPARACION.matcher(limpio);
+        while (comparacion.find()) {
+            if (esSensible(comparacion.group(1))) {
+                nombraSensible = true;
+                sensibles.add(contarParametros(limpio.substring(0, comparacion.end())));
+            }
+        }
+
+        if (sensibles.isEmpty() && !nombraSensible) {
+            for (String columna : COLUMNAS_SENSIBLES) {
+                nombraSensible |= limpio.toLowerCase().contains(columna);
+            }
+        }
+        if (nombraSensible && sensibles.isEmpty()) {
+            for (int i = 1; i <= contarParametros(limpio); i++) {
+                sensibles.add(i);
+            }
+        }
+        return sensibles;
+    }
+
+    /**
+     * Separa la lista de VALUES que empieza en {@code inicio} por las comas de primer nivel,
+     * para que funciones como NOW() o CONCAT(?, ?) cuenten como un solo valor.
+     */
+    private static List<String> separarValores(String sql, int inicio) {
+        List<String> valores = new ArrayList<>();
+        int nivel = 0;
+        int desde = inicio;
+        for (int i = inicio; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '(') {
+                nivel++;
+            } else if (c == ')' && nivel-- == 0) {
+                valores.add(sql.substring(desde, i));
+                break;
+            } else if (c == ',' && nivel == 0) {
+                valores.add(sql.substring(desde, i));
+                desde = i + 1;
+            }
+        }
+        return valores;
+    }
+
+    private static boolean esSensible(String columna) {
+        String nombre = columna.trim().replace("`", "");
+        int punto = nombre.lastIndexOf('.');
+        return COLUMNAS_SENSIBLES.contains(nombre.substring(punto + 1).toLowerCase());
+    }
+
+    private static int contarParametros(String sql) {
+        int parametros = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                parametros++;
+            }
+        }
+        return parametros;
+    }
+
+    private Registro registroPara(String sql) {
+        return porForma.computeIfAbsent(normalizar(sql), Registro::new);
+    }
+
+    private void registrarLenta(String sql, String parametros, long nanos) {
+        ConsultaLenta lenta = new ConsultaLenta(sql, parametros,
+                nanos / 1_000_000.0, buscarLlamador(), new Date());
+        System.err.println("🐢 " + lenta);
+
+        synchronized (lentas) {
+            if (lentas.size() >= capacidadLentas) {
+                lentas.pollFirst();
+            }
+            lentas.addLast(lenta);
+        }
+    }
+
+    private static String formatearParametros(Map<Integer, Object> parametros) {
+        if (parametros == null || parametros.isEmpty()) {
+            return "[]";
+        }
+        StringBuilder texto = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> parametro : parametros.entrySet()) {
+            if (texto.length() > 1) {
+                texto.append(", ");
+            }
+            String valor = String.valueOf(parametro.getValue());
+            if (valor.length() > LONGITUD_MAXIMA_PARAMETRO) {
+                valor = valor.substring(0, LONGITUD_MAXIMA_PARAMETRO) + "…";
+            }
+            texto.append(parametro.getKey()).append('=').append(valor);
+        }
+        return texto.append(']').toString();
+    }
+
+    private static String formatearLote(List<Map<Integer, Object>> filas) {
+        StringBuilder texto = new StringBuilder("[");
+        for (int i = 0; i < filas.size() && i < MAXIMO_FILAS_LOTE; i++) {
+            if (i > 0) {
+                texto.append(", ");
+            }
+            texto.append(formatearParametros(filas.get(i)));
+        }
+        if (filas.size() > MAXIMO_FILAS_LOTE) {
+            texto.append(", … (").append(filas.size() - MAXIMO_FILAS_LOTE).append(" filas más)");
+        }
+        return texto.append(']').toString();
+    }
+
+    /**
+     * Devuelve el primer método de la aplicación (DAO, controlador...) en la pila del hilo actual.
+     */
+    private static String buscarLlamador() {
+        return StackWalker.getInstance().walk(marcos -> marcos
+                .filter(m -> m.getClassName().startsWith(PAQUETE_APLICACION)
+                        && !CLASES_INTERMEDIAS.contains(claseExterna(m.getClassName())))
+                .findFirst()
+                .map(m -> m.getClassName().substring(PAQUETE_APLICACION.length())
+                        + "." + m.getMethodName() + ":" + m.getLineNumber())
+                .orElse("desconocido"));
+    }
+
+    private static String claseExterna(String nombre) {
+        int separador = nombre.indexOf('$');
+        return separador < 0 ? nombre : nombre.substring(0, separador);
+    }
+
+    /**
+     * Acumuladores de una forma de SQL.
+     */
+    private static final class Registro {
+        private final String forma;
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder filas = new LongAdder();
+        private final LongAdder nanosTotales = new LongAdder();
+        private final Histograma histograma = new Histograma();
+        private volatile String ultimoError;
+
+        private Registro(String forma) {
+            this.forma = forma;
+        }
+
+        private void registrar(long nanos, boolean error) {
+            ejecuciones.increment();
+            nanosTotales.add(nanos);
+            histograma.registrar(nanos / 1_000);
+            if (error) {
+                errores.increment();
+            }
+        }
+
+        private EstadisticaSQL instantanea() {
+            return new EstadisticaSQL(forma, ejecuciones.sum(), errores.sum(), filas.sum(),
+                    nanosTotales.sum() / 1_000_000.0,
+                    histograma.percentil(0.50) / 1_000.0,
+                    histograma.percentil(0.95) / 1_000.0,
+                    histograma.percentil(0.99) / 1_000.0,
+                    histograma.maximo() / 1_000.0,
+                    ultimoError);
+        }
+    }
+
+    /**
+     * Histograma log-lineal de latencias en microsegundos: valores exactos por debajo de 16
+     * y 8 cubetas por potencia de 2 a partir de ahí (error relativo máximo del 12,5 %).
+     */
+    private static final class Histograma {
+        private static final int EXACTAS = 16;
+        private static final int SUBCUBETAS = 8;
+        private static final int CUBETAS = EXACTAS + (41 - 4) * SUBCUBETAS;
+
+        private final AtomicLongArray cuentas = new AtomicLongArray(CUBETAS);
+        private final AtomicLong maximo = new AtomicLong();
+
+        private void registrar(long micros) {
+            cuentas.incrementAndGet(indice(Math.max(0, micros)));
+            maximo.accumulateAndGet(micros, Math::max);
+        }
+
+        private long maximo() {
+            return maximo.get();
+        }
+
+        /**
+         * @return Límite superior (en microsegundos) de la cubeta que contiene el percentil.
+         */
+        private long percentil(double p) {
+            long[] copia = new long[CUBETAS];
+            long total = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                copia[i] = cuentas.get(i);
+                total += copia[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long objetivo = (long) Math.ceil(p * total);
+            long acumulado = 0;
+            for (int i = 0; i < CUBETAS; i++) {
+                acumulado += copia[i];
+                if (acumulado >= objetivo) {
+                    return Math.min(limiteSuperior(i), maximo.get());
+                }
+            }
+            return maximo.get();
+        }
+
+        private static int indice(long micros) {
+            if (micros < EXACTAS) {
+                return (int) micros;
+            }
+            int exponente = 63 - Long.numberOfLeadingZeros(micros);
+            int sub = (int) ((micros >>> (exponente - 3)) & (SUBCUBETAS - 1));
+            return Math.min(EXACTAS + (exponente - 4) * SUBCUBETAS + sub, CUBETAS - 1);
+        }
+
+        private static long limiteSuperior(int indice) {
+            if (indice < EXACTAS) {
+                return indice;
+            }
+            int exponente = (indice - EXACTAS) / SUBCUBETAS + 4;
+            int sub = (indice - EXACTAS) % SUBCUBETAS;
+            long inferior = (long) (SUBCUBETAS + sub) << (exponente - 3);
+            return inferior + (1L << (exponente - 3)) - 1;
+        }
+    }
+
+    /**
+     * Intercepta la asignación de parámetros y las ejecuciones; el resto se delega en la sentencia.
+     */
+    private final class SentenciaInstrumentada implements InvocationHandler {
+        private final Statement sentencia;
+        private final String sqlPreparado;
+        private final Registro registroPreparado;
+        private final Set<Integer> sensibles;
+        private final Map<Integer, Object> parametros;
+        // Parámetros de cada fila añadida con addBatch()
+        private final List<Map<Integer, Object>> lote;
+        private Registro ultimoRegistro;
+
+        private SentenciaInstrumentada(Statement sentencia, String sqlPreparado, Registro registroPreparado,
+                                       Set<Integer> sensibles) {
+            this.sentencia = sentencia;
+            this.sqlPreparado = sqlPreparado;
+            this.registroPreparado = registroPreparado;
+            this.sensibles = sensibles;
+            this.parametros = registroPreparado != null ? new TreeMap<>() : null;
+            this.lote = registroPreparado != null ? new ArrayList<>() : null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+
+            if (parametros != null && nombre.startsWith("set") && args != null && args.length >= 2
+                    && method.getParameterTypes()[0] == int.class) {
+                Integer indice = (Integer) args[0];
+                parametros.put(indice, sensibles.contains(indice) ? VALOR_OCULTO
+                        : nombre.equals("setNull") ? null : args[1]);
+            } else if (parametros != null && nombre.equals("clearParameters")) {
+                parametros.clear();
+            } else if (lote != null && nombre.equals("addBatch") && args == null) {
+                lote.add(new TreeMap<>(parametros));
+            } else if (lote != null && nombre.equals("clearBatch")) {
+                lote.clear();
+            } else if (nombre.startsWith("execute")) {
+                return ejecutar(proxy, method, args);
+            } else if (nombre.equals("getResultSet")) {
+                ResultSet rs = (ResultSet) delegar(method, args);
+                return rs != null && ultimoRegistro != null ? contarFilas(rs, proxy, ultimoRegistro) : rs;
+            } else if (nombre.equals("equals")) {
+                return proxy == args[0];
+            } else if (nombre.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+
+            return delegar(method, args);
+        }
+
+        private Object ejecutar(Object proxy, Method method, Object[] args) throws Throwable {
+            String sqlDirecto = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            Registro registro = sqlDirecto != null ? registroPara(sqlDirecto) : registroPreparado;
+            String sql = sqlDirecto != null ? sqlDirecto : sqlPreparado;
+            if (registro == null) {
+                return delegar(method, args);
+            }
+            ultimoRegistro = registro;
+            boolean esLote = method.getName().startsWith("execute") && method.getName().endsWith("Batch");
+
+            long inicio = System.nanoTime();
+            Object resultado;
+            try {
+                resultado = delegar(method, args);
+            } catch (SQLException | RuntimeException e) {
+                long nanos = System.nanoTime() - inicio;
+                registro.registrar(nanos, true);
+                registro.ultimoError = e.getMessage();
+                if (nanos >= umbralLentaNanos) {
+                    registrarLenta(sql, parametrosEjecutados(sqlDirecto, esLote), nanos);
+                }
+                vaciarLote(esLote);
+                throw e;
+            }
+
+            long nanos = System.nanoTime() - inicio;
+            registro.registrar(nanos, false);
+            if (nanos >= umbralLentaNanos) {
+                registrarLenta(sql, parametrosEjecutados(sqlDirecto, esLote), nanos);
+            }
+            vaciarLote(esLote);
+
+            if (resultado instanceof ResultSet) {
+                return contarFilas((ResultSet) resultado, proxy, registro);
+            }
+            if (resultado instanceof Integer || resultado instanceof Long) {
+                registro.filas.add(Math.max(0, ((Number) resultado).longValue()));
+            } else if (resultado instanceof int[]) {
+                for (int filas : (int[]) resultado) {
+                    registro.filas.add(Math.max(0, filas));
+                }
+            } else if (resultado instanceof long[]) {
+                for (long filas : (long[]) resultado) {
+                    registro.filas.add(Math.max(0, filas));
+                }
+            }
+            return resultado;
+        }
+
+        private String parametrosEjecutados(String sqlDirecto, boolean esLote) {
+            if (sqlDirecto != null || parametros == null) {
+                return formatearParametros(null);
+            }
+            return esLote ? formatearLote(lote) : formatearParametros(parametros);
+        }
+
+        /**
+         * executeBatch() vacía el lote de la sentencia, haya funcionado o no.
+         */
+        private void vaciarLote(boolean esLote) {
+            if (esLote && lote != null) {
+                lote.clear();
+            }
+        }
+
+        private Object delegar(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(sentencia, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static ResultSet contarFilas(ResultSet rs, Object sentencia, Registro registro) {
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class },
+                new ResultadoContado(rs, sentencia, registro));
+    }
+
+    /**
+     * Cuenta las filas leídas con next() y las suma al registro al cerrar el ResultSet.
+     */
+    private static final class ResultadoContado implements InvocationHandler {
+        private final ResultSet rs;
+        private final Object sentencia;
+        private final Registro registro;
+        private long filas = 0;
+        private boolean sumado = false;
+
+        private ResultadoContado(ResultSet rs, Object sentencia, Registro registro) {
+            this.rs = rs;
+            this.sentencia = sentencia;
+            this.registro = registro;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getStatement":
+                    return sentencia;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    sumar();
+                    break;
+                default:
+                    break;
+            }
+
+            Object resultado;
+            try {
+                resultado = method.invoke(rs, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (method.getName().equals("next")) {
+                if ((Boolean) resultado) {
+                    filas++;
+                } else {
+                    sumar();
+                }
+            }
+            return resultado;
+        }
+
+        private void sumar() {
+            if (!sumado) {
+                sumado = true;
+                registro.filas.add(filas);
+            }
+        }
+    }
+
+    /**
+     * Estadísticas de una forma de SQL en el momento de la instantánea.
+     */
+    public static final class EstadisticaSQL {
+        private final String sql;
+        private final long ejecuciones;
+        private final long errores;
+        private final long filas;
+        private final double tiempoTotalMs;
+        private final double p50Ms;
+        private final double p95Ms;
+        private final double p99Ms;
+        private final double maximoMs;
+        private final String ultimoError;
+
+        private EstadisticaSQL(String sql, long ejecuciones, long errores, long filas, double tiempoTotalMs,
+                               double p50Ms, double p95Ms, double p99Ms, double maximoMs, String ultimoError) {
+            this.sql = sql;
+            this.ejecuciones = ejecuciones;
+            this.errores = errores;
+            this.filas = filas;
+            this.tiempoTotalMs = tiempoTotalMs;
+            this.p50Ms = p50Ms;
+            this.p95Ms = p95Ms;
+            this.p99Ms = p99Ms;
+            this.maximoMs = maximoMs;
+            this.ultimoError = ultimoError;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getEjecuciones() {
+            return ejecuciones;
+        }
+
+        public long getErrores() {
+            return errores;
+        }
+
+        public long getFilas() {
+            return filas;
+        }
+
+        public double getTiempoTotalMs() {
+            return tiempoTotalMs;
+        }
+
+        public double getP50Ms() {
+            return p50Ms;
+        }
+
+        public double getP95Ms() {
+            return p95Ms;
+        }
+
+        public double getP99Ms() {
+            return p99Ms;
+        }
+
+        public double getMaximoMs() {
+            return maximoMs;
+        }
+
+        public String getUltimoError() {
+            return ultimoError;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s | ejecuciones=%d, errores=%d, filas=%d, total=%.1f ms, "
+                    + "p50=%.2f ms, p95=%.2f ms, p99=%.2f ms, max=%.2f ms",
+                    sql, ejecuciones, errores, filas, tiempoTotalMs, p50Ms, p95Ms, p99Ms, maximoMs);
+        }
+    }
+
+    /**
+     * Ejecución que superó el umbral de consulta lenta.
+     */
+    public static final class ConsultaLenta {
+        private final String sql;
+        private final String parametros;
+        private final double duracionMs;
+        private final String llamador;
+        private final Date momento;
+
+        private ConsultaLenta(String sql, String parametros, double duracionMs, String llamador, Date momento) {
+            this.sql = sql;
+            this.parametros = parametros;
+            this.duracionMs = duracionMs;
+            this.llamador = llamador;
+            this.momento = momento;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public String getParametros() {
+            return parametros;
+        }
+
+        public double getDuracionMs() {
+            return duracionMs;
+        }
+
+        public String getLlamador() {
+            return llamador;
+        }
+
+        public Date getMomento() {
+            return new Date(momento.getTime());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Consulta lenta (%.1f ms) en %s: %s %s", duracionMs, llamador, sql, parametros);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Migraciones versionadas del esquema, aplicadas al arrancar la aplicación.
+ *
+ * - database.sql crea las tablas base; las migraciones añaden los cambios posteriores
+ *   (índices pensados para las consultas de los DAO, tablas nuevas).
+ * - La tabla esquema_version guarda las versiones aplicadas; cada migración se aplica una sola vez y en orden.
+ * - En MySQL el DDL confirma implícitamente, así que cada paso comprueba antes si ya está hecho:
+ *   una migración interrumpida se completa en el siguiente arranque.
+ * - Un bloqueo con nombre (GET_LOCK) evita que dos procesos migren a la vez.
+ *
+ * Que las consultas de los DAO usan estos índices lo comprueba PlanesConsultasTest.
+ */
+public class MigracionesBD {
+
+    private static final String BLOQUEO = "gestion_tareas.migraciones";
+    private static final int ESPERA_BLOQUEO_SEGUNDOS = 30;
+
+    private static final String SQL_CREAR_TABLA_VERSION = "CREATE TABLE IF NOT EXISTS esquema_version ("
+            + "version INT PRIMARY KEY, "
+            + "descripcion VARCHAR(200) NOT NULL, "
+            + "aplicada_en TIMESTAMP DEFAULT CURRENT_TIMESTAMP)";
+
+    /**
+     * Migraciones en orden de versión. No se modifican una vez publicadas: los cambios van en una versión nueva.
+     */
+    private static final List<Migracion> MIGRACIONES = Arrays.asList(
+            new Migracion(1, "Índices de tareas y proyectos para las consultas de los DAO",
+                    // WHERE id_proyecto = ? (tareas de un proyecto, con su estado)
+                    indice("tareas", "idx_tareas_proyecto_estado", "id_proyecto, estado"),
+                    // WHERE id_responsable = ? (tareas de un usuario), en orden de vencimiento
+                    indice("tareas", "idx_tareas_responsable_vencimiento", "id_responsable, fecha_vencimiento"),
+                    // Rangos y orden por fecha de vencimiento (recordatorios, listado ordenado)
+                    indice("tareas", "idx_tareas_vencimiento", "fecha_vencimiento"),
+                    // Orden del listado paginado por nombre
+                    indice("tareas", "idx_tareas_nombre", "nombre"),
+                    // WHERE id_responsable = ? en proyectos y en la subconsulta de costos por responsable
+                    indice("proyectos", "idx_proyectos_responsable", "id_responsable")),
+            new Migracion(2, "Índice de cobertura para los totales de costos",
+                    // calcularTotales: WHERE tipo = ? AND id_referencia = ?, suma monto por tipo_costo sin leer la fila
+                    indice("costos", "idx_costos_totales", "tipo, id_referencia, tipo_costo, monto")),
+            new Migracion(3, "Historial de comentarios de las tareas en una tabla de solo inserción",
+                    // Una fila por comentario; el índice sirve la lectura por tarea de más reciente a más antiguo
+                    sentencia("CREATE TABLE IF NOT EXISTS comentarios_tarea ("
+                            + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                            + "id_tarea INT NOT NULL, "
+                            + "texto TEXT NOT NULL, "
+                            + "fecha TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                            + "INDEX idx_comentarios_tarea (id_tarea, id), "
+                            + "FOREIGN KEY (id_tarea) REFERENCES tareas(id) ON DELETE CASCADE)")),
+            new Migracion(4, "Índice de estado y vencimiento para los recordatorios",
+                    // listarPorVencimientoEntre: WHERE estado IN (...) AND fecha_vencimiento entre dos fechas
+                    indice("tareas", "idx_tareas_estado_vencimiento", "estado, fecha_vencimiento")),
+            new Migracion(5, "Registro de recordatorios enviados",
+                    // Un aviso por tarea, tipo y vencimiento; la clave primaria sirve la consulta por lotes
+                    sentencia("CREATE TABLE IF NOT EXISTS recordatorios_enviados ("
+                            + "id_tarea INT NOT NULL, "
+                            + "tipo VARCHAR(30) NOT NULL, "
+                            + "vencimiento TIMESTAMP NOT NULL, "
+                            + "enviado_en TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                            + "PRIMARY KEY (id_tarea, tipo, vencimiento), "
+                            + "FOREIGN KEY (id_tarea) REFERENCES tareas(id) ON DELETE CASCADE)")),
+            new Migracion(6, "Concesiones de líder entre procesos",
+                    // Una fila por tarea exclusiva (por ejemplo, los recordatorios); las horas son del servidor MySQL
+                    sentencia("CREATE TABLE IF NOT EXISTS concesiones ("
+                            + "nombre VARCHAR(50) PRIMARY KEY, "
+                            + "propietario VARCHAR(150) NOT NULL, "
+                            + "adquirida_en TIMESTAMP(3) NOT NULL, "
+                            + "expira_en TIMESTAMP(3) NOT NULL)"))
+    );
+
+    /** Constructor privado: evita instanciación */
+    private MigracionesBD() {}
+
+    /**
+     * Aplica las migraciones pendientes. Los errores se registran y no impiden arrancar:
+     * la aplicación funciona sin los índices, solo más despacio.
+     * @return Número de migraciones aplicadas.
+     */
+    public static int aplicar() {
+        int aplicadas = 0;
+
+        try (Connection conn = ConexionBD.obtenerConexion()) {
+            if (!tomarBloqueo(conn)) {
+                System.err.println("⚠️ Otro proceso está migrando el esquema; se omiten las migraciones.");
+                return 0;
+            }
+
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(SQL_CREAR_TABLA_VERSION);
+                }
+
+                int versionActual = leerVersionActual(conn);
+                for (Migracion migracion : MIGRACIONES) {
+                    if (migracion.version <= versionActual) {
+                        continue;
+                    }
+                    for (Paso paso : migracion.pasos) {
+                        paso.ejecutar(conn);
+                    }
+                    registrarVersion(conn, migracion);
+                    aplicadas++;
+                    System.out.println("🛠️ Migración " + migracion.version + " aplicada: " + migracion.descripcion);
+                }
+            } finally {
+                soltarBloqueo(conn);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al aplicar las migraciones del esquema: " + e.getMessage());
+        }
+
+        return aplicadas;
+    }
+
+    private static boolean tomarBloqueo(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            stmt.setString(1, BLOQUEO);
+            stmt.setInt(2, ESPERA_BLOQUEO_SEGUNDOS);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void soltarBloqueo(Connection conn) {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            stmt.setString(1, BLOQUEO);
+            stmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Error al liberar el bloqueo de migraciones: " + e.getMessage());
+        }
+    }
+
+    private static int leerVersionActual(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM esquema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void registrarVersion(Connection conn, Migracion migracion) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO esquema_version (version, descripcion) VALUES (?, ?)")) {
+            stmt.setInt(1, migracion.version);
+            stmt.setString(2, migracion.descripcion);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Paso con una sentencia que ya es idempotente (por ejemplo, CREATE TABLE IF NOT EXISTS).
+     */
+    private static Paso sentencia(String sql) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            }
+        };
+    }
+
+    /**
+     * Paso que crea un índice si no existe (MySQL no admite CREATE INDEX IF NOT EXISTS).
+     */
+    private static Paso indice(String tabla, String nombre, String columnas) {
+        return conn -> {
+            String consulta = "SELECT 1 FROM information_schema.statistics "
+                    + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1";
+            try (PreparedStatement stmt = conn.prepareStatement(consulta)) {
+                stmt.setString(1, tabla);
+                stmt.setString(2, nombre);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return;
+                    }
+                }
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE INDEX " + nombre + " ON " + tabla + " (" + columnas + ")");
+            }
+        };
+    }
+
+    /**
+     * Paso idempotente de una migración.
+     */
+    private interface Paso {
+        void ejecutar(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Versión del esquema y pasos para llegar a ella.
+     */
+    private static final class Migracion {
+        private final int version;
+        private final String descripcion;
+        private final Paso[] pasos;
+
+        private Migracion(int version, String descripcion, Paso... pasos) {
+            this.version = version;
+            this.descripcion = descripcion;
+            this.pasos = pasos;
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.mycompany.sistemagestiondetareas.util;
 
+import com.mycompany.sistemagestiondetareas.dao.UsuarioDAO;
 import com.mycompany.sistemagestiondetareas.modelo.Tarea;
+import com.mycompany.sistemagestiondetareas.modelo.Usuario;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.concurrent.ConcurrentHashMap;
@@ -18,6 +19,7 @@ public class Notificador {
     private static final Logger LOGGER = Logger.getLogger(Notificador.class.getName());
     private final ConcurrentHashMap<Integer, Cliente> clientesConectados;  // Clientes actualmente conectados
     private final EmailSender emailSender;                                 // Servicio de envío de emails
+    private final UsuarioDAO usuarioDAO;                                   // Consulta del email del responsable
     
     /**
      * Constructor que inicializa el sistema de notificaciones.
@@ -26,6 +28,7 @@ public class Notificador {
     public Notificador(ConcurrentHashMap<Integer, Cliente> clientesConectados) {
         this.clientesConectados = clientesConectados;
         this.emailSender = new EmailSender();
+        this.usuarioDAO = new UsuarioDAO();
     }
     
     /**
@@ -42,20 +45,10 @@ public class Notificador {
             tarea.getEstado()
         );
         
-        // Obtiene el email del usuario responsable
-        try (Connection conn = ConexionBD.obtenerConexion()) {
-            String sql = "SELECT email FROM usuarios WHERE id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, tarea.getIdResponsable());
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        String email = rs.getString("email");
-                        enviarNotificacion(tarea.getIdResponsable(), mensaje, email);
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error al obtener email del usuario", e);
+        // Obtiene el email del usuario responsable (de la caché de usuarios si está)
+        Usuario responsable = usuarioDAO.buscarPorId(tarea.getIdResponsable());
+        if (responsable != null) {
+            enviarNotificacion(tarea.getIdResponsable(), mensaje, responsable.getEmail());
         }
     }
     
@@ -79,6 +72,17 @@ public class Notificador {
             LOGGER.log(Level.SEVERE, "Error al guardar notificación en la base de datos", e);
         }
         
+        // Dentro de una unidad de trabajo, los avisos se envían solo si se confirma
+        UnidadDeTrabajo.despuesDeConfirmar(() -> enviarAvisos(idUsuario, mensaje, email));
+    }
+    
+    /**
+     * Envía la notificación por email y en tiempo real.
+     * @param idUsuario ID del usuario destinatario
+     * @param mensaje Contenido de la notificación
+     * @param email Dirección de email del usuario
+     */
+    private void enviarAvisos(int idUsuario, String mensaje, String email) {
         // Envía notificación por email si hay dirección disponible
         if (email != null && !email.isEmpty()) {
             try {
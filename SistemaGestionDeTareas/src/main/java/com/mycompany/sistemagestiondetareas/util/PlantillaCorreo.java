@@ -0,0 +1,71 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plantilla de texto para correos con marcadores {@code {clave}}.
+ *
+ * El texto se analiza una sola vez al crear la plantilla; después cada aplicación solo
+ * concatena los trozos fijos y los valores, así que una plantilla se reutiliza para todos los correos.
+ * Los marcadores sin valor quedan vacíos.
+ */
+public final class PlantillaCorreo {
+
+    // Trozos alternos: texto fijo en las posiciones pares, clave del marcador en las impares
+    private final String[] trozos;
+
+    private PlantillaCorreo(String[] trozos) {
+        this.trozos = trozos;
+    }
+
+    /**
+     * @param texto Texto con marcadores {@code {clave}}.
+     * @return Plantilla lista para aplicar.
+     */
+    public static PlantillaCorreo de(String texto) {
+        List<String> trozos = new ArrayList<>();
+        int posicion = 0;
+        while (true) {
+            int apertura = texto.indexOf('{', posicion);
+            int cierre = apertura < 0 ? -1 : texto.indexOf('}', apertura + 1);
+            if (cierre < 0) {
+                trozos.add(texto.substring(posicion));
+                break;
+            }
+            trozos.add(texto.substring(posicion, apertura));
+            trozos.add(texto.substring(apertura + 1, cierre));
+            posicion = cierre + 1;
+        }
+        return new PlantillaCorreo(trozos.toArray(new String[0]));
+    }
+
+    /**
+     * @param valores Valor de cada marcador.
+     * @return Texto con los marcadores sustituidos.
+     */
+    public String aplicar(Map<String, ?> valores) {
+        StringBuilder destino = new StringBuilder();
+        aplicar(valores, destino);
+        return destino.toString();
+    }
+
+    /**
+     * Añade el texto de la plantilla con los marcadores sustituidos.
+     * @param valores Valor de cada marcador.
+     * @param destino Texto al que se añade el resultado.
+     */
+    public void aplicar(Map<String, ?> valores, StringBuilder destino) {
+        for (int i = 0; i < trozos.length; i++) {
+            if (i % 2 == 0) {
+                destino.append(trozos[i]);
+            } else {
+                Object valor = valores.get(trozos[i]);
+                if (valor != null) {
+                    destino.append(valor);
+                }
+            }
+        }
+    }
+}
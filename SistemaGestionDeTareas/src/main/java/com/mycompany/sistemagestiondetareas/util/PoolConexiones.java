@@ -0,0 +1,584 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ *
+ * - Mantiene entre {@code minimo} y {@code maximo} conexiones físicas abiertas.
+ * - Las conexiones entregadas son envoltorios: al llamar a close() vuelven al pool
+ *   en lugar de cerrarse, por lo que los DAO pueden seguir usando try-with-resources.
+ * - Valida las conexiones al prestarlas, cierra las inactivas por encima del mínimo
+ *   y, si se activa para depurar, avisa de las conexiones que no se devuelven (posibles fugas).
+ * - Cada conexión física tiene su propia {@link CacheSentencias}, de modo que las
+ *   sentencias preparadas se reutilizan entre préstamos y entre DAOs.
+ * - Si se asignan {@link MetricasSQL}, las sentencias se entregan instrumentadas.
+ * - Si se asigna una acción con {@link #setAlEscribir(Runnable)}, se ejecuta tras cada escritura
+ *   confirmada: al terminar la sentencia en autocommit o al hacer commit de la transacción.
+ */
+public class PoolConexiones implements DataSource {
+
+    // Tiempo sin uso a partir del cual una conexión se valida antes de prestarla
+    private static final long VALIDAR_SI_INACTIVA_MS = 500;
+    private static final int TIMEOUT_VALIDACION_SEG = 2;
+    private static final long INTERVALO_MANTENIMIENTO_MS = 30_000;
+
+    private final String url;
+    private final String usuario;
+    private final String password;
+    private final int minimo;
+    private final int maximo;
+    private final long esperaMaximaMs;
+    private final long inactividadMaximaMs;
+    private final long umbralFugaMs;
+    private final int tamanoCacheSentencias;
+    private final CacheSentencias.Contadores contadoresCache = new CacheSentencias.Contadores();
+    private volatile MetricasSQL metricas;
+    private volatile Runnable alEscribir;
+
+    private final LinkedBlockingDeque<ConexionAgrupada> libres = new LinkedBlockingDeque<>();
+    private final Set<ConexionAgrupada> prestadas = ConcurrentHashMap.newKeySet();
+    private final Semaphore permisos;
+    private final AtomicInteger totalAbiertas = new AtomicInteger();
+    private final ScheduledExecutorService mantenimiento;
+    private volatile boolean cerrado = false;
+
+    /**
+     * Crea el pool y abre las conexiones mínimas.
+     * @param url URL JDBC de la base de datos.
+     * @param usuario Usuario de la base de datos.
+     * @param password Contraseña del usuario.
+     * @param minimo Número mínimo de conexiones abiertas.
+     * @param maximo Número máximo de conexiones simultáneas.
+     * @param esperaMaximaMs Tiempo máximo de espera para obtener una conexión.
+     * @param inactividadMaximaMs Tiempo tras el cual se cierra una conexión libre sobrante.
+     * @param umbralFugaMs Tiempo prestada tras el cual se avisa de una posible fuga (0 desactiva).
+     * @param tamanoCacheSentencias Sentencias preparadas en caché por conexión (0 desactiva la caché).
+     */
+    public PoolConexiones(String url, String usuario, String password, int minimo, int maximo,
+                          long esperaMaximaMs, long inactividadMaximaMs, long umbralFugaMs,
+                          int tamanoCacheSentencias) {
+        if (maximo <= 0 || minimo < 0 || minimo > maximo) {
+            throw new IllegalArgumentException("Tamaño de pool inválido: minimo=" + minimo + ", maximo=" + maximo);
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.password = password;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.inactividadMaximaMs = inactividadMaximaMs;
+        this.umbralFugaMs = umbralFugaMs;
+        this.tamanoCacheSentencias = tamanoCacheSentencias;
+        this.permisos = new Semaphore(maximo, true);
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "PoolConexiones-mantenimiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.mantenimiento.scheduleWithFixedDelay(this::mantener,
+                INTERVALO_MANTENIMIENTO_MS, INTERVALO_MANTENIMIENTO_MS, TimeUnit.MILLISECONDS);
+
+        rellenarMinimo();
+    }
+
+    /**
+     * Presta una conexión del pool. Debe devolverse llamando a close().
+     * @return Conexión lista para usar.
+     * @throws SQLException Si el pool está cerrado, se agota la espera o falla la conexión.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return prestar(true);
+    }
+
+    /**
+     * Como {@link #getConnection()}, pero sus escrituras no ejecutan la acción de
+     * {@link #setAlEscribir(Runnable)}: para lecturas y escrituras internas que no cambian
+     * los datos que leen los usuarios.
+     * @return Conexión lista para usar.
+     * @throws SQLException Si el pool está cerrado, se agota la espera o falla la conexión.
+     */
+    public Connection prestarSinAvisarEscrituras() throws SQLException {
+        return prestar(false);
+    }
+
+    private Connection prestar(boolean avisarEscrituras) throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado.");
+        }
+
+        try {
+            if (!permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Tiempo de espera agotado (" + esperaMaximaMs
+                        + " ms) para obtener una conexión. Conexiones en uso: " + prestadas.size() + "/" + maximo);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión.", e);
+        }
+
+        try {
+            ConexionAgrupada conexion = tomarLibreValida();
+            if (conexion == null) {
+                conexion = abrirFisica();
+            }
+            conexion.marcarPrestada(umbralFugaMs > 0);
+            prestadas.add(conexion);
+            return conexion.crearEnvoltorio(avisarEscrituras);
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * No se admiten credenciales distintas a las del pool.
+     */
+    @Override
+    public Connection getConnection(String usuario, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("El pool solo entrega conexiones con las credenciales configuradas.");
+    }
+
+    /**
+     * Cierra todas las conexiones libres y detiene el mantenimiento.
+     * Las conexiones prestadas se cierran al devolverse.
+     */
+    public void cerrar() {
+        cerrado = true;
+        mantenimiento.shutdownNow();
+
+        ConexionAgrupada conexion;
+        while ((conexion = libres.pollFirst()) != null) {
+            cerrarFisica(conexion);
+        }
+    }
+
+    /**
+     * @return Número de conexiones prestadas en este momento.
+     */
+    public int getConexionesEnUso() {
+        return prestadas.size();
+    }
+
+    /**
+     * @return Número de conexiones libres en el pool.
+     */
+    public int getConexionesLibres() {
+        return libres.size();
+    }
+
+    /**
+     * @return Número total de conexiones físicas abiertas.
+     */
+    public int getConexionesAbiertas() {
+        return totalAbiertas.get();
+    }
+
+    /**
+     * Activa la medición de las sentencias creadas a partir de ahora.
+     * @param metricas Registro donde se acumulan las métricas, o null para desactivarla.
+     */
+    public void setMetricas(MetricasSQL metricas) {
+        this.metricas = metricas;
+    }
+
+    /**
+     * @param alEscribir Acción tras cada escritura confirmada en una conexión de
+     *                   {@link #getConnection()}, o null para ninguna.
+     */
+    public void setAlEscribir(Runnable alEscribir) {
+        this.alEscribir = alEscribir;
+    }
+
+    /**
+     * @return Aciertos, fallos y desalojos acumulados de las cachés de sentencias.
+     */
+    public CacheSentencias.Contadores getContadoresCacheSentencias() {
+        return contadoresCache;
+    }
+
+    /**
+     * Toma la conexión libre usada más recientemente, descartando las que no pasan la validación.
+     */
+    private ConexionAgrupada tomarLibreValida() {
+        ConexionAgrupada conexion;
+        while ((conexion = libres.pollFirst()) != null) {
+            if (esValida(conexion)) {
+                return conexion;
+            }
+            System.err.println("⚠️ Conexión inválida descartada del pool.");
+            cerrarFisica(conexion);
+        }
+        return null;
+    }
+
+    private boolean esValida(ConexionAgrupada conexion) {
+        if (System.currentTimeMillis() - conexion.ultimoUso < VALIDAR_SI_INACTIVA_MS) {
+            return true;
+        }
+        try {
+            return conexion.fisica.isValid(TIMEOUT_VALIDACION_SEG);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private ConexionAgrupada abrirFisica() throws SQLException {
+        try {
+            Connection fisica = DriverManager.getConnection(url, usuario, password);
+            totalAbiertas.incrementAndGet();
+            return new ConexionAgrupada(fisica);
+        } catch (SQLException e) {
+            throw new SQLException("❌ Error al conectar con la base de datos: " + e.getMessage(), e);
+        }
+    }
+
+    private void cerrarFisica(ConexionAgrupada conexion) {
+        try {
+            if (conexion.cache != null) {
+                conexion.cache.vaciar();
+            }
+            conexion.fisica.close();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Error al cerrar conexión del pool: " + e.getMessage());
+        } finally {
+            totalAbiertas.decrementAndGet();
+        }
+    }
+
+    /**
+     * Devuelve una conexión al pool, restaurando su estado si el usuario lo modificó.
+     */
+    private void devolver(ConexionAgrupada conexion) {
+        prestadas.remove(conexion);
+        try {
+            if (conexion.cache != null) {
+                conexion.cache.liberarTodas();
+            }
+            boolean reutilizable = !cerrado && !conexion.fisica.isClosed();
+            if (reutilizable && !conexion.fisica.getAutoCommit()) {
+                conexion.fisica.rollback();
+                conexion.fisica.setAutoCommit(true);
+            }
+            if (reutilizable && conexion.fisica.isReadOnly()) {
+                conexion.fisica.setReadOnly(false);
+            }
+            if (reutilizable) {
+                conexion.ultimoUso = System.currentTimeMillis();
+                libres.offerFirst(conexion);
+            } else {
+                cerrarFisica(conexion);
+            }
+        } catch (SQLException e) {
+            System.err.println("⚠️ Conexión descartada al devolverla al pool: " + e.getMessage());
+            cerrarFisica(conexion);
+        } finally {
+            permisos.release();
+        }
+    }
+
+    /**
+     * Tarea periódica: cierra conexiones inactivas, repone el mínimo y detecta fugas.
+     */
+    private void mantener() {
+        long ahora = System.currentTimeMillis();
+
+        List<ConexionAgrupada> expiradas = new ArrayList<>();
+        Iterator<ConexionAgrupada> it = libres.descendingIterator();
+        while (it.hasNext() && totalAbiertas.get() - expiradas.size() > minimo) {
+            ConexionAgrupada conexion = it.next();
+            if (ahora - conexion.ultimoUso > inactividadMaximaMs && libres.remove(conexion)) {
+                expiradas.add(conexion);
+            }
+        }
+        expiradas.forEach(this::cerrarFisica);
+
+        rellenarMinimo();
+
+        if (umbralFugaMs > 0) {
+            for (ConexionAgrupada conexion : prestadas) {
+                if (!conexion.fugaAvisada && ahora - conexion.prestadaDesde > umbralFugaMs) {
+                    conexion.fugaAvisada = true;
+                    System.err.println("⚠️ Posible fuga de conexión: prestada hace "
+                            + (ahora - conexion.prestadaDesde) + " ms sin devolverse.");
+                    if (conexion.origenPrestamo != null) {
+                        conexion.origenPrestamo.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    private void rellenarMinimo() {
+        while (!cerrado && totalAbiertas.get() < minimo) {
+            try {
+                ConexionAgrupada conexion = abrirFisica();
+                conexion.ultimoUso = System.currentTimeMillis();
+                libres.offerLast(conexion);
+            } catch (SQLException e) {
+                System.err.println("⚠️ No se pudo abrir la conexión mínima del pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Métodos de DataSource sin uso en el pool
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("No se puede convertir a " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Conexión física administrada por el pool junto con sus datos de préstamo.
+     */
+    private final class ConexionAgrupada {
+        private final Connection fisica;
+        private final CacheSentencias cache;
+        private volatile long ultimoUso;
+        private volatile long prestadaDesde;
+        private volatile Throwable origenPrestamo;
+        private volatile boolean fugaAvisada;
+
+        private ConexionAgrupada(Connection fisica) {
+            this.fisica = fisica;
+            this.cache = tamanoCacheSentencias > 0
+                    ? new CacheSentencias(fisica, tamanoCacheSentencias, contadoresCache)
+                    : null;
+        }
+
+        private void marcarPrestada(boolean registrarOrigen) {
+            prestadaDesde = System.currentTimeMillis();
+            origenPrestamo = registrarOrigen ? new Throwable("Conexión prestada desde") : null;
+            fugaAvisada = false;
+        }
+
+        /**
+         * Crea el envoltorio que se entrega al usuario. Cada préstamo usa un envoltorio
+         * nuevo, así un close() repetido o tardío no afecta a préstamos posteriores.
+         */
+        private Connection crearEnvoltorio(boolean avisarEscrituras) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new EnvoltorioConexion(this, avisarEscrituras));
+        }
+    }
+
+    /**
+     * Intercepta close() e isClosed(), resuelve prepareStatement(sql) y
+     * prepareStatement(sql, clavesGeneradas) desde la caché, instrumenta las sentencias
+     * si hay métricas, avisa de las escrituras confirmadas y delega el resto en la conexión física.
+     */
+    private final class EnvoltorioConexion implements InvocationHandler {
+        private final ConexionAgrupada conexion;
+        private final boolean avisarEscrituras;
+        private boolean cerrada = false;
+        // Escritura hecha en la transacción en curso, que se avisará al confirmarla
+        private boolean escrituraPendiente = false;
+
+        private EnvoltorioConexion(ConexionAgrupada conexion, boolean avisarEscrituras) {
+            this.conexion = conexion;
+            this.avisarEscrituras = avisarEscrituras;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        devolver(conexion);
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada || conexion.fisica.isClosed();
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || conexion.fisica.isWrapperFor((Class<?>) args[0]);
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : conexion.fisica.unwrap((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PoolConexiones$Conexion[" + conexion.fisica + "]";
+                default:
+                    break;
+            }
+
+            if (cerrada) {
+                throw new SQLException("La conexión ya fue devuelta al pool.");
+            }
+
+            Object resultado = null;
+            if (conexion.cache != null && method.getName().equals("prepareStatement")) {
+                Class<?>[] tipos = method.getParameterTypes();
+                if (tipos.length == 1) {
+                    resultado = conexion.cache.preparar((Connection) proxy, (String) args[0], Statement.NO_GENERATED_KEYS);
+                } else if (tipos.length == 2 && tipos[1] == int.class) {
+                    resultado = conexion.cache.preparar((Connection) proxy, (String) args[0], (Integer) args[1]);
+                }
+            }
+
+            boolean confirma = escrituraPendiente && (method.getName().equals("commit")
+                    || method.getName().equals("setAutoCommit") && (Boolean) args[0]);
+            if (resultado == null) {
+                try {
+                    resultado = method.invoke(conexion.fisica, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+
+            if (confirma) {
+                // commit() o setAutoCommit(true), que también confirma la transacción
+                escrituraPendiente = false;
+                avisarEscritura();
+            } else if (method.getName().equals("rollback") && args == null) {
+                escrituraPendiente = false;
+            }
+
+            MetricasSQL actual = metricas;
+            if (actual != null && resultado instanceof Statement) {
+                if (method.getName().equals("prepareStatement")) {
+                    resultado = actual.instrumentar((Statement) resultado, (String) args[0]);
+                } else if (method.getName().equals("createStatement")) {
+                    resultado = actual.instrumentar((Statement) resultado, null);
+                }
+            }
+            if (avisarEscrituras && alEscribir != null && resultado instanceof Statement) {
+                return detectarEscrituras((Statement) resultado);
+            }
+            return resultado;
+        }
+
+        /**
+         * Envuelve la sentencia para saber cuándo escribe: executeUpdate, executeBatch y
+         * execute sin resultados.
+         */
+        private Statement detectarEscrituras(Statement sentencia) {
+            Class<?> interfaz = sentencia instanceof CallableStatement ? CallableStatement.class
+                    : sentencia instanceof PreparedStatement ? PreparedStatement.class
+                    : Statement.class;
+            return (Statement) Proxy.newProxyInstance(
+                    Statement.class.getClassLoader(),
+                    new Class<?>[] { interfaz },
+                    new SentenciaConEscrituras(sentencia, this));
+        }
+
+        private void registrarEscritura() throws SQLException {
+            if (conexion.fisica.getAutoCommit()) {
+                avisarEscritura();
+            } else {
+                escrituraPendiente = true;
+            }
+        }
+
+        private void avisarEscritura() {
+            Runnable accion = alEscribir;
+            if (accion != null) {
+                accion.run();
+            }
+        }
+    }
+
+    /**
+     * Delega en la sentencia y, tras cada escritura correcta, la avisa a su conexión:
+     * en autocommit ya está confirmada; en una transacción, se avisa al hacer commit.
+     */
+    private static final class SentenciaConEscrituras implements InvocationHandler {
+        private final Statement sentencia;
+        private final EnvoltorioConexion conexion;
+
+        private SentenciaConEscrituras(Statement sentencia, EnvoltorioConexion conexion) {
+            this.sentencia = sentencia;
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            Object resultado;
+            try {
+                resultado = method.invoke(sentencia, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            String nombre = method.getName();
+            if (nombre.equals("executeUpdate") || nombre.equals("executeLargeUpdate")
+                    || nombre.equals("executeBatch") || nombre.equals("executeLargeBatch")
+                    || nombre.equals("execute") && !(Boolean) resultado) {
+                conexion.registrarEscritura();
+            }
+            return resultado;
+        }
+    }
+}
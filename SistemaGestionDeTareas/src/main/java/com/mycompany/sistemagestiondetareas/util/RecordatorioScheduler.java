@@ -4,146 +4,447 @@
  */
 package com.mycompany.sistemagestiondetareas.util;
 
+import com.mycompany.sistemagestiondetareas.dao.RecordatorioDAO;
 import com.mycompany.sistemagestiondetareas.dao.TareaDAO;
 import com.mycompany.sistemagestiondetareas.dao.UsuarioDAO;
 import com.mycompany.sistemagestiondetareas.modelo.Tarea;
 import com.mycompany.sistemagestiondetareas.modelo.Usuario;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 /**
- * Scheduler para enviar recordatorios automáticos de tareas próximas a vencer.
- * Revisa cada 6 horas las tareas que vencen en las próximas 24 horas.
+ * Motor de recordatorios de tareas próximas a vencer, guiado por el vencimiento de cada tarea.
+ *
+ * - Cada tarea pendiente tiene un recordatorio en una {@link DelayQueue} para el instante
+ *   vencimiento - 24 horas; un hilo lo espera con take(), así que sin recordatorios no consume nada
+ *   y cada uno se envía en cuanto llega su instante.
+ * - En memoria solo están las tareas que vencen dentro del horizonte (48 horas). Al arrancar y
+ *   cada pocos minutos (db.recordatorios.relecturaMs) se relee ese horizonte con una consulta
+ *   indexada; así se recogen también los cambios hechos en otros procesos.
+ * - Los cambios de tareas publicados en {@link EventosEntidad} reprograman o cancelan su recordatorio.
+ *   Los elementos reemplazados se quedan en la cola y se descartan al salir.
+ * - Los recordatorios que vencen juntos se procesan en lote: se releen las tareas, se consulta
+ *   el registro de enviados (tabla recordatorios_enviados) y se registran los enviados, con una
+ *   consulta de cada tipo. Así cada vencimiento se avisa una sola vez, también tras reiniciar.
+ *   Si el registro falla, los avisos enviados se guardan en memoria, no se reenvían y su registro
+ *   se reintenta en los siguientes lotes y relecturas.
+ * - Cada responsable recibe un solo correo con todas sus tareas del lote, construido con plantillas.
+ * - Con varios procesos, la aplicación lo inicia y detiene con una {@link ConcesionLider}: solo corre en uno.
+ *   Al detenerse espera a que el hilo termine, y un hilo detenido no envía más correos.
  */
 public class RecordatorioScheduler {
     
-    private static final long INTERVALO_REVISION = TimeUnit.HOURS.toMillis(6); // Cada 6 horas
-    private static final long UMBRAL_DIAS_VENCIMIENTO = TimeUnit.DAYS.toMillis(1); // 24 horas
+    private static final long UMBRAL_DIAS_VENCIMIENTO = TimeUnit.DAYS.toMillis(1); // Avisar 24 horas antes
+    private static final long HORIZONTE = TimeUnit.DAYS.toMillis(2);              // Tareas en memoria
+    private static final long ESPERA_DETENCION_MS = 5000;                          // Espera al hilo al detener
+    private static final int ID_RELECTURA = 0;                                     // Elemento de relectura en la cola
+    private static final List<String> ESTADOS_PENDIENTES = List.of("PENDIENTE", "EN PROCESO"); // Sin completar
+    private static final String TIPO_RECORDATORIO = "VENCIMIENTO_24H";
+    
+    // Plantillas del correo de resumen por responsable
+    private static final PlantillaCorreo ASUNTO_RESUMEN = PlantillaCorreo.de(
+            "⏰ Recordatorio: {cantidad} tarea(s) próxima(s) a vencer");
+    private static final PlantillaCorreo CABECERA_RESUMEN = PlantillaCorreo.de(
+            "Hola {nombre},\n\n"
+            + "Te recordamos que tienes {cantidad} tarea(s) próxima(s) a vencer:\n\n");
+    private static final PlantillaCorreo TAREA_RESUMEN = PlantillaCorreo.de(
+            "📋 Tarea: {tarea}\n"
+            + "📝 Descripción: {descripcion}\n"
+            + "📅 Fecha de vencimiento: {vencimiento}\n"
+            + "⏱️ Tiempo restante: {horas} horas\n"
+            + "🔄 Estado actual: {estado}\n\n");
+    private static final PlantillaCorreo PIE_RESUMEN = PlantillaCorreo.de(
+            "Por favor, asegúrate de completar estas tareas a tiempo.\n\n"
+            + "Saludos,\nSistema de Gestión de Tareas");
     
     private final TareaDAO tareaDAO;
     private final UsuarioDAO usuarioDAO;
+    private final RecordatorioDAO recordatorioDAO;
     private final EmailSender emailSender;
-    private Timer timer;
+    
+    private final DelayQueue<Recordatorio> cola = new DelayQueue<>();
+    // Recordatorio vigente de cada tarea; los de la cola que no coinciden están reemplazados
+    private final Map<Integer, Recordatorio> programados = new ConcurrentHashMap<>();
+    // Vencimiento ya avisado de cada tarea del horizonte (copia del registro de enviados)
+    private final Map<Integer, Long> avisados = new ConcurrentHashMap<>();
+    // Tareas avisadas que no se pudieron registrar; se reintenta en cada lote y en cada relectura
+    private final Map<Integer, Tarea> sinRegistrar = new ConcurrentHashMap<>();
+    private final EventosEntidad.Oyente oyente = this::alCambiarTarea;
+    private final long intervaloRelectura;
+    private volatile long finHorizonte = 0;
+    private volatile Thread hilo;
+    // Se consulta antes de cada correo (con concesión, ConcesionLider::esLiderVigente)
+    private volatile BooleanSupplier permisoEnvio = () -> true;
     
     public RecordatorioScheduler() {
         this.tareaDAO = new TareaDAO();
         this.usuarioDAO = new UsuarioDAO();
+        this.recordatorioDAO = new RecordatorioDAO();
         this.emailSender = new EmailSender();
+        this.intervaloRelectura = ConexionBD.getRelecturaRecordatoriosMs();
     }
     
     /**
-     * Inicia el scheduler de recordatorios.
+     * @param permisoEnvio Comprobación local que se hace justo antes de cada correo; si devuelve
+     *                     false, el lote en curso deja de enviar.
      */
-    public void iniciar() {
-        if (timer != null) {
-            timer.cancel();
+    public void setPermisoEnvio(BooleanSupplier permisoEnvio) {
+        this.permisoEnvio = permisoEnvio;
+    }
+    
+    /**
+     * Inicia el motor de recordatorios.
+     */
+    public synchronized void iniciar() {
+        if (hilo != null) {
+            detener();
         }
         
-        timer = new Timer("RecordatorioScheduler", true);
+        EventosEntidad.suscribir(Tarea.class, oyente);
+        hilo = new Thread(this::ejecutar, "RecordatorioScheduler");
+        hilo.setDaemon(true);
+        hilo.start();
         
-        // Ejecutar inmediatamente y luego cada INTERVALO_REVISION
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                revisarTareasProximasAVencer();
-            }
-        }, 0, INTERVALO_REVISION);
-        
-        System.out.println("✅ Scheduler de recordatorios iniciado. Revisión cada 6 horas.");
+        System.out.println("✅ Motor de recordatorios iniciado. Aviso 24 horas antes de cada vencimiento.");
     }
     
     /**
-     * Detiene el scheduler.
+     * Detiene el motor de recordatorios y espera a que su hilo termine el lote en curso.
      */
-    public void detener() {
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
-            System.out.println("🛑 Scheduler de recordatorios detenido.");
+    public synchronized void detener() {
+        if (hilo != null) {
+            Thread anterior = hilo;
+            EventosEntidad.desuscribir(Tarea.class, oyente);
+            hilo = null;
+            anterior.interrupt();
+            if (anterior != Thread.currentThread()) {
+                try {
+                    anterior.join(ESPERA_DETENCION_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (anterior.isAlive()) {
+                    // Bloqueado en la base de datos o el correo: ya no enviará más (ver activo())
+                    System.err.println("⚠️ El hilo de recordatorios no terminó en " + ESPERA_DETENCION_MS + " ms.");
+                }
+            }
+            cola.clear();
+            programados.clear();
+            System.out.println("🛑 Motor de recordatorios detenido.");
         }
     }
     
     /**
-     * Revisa todas las tareas y envía recordatorios para las próximas a vencer.
+     * @return true si el hilo actual es el del motor en marcha (no uno detenido que aún no terminó).
      */
-    private void revisarTareasProximasAVencer() {
-        try {
-            List<Tarea> todasLasTareas = tareaDAO.listarTodas();
-            Date ahora = new Date();
-            Date limiteVencimiento = new Date(ahora.getTime() + UMBRAL_DIAS_VENCIMIENTO);
-            
-            int recordatoriosEnviados = 0;
-            
-            for (Tarea tarea : todasLasTareas) {
-                // Solo enviar recordatorios para tareas pendientes o en proceso
-                if (!tarea.getEstado().equals("COMPLETADA")) {
-                    Date fechaVencimiento = tarea.getFechaVencimiento();
-                    
-                    // Verificar si vence en las próximas 24 horas
-                    if (fechaVencimiento != null && 
-                        fechaVencimiento.after(ahora) && 
-                        fechaVencimiento.before(limiteVencimiento)) {
-                        
-                        enviarRecordatorio(tarea);
-                        recordatoriosEnviados++;
+    private boolean activo() {
+        return hilo == Thread.currentThread();
+    }
+    
+    /**
+     * Bucle del hilo: espera el siguiente recordatorio vencido y lo procesa junto con
+     * los demás que ya hayan vencido.
+     */
+    private void ejecutar() {
+        // La primera relectura pasa por la cola, así sus errores se tratan como los del bucle
+        cola.add(new Recordatorio(ID_RELECTURA, System.currentTimeMillis(), 0));
+        
+        while (activo() && !Thread.currentThread().isInterrupted()) {
+            try {
+                List<Recordatorio> vencidos = new ArrayList<>();
+                vencidos.add(cola.take());
+                cola.drainTo(vencidos);
+                
+                boolean releer = false;
+                List<Recordatorio> lote = new ArrayList<>();
+                for (Recordatorio recordatorio : vencidos) {
+                    if (recordatorio.idTarea == ID_RELECTURA) {
+                        releer = true;
+                    } else if (programados.remove(recordatorio.idTarea, recordatorio)) {
+                        lote.add(recordatorio);
                     }
                 }
+                
+                if (!lote.isEmpty()) {
+                    procesar(lote);
+                }
+                if (releer) {
+                    releerHorizonte();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("❌ Error en el motor de recordatorios: " + e.getMessage());
             }
-            
-            if (recordatoriosEnviados > 0) {
-                System.out.println("📧 " + recordatoriosEnviados + " recordatorios enviados.");
+        }
+    }
+    
+    /**
+     * Programa las tareas no completadas que vencen dentro del horizonte y agenda la siguiente relectura.
+     */
+    private void releerHorizonte() {
+        long ahora = System.currentTimeMillis();
+        // Se agenda antes de consultar: si la consulta falla, se reintenta en la siguiente relectura
+        cola.add(new Recordatorio(ID_RELECTURA, ahora + intervaloRelectura, 0));
+        finHorizonte = ahora + HORIZONTE;
+        registrarPendientes();
+        
+        List<Tarea> tareas = tareaDAO.listarPorVencimientoEntre(new Date(ahora), new Date(finHorizonte), ESTADOS_PENDIENTES);
+        
+        // Los ya avisados (por ejemplo, antes de un reinicio) no se vuelven a programar
+        Set<Integer> enviados = recordatorioDAO.buscarEnviados(TIPO_RECORDATORIO, tareas);
+        for (Tarea tarea : tareas) {
+            if (enviados.contains(tarea.getId())) {
+                avisados.put(tarea.getId(), tarea.getFechaVencimiento().getTime());
             }
-            
-        } catch (Exception e) {
-            System.err.println("❌ Error al revisar tareas: " + e.getMessage());
-            e.printStackTrace();
+            programar(tarea.getId(), tarea);
         }
+        
+        // Los avisos de vencimientos ya pasados no se volverán a consultar
+        avisados.values().removeIf(vencimiento -> vencimiento <= ahora);
+        sinRegistrar.values().removeIf(tarea -> {
+            if (tarea.getFechaVencimiento().getTime() > ahora) {
+                return false;
+            }
+            System.err.println("⚠️ El recordatorio de la tarea " + tarea.getId() + " se envió pero no quedó registrado.");
+            return true;
+        });
     }
     
     /**
-     * Envía un recordatorio al responsable de la tarea.
+     * Programa, reprograma o cancela el recordatorio de una tarea según su estado y vencimiento.
+     * @param idTarea ID de la tarea.
+     * @param tarea Tarea leída de la base de datos, o null si ya no existe.
      */
-    private void enviarRecordatorio(Tarea tarea) {
+    private void programar(int idTarea, Tarea tarea) {
+        long ahora = System.currentTimeMillis();
+        
+        if (tarea == null || !ESTADOS_PENDIENTES.contains(tarea.getEstado()) || tarea.getFechaVencimiento() == null) {
+            programados.remove(idTarea);
+            return;
+        }
+        
+        long vencimiento = tarea.getFechaVencimiento().getTime();
+        if (vencimiento <= ahora || vencimiento > finHorizonte || yaAvisado(idTarea, vencimiento)) {
+            // Vencida, fuera del horizonte (la programará la próxima relectura) o ya avisada
+            programados.remove(idTarea);
+            return;
+        }
+        
+        Recordatorio actual = programados.get(idTarea);
+        if (actual != null && actual.vencimiento == vencimiento) {
+            // Ya está en la cola para este vencimiento (relectura sin cambios): no se duplica
+            return;
+        }
+        
+        Recordatorio recordatorio = new Recordatorio(idTarea, vencimiento - UMBRAL_DIAS_VENCIMIENTO, vencimiento);
+        programados.put(idTarea, recordatorio);
+        cola.add(recordatorio);
+    }
+    
+    /**
+     * Envía los recordatorios que han llegado a su instante, si la tarea sigue igual y su
+     * vencimiento no consta como avisado, y registra los enviados en un solo lote.
+     */
+    private void procesar(List<Recordatorio> lote) {
+        registrarPendientes();
+        
+        List<Integer> ids = new ArrayList<>(lote.size());
+        for (Recordatorio recordatorio : lote) {
+            ids.add(recordatorio.idTarea);
+        }
+        Map<Integer, Tarea> tareas = tareaDAO.buscarPorIds(ids);
+        
+        List<Tarea> vigentes = new ArrayList<>(lote.size());
+        for (Recordatorio recordatorio : lote) {
+            Tarea tarea = tareas.get(recordatorio.idTarea);
+            if (tarea == null || !ESTADOS_PENDIENTES.contains(tarea.getEstado()) || tarea.getFechaVencimiento() == null) {
+                continue;
+            }
+            if (tarea.getFechaVencimiento().getTime() != recordatorio.vencimiento) {
+                // El vencimiento cambió sin que llegara el aviso (otro proceso): se reprograma
+                programar(tarea.getId(), tarea);
+                continue;
+            }
+            if (yaAvisado(tarea.getId(), recordatorio.vencimiento)) {
+                continue;
+            }
+            vigentes.add(tarea);
+        }
+        
+        Set<Integer> yaEnviados = recordatorioDAO.buscarEnviados(TIPO_RECORDATORIO, vigentes);
+        List<Tarea> enviadas = new ArrayList<>(vigentes.size());
+        
+        // Un correo por responsable con todas sus tareas; los responsables se leen con una consulta
+        Map<Integer, List<Tarea>> porResponsable = new LinkedHashMap<>();
+        for (Tarea tarea : vigentes) {
+            if (yaEnviados.contains(tarea.getId())) {
+                enviadas.add(tarea);
+            } else {
+                porResponsable.computeIfAbsent(tarea.getIdResponsable(), id -> new ArrayList<>()).add(tarea);
+            }
+        }
+        Map<Integer, Usuario> responsables = usuarioDAO.buscarPorIds(porResponsable.keySet());
+        
+        int correos = 0;
+        for (Map.Entry<Integer, List<Tarea>> grupo : porResponsable.entrySet()) {
+            if (!activo() || !permisoEnvio.getAsBoolean()) {
+                // Detenido o sin concesión vigente (otro proceso puede tenerla): solo se registra
+                // lo enviado; el resto lo programa la siguiente relectura del proceso líder
+                break;
+            }
+            // Si el envío falla no se marca: la próxima relectura del horizonte lo reintenta
+            if (enviarResumen(responsables.get(grupo.getKey()), grupo.getValue())) {
+                enviadas.addAll(grupo.getValue());
+                correos++;
+            }
+        }
+        
+        if (recordatorioDAO.registrar(TIPO_RECORDATORIO, enviadas)) {
+            for (Tarea tarea : enviadas) {
+                avisados.put(tarea.getId(), tarea.getFechaVencimiento().getTime());
+            }
+        } else {
+            // Los correos ya salieron: no se reenvían, pero el registro se reintenta
+            System.err.println("⚠️ No se registraron " + enviadas.size()
+                    + " recordatorios enviados; se reintentará en el próximo lote.");
+            for (Tarea tarea : enviadas) {
+                sinRegistrar.put(tarea.getId(), tarea);
+            }
+        }
+        if (correos > 0) {
+            System.out.println("📧 " + correos + " correos de recordatorio enviados ("
+                    + (enviadas.size() - yaEnviados.size()) + " tareas).");
+        }
+    }
+    
+    /**
+     * Reintenta registrar los recordatorios enviados cuyo registro falló.
+     */
+    private void registrarPendientes() {
+        if (sinRegistrar.isEmpty()) {
+            return;
+        }
+        
+        List<Tarea> pendientes = new ArrayList<>(sinRegistrar.values());
+        if (recordatorioDAO.registrar(TIPO_RECORDATORIO, pendientes)) {
+            for (Tarea tarea : pendientes) {
+                avisados.put(tarea.getId(), tarea.getFechaVencimiento().getTime());
+                sinRegistrar.remove(tarea.getId(), tarea);
+            }
+            System.out.println("📝 " + pendientes.size() + " recordatorios enviados registrados tras reintentar.");
+        }
+    }
+    
+    /**
+     * @return true si ese vencimiento de la tarea ya se avisó, esté registrado o pendiente de registrar.
+     */
+    private boolean yaAvisado(int idTarea, long vencimiento) {
+        if (Long.valueOf(vencimiento).equals(avisados.get(idTarea))) {
+            return true;
+        }
+        Tarea pendiente = sinRegistrar.get(idTarea);
+        return pendiente != null && pendiente.getFechaVencimiento().getTime() == vencimiento;
+    }
+    
+    /**
+     * Aplica un cambio de tarea publicado por el controlador. La lectura se hace en segundo plano
+     * para no retrasar al hilo que publica.
+     */
+    private void alCambiarTarea(EventosEntidad.Cambio cambio) {
+        int idTarea = cambio.getId();
+        
+        if (cambio.getOperacion() == EventosEntidad.Operacion.ELIMINADA) {
+            programados.remove(idTarea);
+            avisados.remove(idTarea);
+            sinRegistrar.remove(idTarea);
+            return;
+        }
+        
+        EjecutorBD.ejecutar(() -> programar(idTarea, tareaDAO.buscarPorId(idTarea)));
+    }
+    
+    /**
+     * Envía al responsable un solo correo con todas sus tareas próximas a vencer.
+     * @param responsable Responsable de las tareas (null si ya no existe).
+     * @param tareas Tareas del responsable, en orden de vencimiento.
+     * @return true si el correo se envió.
+     */
+    private boolean enviarResumen(Usuario responsable, List<Tarea> tareas) {
         try {
-            Usuario responsable = usuarioDAO.buscarPorId(tarea.getIdResponsable());
-            
             if (responsable == null || responsable.getEmail() == null) {
-                return;
+                return false;
             }
             
-            // Calcular horas restantes
-            long horasRestantes = TimeUnit.MILLISECONDS.toHours(
-                tarea.getFechaVencimiento().getTime() - System.currentTimeMillis()
-            );
+            long ahora = System.currentTimeMillis();
+            Map<String, Object> valores = new HashMap<>();
+            valores.put("nombre", responsable.getNombre());
+            valores.put("cantidad", tareas.size());
             
-            // Construir mensaje
-            String asunto = "⏰ Recordatorio: Tarea próxima a vencer";
+            // Construir mensaje a partir de las plantillas
             StringBuilder mensaje = new StringBuilder();
-            mensaje.append("Hola ").append(responsable.getNombre()).append(",\n\n");
-            mensaje.append("Te recordamos que tienes una tarea próxima a vencer:\n\n");
-            mensaje.append("📋 Tarea: ").append(tarea.getNombre()).append("\n");
-            mensaje.append("📝 Descripción: ").append(tarea.getDescripcion()).append("\n");
-            mensaje.append("📅 Fecha de vencimiento: ").append(tarea.getFechaVencimiento()).append("\n");
-            mensaje.append("⏱️ Tiempo restante: ").append(horasRestantes).append(" horas\n");
-            mensaje.append("🔄 Estado actual: ").append(tarea.getEstado()).append("\n\n");
-            mensaje.append("Por favor, asegúrate de completar esta tarea a tiempo.\n\n");
-            mensaje.append("Saludos,\nSistema de Gestión de Tareas");
+            CABECERA_RESUMEN.aplicar(valores, mensaje);
+            for (Tarea tarea : tareas) {
+                valores.put("tarea", tarea.getNombre());
+                valores.put("descripcion", tarea.getDescripcion());
+                valores.put("vencimiento", tarea.getFechaVencimiento());
+                valores.put("horas", TimeUnit.MILLISECONDS.toHours(tarea.getFechaVencimiento().getTime() - ahora));
+                valores.put("estado", tarea.getEstado());
+                TAREA_RESUMEN.aplicar(valores, mensaje);
+            }
+            PIE_RESUMEN.aplicar(valores, mensaje);
             
             // Enviar email
-            emailSender.enviarCorreo(
+            if (!emailSender.enviarCorreo(
                 responsable.getEmail(),
-                asunto,
+                ASUNTO_RESUMEN.aplicar(valores),
                 mensaje.toString()
-            );
+            )) {
+                return false;
+            }
             
             System.out.println("✉️ Recordatorio enviado a " + responsable.getEmail() + 
-                             " para tarea: " + tarea.getNombre());
+                             " con " + tareas.size() + " tareas.");
+            return true;
             
         } catch (Exception e) {
             System.err.println("❌ Error al enviar recordatorio: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Recordatorio de una tarea en la cola, para un instante dado.
+     */
+    private static final class Recordatorio implements Delayed {
+        private final int idTarea;
+        private final long instante;
+        private final long vencimiento;
+        
+        private Recordatorio(int idTarea, long instante, long vencimiento) {
+            this.idTarea = idTarea;
+            this.instante = instante;
+            this.vencimiento = vencimiento;
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unidad) {
+            return unidad.convert(instante - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+        
+        @Override
+        public int compareTo(Delayed otro) {
+            return Long.compare(instante, ((Recordatorio) otro).instante);
         }
     }
     
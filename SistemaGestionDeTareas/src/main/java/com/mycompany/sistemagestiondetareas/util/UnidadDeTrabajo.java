@@ -0,0 +1,268 @@
+package com.mycompany.sistemagestiondetareas.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Unidad de trabajo: ejecuta varias operaciones de DAO en una sola conexión y una sola transacción.
+ *
+ * - Mientras dura, {@link ConexionBD#obtenerConexion()} y {@link ConexionBD#obtenerConexionLectura()}
+ *   devuelven en ese hilo la conexión de la unidad, así que los DAO y el {@link Notificador}
+ *   participan sin cambios. Sus close(), commit() y setAutoCommit() no tienen efecto.
+ * - Las entidades registradas con {@link #registrar(Object, Mapeo)} se comparan al confirmar y solo
+ *   se actualizan las columnas que cambiaron.
+ * - Las acciones de {@link #despuesDeConfirmar(Runnable)} (correos, avisos en tiempo real) se
+ *   ejecutan tras el commit, sin retener la conexión.
+ * - Si un DAO llama a rollback() o se invoca {@link #marcarParaDeshacer()}, se deshace toda la unidad.
+ *
+ * Uso:
+ * <pre>
+ * boolean exito = UnidadDeTrabajo.ejecutar(uow -&gt; {
+ *     Tarea tarea = tareaDAO.buscarPorId(id);
+ *     uow.registrar(tarea, TareaDAO.MAPEO);
+ *     tarea.setEstado("COMPLETADA");
+ *     return true;
+ * });
+ * </pre>
+ */
+public class UnidadDeTrabajo {
+
+    private static final ThreadLocal<UnidadDeTrabajo> ACTUAL = new ThreadLocal<>();
+
+    private final Connection conexion;
+    private final Connection compartida;
+    private final List<Seguimiento<?>> seguidas = new ArrayList<>();
+    private final List<Runnable> accionesPosteriores = new ArrayList<>();
+    private boolean soloDeshacer = false;
+
+    /**
+     * Describe cómo se guarda una entidad para el seguimiento de cambios.
+     */
+    public interface Mapeo<T> {
+        /** @return Tabla de la entidad. */
+        String getTabla();
+
+        /** @return Valor de la columna id de la entidad. */
+        int getId(T entidad);
+
+        /** @return Valor actual de cada columna actualizable, por nombre de columna. */
+        Map<String, Object> getColumnas(T entidad);
+    }
+
+    /**
+     * Operaciones que se ejecutan dentro de la unidad.
+     */
+    public interface Trabajo<T> {
+        T ejecutar(UnidadDeTrabajo unidad) throws SQLException;
+    }
+
+    private UnidadDeTrabajo(Connection conexion) {
+        this.conexion = conexion;
+        this.compartida = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new ConexionCompartida());
+    }
+
+    /**
+     * Ejecuta el trabajo en una transacción. Si el hilo ya está dentro de una unidad,
+     * el trabajo se une a ella y la confirmación la hace la unidad exterior.
+     * @param trabajo Operaciones a ejecutar.
+     * @return Valor devuelto por el trabajo.
+     * @throws SQLException Si falla la conexión, la escritura de cambios o el commit; la unidad se deshace.
+     */
+    public static <T> T ejecutar(Trabajo<T> trabajo) throws SQLException {
+        UnidadDeTrabajo existente = ACTUAL.get();
+        if (existente != null) {
+            return trabajo.ejecutar(existente);
+        }
+
+        UnidadDeTrabajo unidad;
+        T resultado;
+        try (Connection conn = ConexionBD.obtenerConexion()) {
+            conn.setAutoCommit(false);
+            unidad = new UnidadDeTrabajo(conn);
+            ACTUAL.set(unidad);
+            try {
+                resultado = trabajo.ejecutar(unidad);
+                if (unidad.soloDeshacer) {
+                    conn.rollback();
+                    return resultado;
+                }
+                unidad.volcar();
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                ACTUAL.remove();
+                conn.setAutoCommit(true);
+            }
+        }
+
+        for (Runnable accion : unidad.accionesPosteriores) {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ Error en acción posterior al commit: " + e.getMessage());
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @return Unidad activa en el hilo actual, o null si no hay ninguna.
+     */
+    public static UnidadDeTrabajo actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Ejecuta la acción cuando la unidad activa se confirme, o inmediatamente si no hay unidad.
+     * Si la unidad se deshace, la acción se descarta.
+     * @param accion Acción sin acceso a base de datos (correo, aviso en tiempo real...).
+     */
+    public static void despuesDeConfirmar(Runnable accion) {
+        UnidadDeTrabajo unidad = ACTUAL.get();
+        if (unidad == null) {
+            accion.run();
+        } else {
+            unidad.accionesPosteriores.add(accion);
+        }
+    }
+
+    /**
+     * @return Conexión compartida de la unidad activa en este hilo, o null si no hay.
+     */
+    static Connection conexionActual() {
+        UnidadDeTrabajo unidad = ACTUAL.get();
+        return unidad != null ? unidad.compartida : null;
+    }
+
+    /**
+     * Registra una entidad para el seguimiento de cambios: al confirmar se actualizan
+     * solo las columnas cuyo valor cambió desde este momento.
+     * @param entidad Entidad leída de la base de datos.
+     * @param mapeo Mapeo de la entidad a sus columnas.
+     */
+    public <T> void registrar(T entidad, Mapeo<T> mapeo) {
+        seguidas.add(new Seguimiento<>(entidad, mapeo));
+    }
+
+    /**
+     * Marca la unidad para deshacerse al terminar, por ejemplo si un DAO devolvió false.
+     */
+    public void marcarParaDeshacer() {
+        soloDeshacer = true;
+    }
+
+    /**
+     * @return true si la unidad se deshará al terminar.
+     */
+    public boolean isMarcadaParaDeshacer() {
+        return soloDeshacer;
+    }
+
+    /**
+     * Escribe ya los cambios de las entidades registradas (se hace solo al confirmar).
+     * @throws SQLException Si falla alguna actualización.
+     */
+    public void volcar() throws SQLException {
+        for (Seguimiento<?> seguimiento : seguidas) {
+            seguimiento.volcar(conexion);
+        }
+    }
+
+    /**
+     * Entidad registrada junto con el valor de sus columnas en el último volcado.
+     */
+    private static final class Seguimiento<T> {
+        private final T entidad;
+        private final Mapeo<T> mapeo;
+        private Map<String, Object> original;
+
+        private Seguimiento(T entidad, Mapeo<T> mapeo) {
+            this.entidad = entidad;
+            this.mapeo = mapeo;
+            this.original = new LinkedHashMap<>(mapeo.getColumnas(entidad));
+        }
+
+        private void volcar(Connection conexion) throws SQLException {
+            Map<String, Object> actual = mapeo.getColumnas(entidad);
+            Map<String, Object> cambios = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> columna : actual.entrySet()) {
+                if (!original.containsKey(columna.getKey())
+                        || !Objects.equals(original.get(columna.getKey()), columna.getValue())) {
+                    cambios.put(columna.getKey(), columna.getValue());
+                }
+            }
+            if (cambios.isEmpty()) {
+                return;
+            }
+
+            String sql = "UPDATE " + mapeo.getTabla() + " SET "
+                    + String.join(" = ?, ", cambios.keySet()) + " = ? WHERE id = ?";
+
+            try (PreparedStatement stmt = conexion.prepareStatement(sql)) {
+                int indice = 1;
+                for (Object valor : cambios.values()) {
+                    stmt.setObject(indice++, valor instanceof Date && !(valor instanceof Timestamp)
+                            ? new Timestamp(((Date) valor).getTime())
+                            : valor);
+                }
+                stmt.setInt(indice, mapeo.getId(entidad));
+                stmt.executeUpdate();
+            }
+            original = new LinkedHashMap<>(actual);
+        }
+    }
+
+    /**
+     * Conexión entregada a los DAO dentro de la unidad: la transacción la controla la unidad.
+     */
+    private final class ConexionCompartida implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                case "commit":
+                case "setAutoCommit":
+                    return null;
+                case "getAutoCommit":
+                    return false;
+                case "isClosed":
+                    return conexion.isClosed();
+                case "rollback":
+                    if (args == null) {
+                        // Un rollback completo deshace lo anterior: la unidad ya no puede confirmarse
+                        soloDeshacer = true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
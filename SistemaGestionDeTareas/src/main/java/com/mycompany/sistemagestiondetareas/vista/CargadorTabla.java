@@ -0,0 +1,285 @@
+package com.mycompany.sistemagestiondetareas.vista;
+
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
+import java.awt.Cursor;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Carga las filas de una tabla en segundo plano.
+ *
+ * - La consulta se ejecuta en un SwingWorker, fuera del hilo de eventos de Swing.
+ * - Las filas se añaden a la tabla por bloques a medida que llegan, con un solo
+ *   evento de inserción por bloque.
+ * - Una nueva carga cancela la anterior; las filas tardías de una carga cancelada se descartan.
+ * - La etiqueta de estado y el cursor de la tabla indican que la carga está en curso.
+ * - {@link #aplicarCambio} actualiza solo la fila de una entidad modificada, sin recargar la tabla;
+ *   la fila se localiza con un índice por ID, sin recorrer la tabla.
+ *
+ * Todos los métodos públicos deben llamarse desde el hilo de eventos de Swing.
+ */
+public class CargadorTabla<T> {
+
+    /**
+     * Recorre los elementos a mostrar. Se ejecuta en segundo plano.
+     */
+    public interface Fuente<T> {
+        void recorrer(Consumer<T> receptor);
+    }
+
+    /**
+     * Convierte un elemento en una fila de la tabla. Se ejecuta en segundo plano.
+     */
+    public interface ConversorFila<T> {
+        Object[] convertir(T elemento);
+    }
+
+    private final JTable tabla;
+    private final DefaultTableModel modelo;
+    private final JLabel estado = new JLabel(" ");
+    private Trabajador trabajoActual = null;
+    // Fila de cada ID (columna 0); se mantiene al añadir y quitar filas
+    private final Map<Integer, Integer> filasPorId = new HashMap<>();
+    
+    // Última carga solicitada, para repetirla
+    private Fuente<T> ultimaFuente = null;
+    private ConversorFila<T> ultimoConversor = null;
+    private Runnable ultimoAlTerminar = null;
+
+    /**
+     * @param tabla Tabla cuyo modelo es un DefaultTableModel.
+     */
+    public CargadorTabla(JTable tabla) {
+        this.tabla = tabla;
+        this.modelo = (DefaultTableModel) tabla.getModel();
+    }
+
+    /**
+     * @return Etiqueta con el estado de la carga, para colocarla junto a la tabla.
+     */
+    public JLabel getEstado() {
+        return estado;
+    }
+
+    /**
+     * @return true si hay una carga en curso.
+     */
+    public boolean isCargando() {
+        return trabajoActual != null;
+    }
+
+    /**
+     * Vacía la tabla y carga sus filas en segundo plano, cancelando la carga anterior.
+     * @param fuente Origen de los elementos.
+     * @param conversor Conversión de cada elemento en fila.
+     */
+    public void cargar(Fuente<T> fuente, ConversorFila<T> conversor) {
+        cargar(fuente, conversor, null);
+    }
+
+    /**
+     * Vacía la tabla y carga sus filas en segundo plano, cancelando la carga anterior.
+     * @param fuente Origen de los elementos.
+     * @param conversor Conversión de cada elemento en fila.
+     * @param alTerminar Acción en el hilo de Swing cuando la carga termina sin cancelarse (puede ser null).
+     */
+    public void cargar(Fuente<T> fuente, ConversorFila<T> conversor, Runnable alTerminar) {
+        cancelar();
+
+        ultimaFuente = fuente;
+        ultimoConversor = conversor;
+        ultimoAlTerminar = alTerminar;
+
+        modelo.setRowCount(0);
+        filasPorId.clear();
+        estado.setText("Cargando...");
+        tabla.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+
+        trabajoActual = new Trabajador(fuente, conversor, alTerminar);
+        trabajoActual.execute();
+    }
+
+    /**
+     * Repite la última carga, si la hubo.
+     */
+    public void recargar() {
+        if (ultimaFuente != null) {
+            cargar(ultimaFuente, ultimoConversor, ultimoAlTerminar);
+        }
+    }
+
+    /**
+     * Aplica el cambio de una entidad solo a su fila. La columna 0 de la tabla debe ser el ID.
+     *
+     * - ELIMINADA: quita la fila.
+     * - CREADA o ACTUALIZADA: lee la entidad en segundo plano y añade o reemplaza su fila;
+     *   si la lectura devuelve null (no existe o no pertenece a esta tabla) quita la fila.
+     *
+     * Si hay una carga en curso se repite, para no mezclar filas de antes y después del cambio.
+     * @param cambio Cambio publicado por un controlador.
+     * @param lectura Lectura de la entidad por ID; se ejecuta en segundo plano.
+     */
+    public void aplicarCambio(EventosEntidad.Cambio cambio, IntFunction<T> lectura) {
+        if (ultimaFuente == null) {
+            return;
+        }
+        if (trabajoActual != null) {
+            recargar();
+            return;
+        }
+
+        int id = cambio.getId();
+        if (cambio.getOperacion() == EventosEntidad.Operacion.ELIMINADA) {
+            ponerFila(id, null);
+            return;
+        }
+
+        ConversorFila<T> conversor = ultimoConversor;
+        EjecutorBD.ejecutar(() -> {
+            T elemento = lectura.apply(id);
+            return elemento != null ? conversor.convertir(elemento) : null;
+        }).whenComplete((fila, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                System.err.println("Error al leer la fila " + id + " de la tabla: " + error.getMessage());
+            } else if (trabajoActual == null) {
+                // Si empezó otra carga, ya incluye el cambio
+                ponerFila(id, fila);
+            }
+        }));
+    }
+
+    /**
+     * Reemplaza, añade o quita (fila null) la fila con el ID dado, con un solo evento de la tabla.
+     */
+    private void ponerFila(int id, Object[] fila) {
+        int indice = filasPorId.getOrDefault(id, -1);
+
+        if (fila == null) {
+            if (indice >= 0) {
+                modelo.removeRow(indice);
+                filasPorId.remove(id);
+                // Las filas siguientes suben una posición (el mismo tramo que desplaza removeRow)
+                for (int i = indice; i < modelo.getRowCount(); i++) {
+                    indexar(i);
+                }
+            }
+        } else if (indice >= 0) {
+            @SuppressWarnings("unchecked")
+            Vector<Vector<Object>> datos = (Vector<Vector<Object>>) (Vector<?>) modelo.getDataVector();
+            datos.set(indice, new Vector<>(Arrays.asList(fila)));
+            modelo.fireTableRowsUpdated(indice, indice);
+        } else {
+            modelo.addRow(fila);
+            indexar(modelo.getRowCount() - 1);
+        }
+        terminarEstado(textoFilas(modelo.getRowCount()));
+    }
+
+    private void indexar(int indice) {
+        Object valor = modelo.getValueAt(indice, 0);
+        if (valor instanceof Integer) {
+            filasPorId.put((Integer) valor, indice);
+        }
+    }
+
+    /**
+     * Cancela la carga en curso, si la hay. Las filas ya añadidas se mantienen.
+     */
+    public void cancelar() {
+        if (trabajoActual != null) {
+            // Sin interrumpir el hilo: la consulta se corta en la siguiente fila y la conexión vuelve al pool
+            trabajoActual.cancel(false);
+            trabajoActual = null;
+            terminarEstado(null);
+        }
+    }
+
+    private static String textoFilas(int filas) {
+        return filas + (filas == 1 ? " fila" : " filas");
+    }
+
+    private void terminarEstado(String texto) {
+        estado.setText(texto != null ? texto : " ");
+        tabla.setCursor(Cursor.getDefaultCursor());
+    }
+
+    private final class Trabajador extends SwingWorker<Integer, Object[]> {
+        private final Fuente<T> fuente;
+        private final ConversorFila<T> conversor;
+        private final Runnable alTerminar;
+
+        private Trabajador(Fuente<T> fuente, ConversorFila<T> conversor, Runnable alTerminar) {
+            this.fuente = fuente;
+            this.conversor = conversor;
+            this.alTerminar = alTerminar;
+        }
+
+        @Override
+        protected Integer doInBackground() {
+            int[] filas = {0};
+            fuente.recorrer(elemento -> {
+                if (isCancelled()) {
+                    // Corta el recorrido; la fuente cierra su consulta al propagarse la excepción
+                    throw new CancellationException();
+                }
+                publish(conversor.convertir(elemento));
+                filas[0]++;
+            });
+            return filas[0];
+        }
+
+        /**
+         * Recibe las filas publicadas desde la última llamada y las añade como un bloque.
+         */
+        @Override
+        protected void process(List<Object[]> bloque) {
+            if (trabajoActual != this) {
+                return;
+            }
+
+            int primera = modelo.getRowCount();
+            @SuppressWarnings("unchecked")
+            Vector<Vector<Object>> datos = (Vector<Vector<Object>>) (Vector<?>) modelo.getDataVector();
+            for (Object[] fila : bloque) {
+                datos.add(new Vector<>(Arrays.asList(fila)));
+                indexar(datos.size() - 1);
+            }
+            modelo.fireTableRowsInserted(primera, modelo.getRowCount() - 1);
+            estado.setText("Cargando... " + modelo.getRowCount() + " filas");
+        }
+
+        @Override
+        protected void done() {
+            if (trabajoActual != this) {
+                return;
+            }
+            trabajoActual = null;
+
+            try {
+                int filas = get();
+                terminarEstado(textoFilas(filas));
+                if (alTerminar != null) {
+                    alTerminar.run();
+                }
+            } catch (InterruptedException | CancellationException e) {
+                terminarEstado(null);
+            } catch (ExecutionException e) {
+                System.err.println("Error al cargar la tabla: " + e.getCause());
+                terminarEstado("Error al cargar los datos");
+            }
+        }
+    }
+}
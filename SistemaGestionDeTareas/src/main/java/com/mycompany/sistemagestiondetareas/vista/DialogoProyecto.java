@@ -13,7 +13,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -38,13 +37,13 @@ public class DialogoProyecto extends JDialog implements ActionListener {
     private JTextField txtFechaInicio;
     private JTextField txtFechaFin;
     private JTextField txtPresupuesto;
-    private JComboBox<String> comboResponsable;
+    private JComboBox<ModeloComboEntidades.Opcion<Usuario>> comboResponsable;
     private JComboBox<String> comboNivelRiesgo;
     private JButton btnGuardar;
     private JButton btnCancelar;
     
     // Datos
-    private List<Usuario> usuarios;
+    private ModeloComboEntidades<Usuario> usuarios;
     private Proyecto proyectoEditar;
     private boolean proyectoGuardado = false;
     
@@ -165,15 +164,7 @@ public class DialogoProyecto extends JDialog implements ActionListener {
         
         gbc.gridx = 1;
         gbc.weightx = 1.0;
-        comboResponsable = new JComboBox<>();
-        if (usuarios != null && !usuarios.isEmpty()) {
-            String[] nombresUsuarios = new String[usuarios.size()];
-            for (int i = 0; i < usuarios.size(); i++) {
-                Usuario u = usuarios.get(i);
-                nombresUsuarios[i] = u.getNombre() + " " + u.getApellido() + " (" + u.getId() + ")";
-            }
-            comboResponsable.setModel(new DefaultComboBoxModel<>(nombresUsuarios));
-        }
+        comboResponsable = new JComboBox<>(usuarios);
         panelFormulario.add(comboResponsable, gbc);
         
         // Panel de botones
@@ -199,11 +190,13 @@ public class DialogoProyecto extends JDialog implements ActionListener {
     }
     
     /**
-     * Carga la lista de usuarios disponibles.
+     * Toma la lista de usuarios disponibles del modelo compartido, sin consultar la base de datos.
      */
     private void cargarUsuarios() {
-        usuarios = controladorUsuario.obtenerTodosLosUsuarios();
-        if (usuarios == null || usuarios.isEmpty()) {
+        usuarios = ModeloComboEntidades.deUsuarios();
+        usuarios.esperarCarga();
+        usuarios.seleccionarPrimera();
+        if (usuarios.getSize() == 0) {
             JOptionPane.showMessageDialog(this, 
                     "No hay usuarios disponibles. Debe crear al menos un usuario primero.", 
                     "Error", JOptionPane.ERROR_MESSAGE);
@@ -237,12 +230,7 @@ public class DialogoProyecto extends JDialog implements ActionListener {
             }
             
             // Seleccionar responsable
-            for (int i = 0; i < usuarios.size(); i++) {
-                if (usuarios.get(i).getId() == proyectoEditar.getIdResponsable()) {
-                    comboResponsable.setSelectedIndex(i);
-                    break;
-                }
-            }
+            usuarios.seleccionarId(proyectoEditar.getIdResponsable());
         }
     }
     
@@ -280,9 +268,12 @@ public class DialogoProyecto extends JDialog implements ActionListener {
             
             // Obtener el nivel de riesgo y el ID del responsable
             String nivelRiesgo = (String) comboNivelRiesgo.getSelectedItem();
-            String responsableStr = (String) comboResponsable.getSelectedItem();
-            int idResponsable = Integer.parseInt(responsableStr.substring(
-                    responsableStr.lastIndexOf("(") + 1, responsableStr.lastIndexOf(")")));
+            int idResponsable = usuarios.getIdSeleccionado();
+            if (idResponsable < 0) {
+                JOptionPane.showMessageDialog(this, "Debe seleccionar un responsable.", 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             
             // Convertir fechas
             java.sql.Timestamp fechaInicio = java.sql.Timestamp.valueOf(fechaInicioStr + " 00:00:00");
@@ -332,6 +323,17 @@ public class DialogoProyecto extends JDialog implements ActionListener {
         return proyectoGuardado;
     }
 
+    /**
+     * Suelta el modelo compartido para que el diálogo cerrado no quede registrado en él.
+     */
+    @Override
+    public void dispose() {
+        if (comboResponsable != null) {
+            comboResponsable.setModel(new DefaultComboBoxModel<>());
+        }
+        super.dispose();
+    }
+
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == btnGuardar) {
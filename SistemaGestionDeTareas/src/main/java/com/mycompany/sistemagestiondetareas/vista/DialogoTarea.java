@@ -15,7 +15,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
@@ -43,16 +42,16 @@ public class DialogoTarea extends JDialog implements ActionListener {
     private JTextField txtNombre;
     private JTextArea txtDescripcion;
     private JTextField txtFechaVencimiento;
-    private JComboBox<String> comboProyecto;
-    private JComboBox<String> comboResponsable;
+    private JComboBox<ModeloComboEntidades.Opcion<Proyecto>> comboProyecto;
+    private JComboBox<ModeloComboEntidades.Opcion<Usuario>> comboResponsable;
     private JComboBox<String> comboEstado;
     private JTextArea txtComentarios;
     private JButton btnGuardar;
     private JButton btnCancelar;
     
     // Datos
-    private List<Proyecto> proyectos;
-    private List<Usuario> usuarios;
+    private ModeloComboEntidades<Proyecto> proyectos;
+    private ModeloComboEntidades<Usuario> usuarios;
     private Tarea tareaEditar;
     private boolean tareaGuardada = false;
     
@@ -78,6 +77,9 @@ public class DialogoTarea extends JDialog implements ActionListener {
         this.usuario = usuario;
         
         inicializar();
+        if (proyecto != null) {
+            proyectos.seleccionarId(proyecto.getId());
+        }
     }
     
     /**
@@ -163,15 +165,7 @@ public class DialogoTarea extends JDialog implements ActionListener {
         
         gbc.gridx = 1;
         gbc.weightx = 1.0;
-        comboProyecto = new JComboBox<>();
-        if (proyectos != null && !proyectos.isEmpty()) {
-            String[] nombresProyectos = new String[proyectos.size()];
-            for (int i = 0; i < proyectos.size(); i++) {
-                Proyecto p = proyectos.get(i);
-                nombresProyectos[i] = p.getNombre() + " (" + p.getId() + ")";
-            }
-            comboProyecto.setModel(new DefaultComboBoxModel<>(nombresProyectos));
-        }
+        comboProyecto = new JComboBox<>(proyectos);
         panelFormulario.add(comboProyecto, gbc);
         
         gbc.gridx = 0;
@@ -181,15 +175,7 @@ public class DialogoTarea extends JDialog implements ActionListener {
         
         gbc.gridx = 1;
         gbc.weightx = 1.0;
-        comboResponsable = new JComboBox<>();
-        if (usuarios != null && !usuarios.isEmpty()) {
-            String[] nombresUsuarios = new String[usuarios.size()];
-            for (int i = 0; i < usuarios.size(); i++) {
-                Usuario u = usuarios.get(i);
-                nombresUsuarios[i] = u.getNombre() + " " + u.getApellido() + " (" + u.getId() + ")";
-            }
-            comboResponsable.setModel(new DefaultComboBoxModel<>(nombresUsuarios));
-        }
+        comboResponsable = new JComboBox<>(usuarios);
         panelFormulario.add(comboResponsable, gbc);
         
         gbc.gridx = 0;
@@ -239,16 +225,18 @@ public class DialogoTarea extends JDialog implements ActionListener {
     }
     
     /**
-     * Carga la lista de proyectos disponibles.
+     * Toma la lista de proyectos disponibles del modelo compartido, sin consultar la base de datos.
      */
     private void cargarProyectos() {
+        proyectos = ModeloComboEntidades.deProyectos();
         if (esAdmin) {
-            proyectos = controladorProyecto.obtenerTodosLosProyectos();
+            proyectos.esperarCarga();
         } else {
-            proyectos = controladorProyecto.obtenerProyectosPorResponsable(usuario.getId());
+            proyectos = proyectos.filtrar(p -> p.getIdResponsable() == usuario.getId());
         }
+        proyectos.seleccionarPrimera();
         
-        if (proyectos == null || proyectos.isEmpty()) {
+        if (proyectos.getSize() == 0) {
             JOptionPane.showMessageDialog(this, 
                     "No hay proyectos disponibles.", 
                     "Error", JOptionPane.ERROR_MESSAGE);
@@ -257,11 +245,13 @@ public class DialogoTarea extends JDialog implements ActionListener {
     }
     
     /**
-     * Carga la lista de usuarios disponibles.
+     * Toma la lista de usuarios disponibles del modelo compartido, sin consultar la base de datos.
      */
     private void cargarUsuarios() {
-        usuarios = controladorUsuario.obtenerTodosLosUsuarios();
-        if (usuarios == null || usuarios.isEmpty()) {
+        usuarios = ModeloComboEntidades.deUsuarios();
+        usuarios.esperarCarga();
+        usuarios.seleccionarPrimera();
+        if (usuarios.getSize() == 0) {
             JOptionPane.showMessageDialog(this, 
                     "No hay usuarios disponibles. Debe crear al menos un usuario primero.", 
                     "Error", JOptionPane.ERROR_MESSAGE);
@@ -281,21 +271,9 @@ public class DialogoTarea extends JDialog implements ActionListener {
             SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
             txtFechaVencimiento.setText(sdf.format(tareaEditar.getFechaVencimiento()));
             
-            // Seleccionar proyecto
-            for (int i = 0; i < proyectos.size(); i++) {
-                if (proyectos.get(i).getId() == tareaEditar.getIdProyecto()) {
-                    comboProyecto.setSelectedIndex(i);
-                    break;
-                }
-            }
-            
-            // Seleccionar responsable
-            for (int i = 0; i < usuarios.size(); i++) {
-                if (usuarios.get(i).getId() == tareaEditar.getIdResponsable()) {
-                    comboResponsable.setSelectedIndex(i);
-                    break;
-                }
-            }
+            // Seleccionar proyecto y responsable
+            proyectos.seleccionarId(tareaEditar.getIdProyecto());
+            usuarios.seleccionarId(tareaEditar.getIdResponsable());
             
             // Seleccionar estado
             String estado = tareaEditar.getEstado();
@@ -335,13 +313,13 @@ public class DialogoTarea extends JDialog implements ActionListener {
         
         try {
             // Obtener el ID del proyecto, responsable y estado
-            String proyectoStr = (String) comboProyecto.getSelectedItem();
-            int idProyecto = Integer.parseInt(proyectoStr.substring(
-                    proyectoStr.lastIndexOf("(") + 1, proyectoStr.lastIndexOf(")")));
-            
-            String responsableStr = (String) comboResponsable.getSelectedItem();
-            int idResponsable = Integer.parseInt(responsableStr.substring(
-                    responsableStr.lastIndexOf("(") + 1, responsableStr.lastIndexOf(")")));
+            int idProyecto = proyectos.getIdSeleccionado();
+            int idResponsable = usuarios.getIdSeleccionado();
+            if (idProyecto < 0 || idResponsable < 0) {
+                JOptionPane.showMessageDialog(this, "Debe seleccionar un proyecto y un responsable.", 
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             
             String estado = (String) comboEstado.getSelectedItem();
             
@@ -386,6 +364,20 @@ public class DialogoTarea extends JDialog implements ActionListener {
         return tareaGuardada;
     }
 
+    /**
+     * Suelta los modelos compartidos para que el diálogo cerrado no quede registrado en ellos.
+     */
+    @Override
+    public void dispose() {
+        if (comboProyecto != null) {
+            comboProyecto.setModel(new DefaultComboBoxModel<>());
+        }
+        if (comboResponsable != null) {
+            comboResponsable.setModel(new DefaultComboBoxModel<>());
+        }
+        super.dispose();
+    }
+
     @Override
     public void actionPerformed(ActionEvent e) {
         if (e.getSource() == btnGuardar) {
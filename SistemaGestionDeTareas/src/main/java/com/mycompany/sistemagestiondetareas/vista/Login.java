@@ -22,7 +22,7 @@ public class Login extends JFrame implements ActionListener {
      * Constructor de la ventana de inicio de sesión.
      */
     public Login() {
-        this.controladorUsuario = new ControladorUsuario();
+        this.controladorUsuario = ControladorUsuario.getInstancia();
         configurarVentana();
         inicializarComponentes();
     }
@@ -0,0 +1,276 @@
+package com.mycompany.sistemagestiondetareas.vista;
+
+import com.mycompany.sistemagestiondetareas.controlador.ControladorProyecto;
+import com.mycompany.sistemagestiondetareas.controlador.ControladorUsuario;
+import com.mycompany.sistemagestiondetareas.modelo.Proyecto;
+import com.mycompany.sistemagestiondetareas.modelo.Usuario;
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import javax.swing.AbstractListModel;
+import javax.swing.ComboBoxModel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Modelo de combo compartido por toda la aplicación con los usuarios o los proyectos.
+ *
+ * - Se lee una sola vez; abrir un diálogo que lo usa no hace consultas.
+ * - Al publicarse un cambio de la entidad en {@link EventosEntidad} se vuelve a leer en segundo plano.
+ * - Un mapa ID -> posición permite seleccionar por ID sin recorrer la lista.
+ * - {@link #filtrar(Predicate)} da un modelo propio con un subconjunto, calculado en memoria.
+ *
+ * La selección es del modelo: cada diálogo la fija al abrirse y debe soltar el modelo
+ * ({@code combo.setModel(...)}) al cerrarse para no quedar registrado como oyente.
+ * Todos los métodos, salvo los de creación, deben llamarse desde el hilo de eventos de Swing.
+ */
+public class ModeloComboEntidades<T> extends AbstractListModel<ModeloComboEntidades.Opcion<T>>
+        implements ComboBoxModel<ModeloComboEntidades.Opcion<T>> {
+
+    private static ModeloComboEntidades<Usuario> usuarios;
+    private static ModeloComboEntidades<Proyecto> proyectos;
+
+    private final Supplier<List<T>> lectura;
+    private final ToIntFunction<T> id;
+    private final Function<T, String> texto;
+
+    // Instantánea inmutable; se reemplaza entera al recargar
+    private List<Opcion<T>> opciones = Collections.emptyList();
+    private Map<Integer, Integer> posicionPorId = Collections.emptyMap();
+    private Opcion<T> seleccionada;
+
+    private CompletableFuture<List<T>> primeraCarga;
+    private boolean cargado = false;
+    // Cambia en cada recarga: solo se aplica la lectura más reciente
+    private int generacion = 0;
+
+    /**
+     * @return Modelo compartido con todos los usuarios.
+     */
+    public static synchronized ModeloComboEntidades<Usuario> deUsuarios() {
+        if (usuarios == null) {
+            usuarios = new ModeloComboEntidades<>(ControladorUsuario.getInstancia()::obtenerTodosLosUsuarios, Usuario::getId,
+                    u -> u.getNombre() + " " + u.getApellido() + " (" + u.getId() + ")");
+            usuarios.iniciar(Usuario.class);
+        }
+        return usuarios;
+    }
+
+    /**
+     * @return Modelo compartido con todos los proyectos.
+     */
+    public static synchronized ModeloComboEntidades<Proyecto> deProyectos() {
+        if (proyectos == null) {
+            proyectos = new ModeloComboEntidades<>(ControladorProyecto.getInstancia()::obtenerTodosLosProyectos, Proyecto::getId,
+                    p -> p.getNombre() + " (" + p.getId() + ")");
+            proyectos.iniciar(Proyecto.class);
+        }
+        return proyectos;
+    }
+
+    private ModeloComboEntidades(Supplier<List<T>> lectura, ToIntFunction<T> id, Function<T, String> texto) {
+        this.lectura = lectura;
+        this.id = id;
+        this.texto = texto;
+    }
+
+    /**
+     * Lanza la primera lectura y se suscribe a los cambios de la entidad.
+     */
+    private void iniciar(Class<?> entidad) {
+        int solicitud = generacion;
+        primeraCarga = EjecutorBD.ejecutar(lectura);
+        primeraCarga.whenComplete((elementos, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                System.err.println("Error al cargar la lista de " + entidad.getSimpleName() + ": " + error.getMessage());
+                return;
+            }
+            aplicar(solicitud, elementos);
+        }));
+
+        EventosEntidad.suscribir(entidad, cambio -> SwingUtilities.invokeLater(this::recargar));
+    }
+
+    /**
+     * Garantiza que la primera lectura se ha aplicado. Solo espera si el diálogo
+     * se abre antes de que termine; si falló, la repite aquí. Después no hace nada.
+     */
+    public void esperarCarga() {
+        if (cargado || primeraCarga == null) {
+            return;
+        }
+        try {
+            aplicar(generacion, primeraCarga.join());
+            return;
+        } catch (RuntimeException e) {
+            System.err.println("Error al cargar la lista, se vuelve a leer: " + e.getMessage());
+        }
+
+        // Sin repetirla, la lista seguiría vacía hasta el próximo cambio de la entidad
+        try {
+            aplicar(++generacion, lectura.get());
+        } catch (RuntimeException e) {
+            System.err.println("Error al cargar la lista: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a leer la lista en segundo plano y conserva la selección si el elemento sigue existiendo.
+     */
+    public void recargar() {
+        if (lectura == null) {
+            return;
+        }
+        int solicitud = ++generacion;
+
+        EjecutorBD.ejecutar(lectura).whenComplete((elementos, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                System.err.println("Error al recargar la lista: " + error.getMessage());
+                return;
+            }
+            aplicar(solicitud, elementos);
+        }));
+    }
+
+    /**
+     * @param condicion Condición sobre la entidad.
+     * @return Modelo propio (no compartido ni actualizado) con las opciones que cumplen la condición.
+     */
+    public ModeloComboEntidades<T> filtrar(Predicate<T> condicion) {
+        esperarCarga();
+
+        ModeloComboEntidades<T> filtrado = new ModeloComboEntidades<>(null, id, texto);
+        List<T> elementos = new ArrayList<>();
+        for (Opcion<T> opcion : opciones) {
+            if (condicion.test(opcion.getEntidad())) {
+                elementos.add(opcion.getEntidad());
+            }
+        }
+        filtrado.aplicar(0, elementos);
+        return filtrado;
+    }
+
+    /**
+     * Selecciona la opción de una entidad.
+     * @param idEntidad ID de la entidad.
+     * @return true si la entidad está en la lista.
+     */
+    public boolean seleccionarId(int idEntidad) {
+        Integer posicion = posicionPorId.get(idEntidad);
+        if (posicion == null) {
+            return false;
+        }
+        setSelectedItem(opciones.get(posicion));
+        return true;
+    }
+
+    /**
+     * Selecciona la primera opción, o ninguna si la lista está vacía.
+     */
+    public void seleccionarPrimera() {
+        setSelectedItem(opciones.isEmpty() ? null : opciones.get(0));
+    }
+
+    /**
+     * @return ID de la entidad seleccionada, o -1 si no hay selección.
+     */
+    public int getIdSeleccionado() {
+        return seleccionada != null ? seleccionada.getId() : -1;
+    }
+
+    @Override
+    public int getSize() {
+        return opciones.size();
+    }
+
+    @Override
+    public Opcion<T> getElementAt(int indice) {
+        return opciones.get(indice);
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return seleccionada;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void setSelectedItem(Object opcion) {
+        if (opcion != seleccionada) {
+            seleccionada = (Opcion<T>) opcion;
+            fireContentsChanged(this, -1, -1);
+        }
+    }
+
+    /**
+     * Reemplaza la lista por una lectura, si no hay otra más reciente.
+     */
+    private void aplicar(int solicitud, List<T> elementos) {
+        if (solicitud != generacion || elementos == null) {
+            return;
+        }
+        cargado = true;
+
+        List<Opcion<T>> nuevas = new ArrayList<>(elementos.size());
+        Map<Integer, Integer> posiciones = new HashMap<>(elementos.size() * 2);
+        for (T elemento : elementos) {
+            int idElemento = id.applyAsInt(elemento);
+            posiciones.put(idElemento, nuevas.size());
+            nuevas.add(new Opcion<>(elemento, idElemento, texto.apply(elemento)));
+        }
+
+        int idSeleccionado = getIdSeleccionado();
+        int anteriores = opciones.size();
+        opciones = Collections.emptyList();
+        posicionPorId = Collections.emptyMap();
+        seleccionada = null;
+        if (anteriores > 0) {
+            fireIntervalRemoved(this, 0, anteriores - 1);
+        }
+
+        opciones = Collections.unmodifiableList(nuevas);
+        posicionPorId = posiciones;
+        if (!nuevas.isEmpty()) {
+            fireIntervalAdded(this, 0, nuevas.size() - 1);
+        }
+        if (idSeleccionado >= 0) {
+            seleccionarId(idSeleccionado);
+        }
+    }
+
+    /**
+     * Opción del combo: la entidad y el texto que se muestra.
+     */
+    public static final class Opcion<T> {
+        private final T entidad;
+        private final int id;
+        private final String texto;
+
+        private Opcion(T entidad, int id, String texto) {
+            this.entidad = entidad;
+            this.id = id;
+            this.texto = texto;
+        }
+
+        public T getEntidad() {
+            return entidad;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return texto;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.mycompany.sistemagestiondetareas.vista;
+
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.JTableHeader;
+
+/**
+ * Modelo de tabla virtual: solo conoce el número total de filas y lee por páginas las que se muestran.
+ *
+ * - Las páginas leídas se guardan en una ventana LRU de {@link #MAXIMO_PAGINAS} páginas,
+ *   así que la memoria no depende del tamaño de la tabla.
+ * - Al mostrar una página se piden también las contiguas, antes de que el usuario llegue a ellas.
+ * - Las lecturas se hacen en {@link EjecutorBD}; mientras llega una página sus celdas se ven vacías.
+ * - El orden se aplica en el servidor: al pulsar una cabecera se vuelve a consultar con otro ORDER BY.
+ * - Los valores de las celdas se calculan al pintarlas, sin copiar los elementos a filas de objetos.
+ * - {@link #aplicarCambio} actualiza solo la fila de una entidad modificada cuando es posible.
+ * - Una página que no se pudo leer se vuelve a pedir con espera creciente, hasta {@link #MAXIMO_REINTENTOS} veces.
+ *
+ * Todos los métodos deben llamarse desde el hilo de eventos de Swing.
+ */
+public class ModeloTablaPaginado<T> extends AbstractTableModel {
+
+    public static final int TAMANO_PAGINA = 200;
+    private static final int MAXIMO_PAGINAS = 10;
+    private static final int MAXIMO_REINTENTOS = 5;
+    private static final int ESPERA_REINTENTO_MS = 1_000;   // Se duplica en cada fallo
+
+    /**
+     * Origen paginado de los elementos. Se ejecuta en segundo plano.
+     */
+    public interface FuentePaginas<T> {
+        /** @return Número total de elementos. */
+        int contar();
+
+        /**
+         * @param desplazamiento Posición del primer elemento (desde 0).
+         * @param limite Número máximo de elementos.
+         * @param orden Clave de la columna de orden.
+         * @param descendente true para orden descendente.
+         * @return Elementos de la página.
+         */
+        List<T> leer(int desplazamiento, int limite, String orden, boolean descendente);
+    }
+
+    /**
+     * Obtiene el valor de una celda a partir del elemento de la fila.
+     */
+    public interface ExtractorCelda<T> {
+        Object valor(T elemento, int columna);
+    }
+
+    private final String[] columnas;
+    private final String[] clavesOrden;
+    private final FuentePaginas<T> fuente;
+    private final ExtractorCelda<T> extractor;
+    private final ToIntFunction<T> id;
+
+    // Ventana de páginas en orden de acceso: se descarta la usada hace más tiempo
+    private final Map<Integer, List<T>> paginas = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> mayor) {
+            return size() > MAXIMO_PAGINAS;
+        }
+    };
+    // Lectura en curso de cada página; una respuesta que no es la vigente de su página se descarta
+    private final Map<Integer, Integer> pendientes = new HashMap<>();
+    // Fallos seguidos de cada página y momento a partir del cual se puede volver a pedir
+    private final Map<Integer, Integer> fallos = new HashMap<>();
+    private final Map<Integer, Long> proximoIntento = new HashMap<>();
+
+    private int filas = 0;
+    private int columnaOrden = 0;
+    private boolean descendente = false;
+    // Cambia en cada recarga: las respuestas de una generación anterior se descartan
+    private int generacion = 0;
+    // Identifica cada lectura de página
+    private int ultimaLectura = 0;
+
+    /**
+     * @param columnas Nombres de las columnas.
+     * @param clavesOrden Clave de orden de cada columna para la fuente, o null si no se puede ordenar por ella.
+     * @param fuente Origen paginado de los elementos.
+     * @param extractor Valor de cada celda.
+     * @param id ID de la entidad de cada elemento.
+     */
+    public ModeloTablaPaginado(String[] columnas, String[] clavesOrden, FuentePaginas<T> fuente,
+                               ExtractorCelda<T> extractor, ToIntFunction<T> id) {
+        this.columnas = columnas;
+        this.clavesOrden = clavesOrden;
+        this.fuente = fuente;
+        this.extractor = extractor;
+        this.id = id;
+    }
+
+    /**
+     * Vuelve a contar los elementos y descarta las páginas leídas. Las filas visibles
+     * mantienen sus datos hasta que llega el nuevo total.
+     */
+    public void recargar() {
+        int solicitud = ++generacion;
+
+        EjecutorBD.ejecutar(fuente::contar).whenComplete((total, error) -> SwingUtilities.invokeLater(() -> {
+            if (solicitud != generacion) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("Error al contar las filas de la tabla: " + error.getMessage());
+                return;
+            }
+            paginas.clear();
+            pendientes.clear();
+            olvidarFallos();
+            filas = total;
+            fireTableDataChanged();
+        }));
+    }
+
+    /**
+     * Aplica el cambio de una entidad con el menor trabajo posible.
+     *
+     * - ACTUALIZADA: si la fila está en la ventana, lee la entidad y reemplaza solo esa fila
+     *   (conserva su posición aunque cambie la columna de orden, hasta la próxima recarga).
+     * - ELIMINADA: si la fila está en la ventana, la quita; las páginas siguientes se desplazan
+     *   y se vuelven a leer al mostrarse.
+     * - CREADA, o ELIMINADA fuera de la ventana: la posición depende del orden del servidor; se recarga.
+     * @param cambio Cambio publicado por un controlador.
+     * @param lectura Lectura de la entidad por ID; se ejecuta en segundo plano.
+     */
+    public void aplicarCambio(EventosEntidad.Cambio cambio, IntFunction<T> lectura) {
+        int fila = buscarFila(cambio.getId());
+
+        switch (cambio.getOperacion()) {
+            case ACTUALIZADA:
+                if (fila >= 0) {
+                    releerFila(cambio.getId(), lectura);
+                }
+                break;
+            case ELIMINADA:
+                if (fila >= 0) {
+                    quitarFila(fila);
+                } else {
+                    recargar();
+                }
+                break;
+            default:
+                recargar();
+                break;
+        }
+    }
+
+    /**
+     * Ordena por una columna; si ya era la columna de orden, invierte la dirección.
+     * @param columna Índice de la columna en el modelo.
+     */
+    public void ordenarPor(int columna) {
+        if (columna < 0 || columna >= clavesOrden.length || clavesOrden[columna] == null) {
+            return;
+        }
+
+        descendente = columna == columnaOrden && !descendente;
+        columnaOrden = columna;
+
+        // Los datos en el orden anterior ya no sirven
+        paginas.clear();
+        pendientes.clear();
+        olvidarFallos();
+        fireTableDataChanged();
+        recargar();
+    }
+
+    /**
+     * Ordena la tabla al pulsar sobre la cabecera de una columna.
+     * @param tabla Tabla que usa este modelo.
+     */
+    public void instalarOrdenEnCabecera(JTable tabla) {
+        JTableHeader cabecera = tabla.getTableHeader();
+        cabecera.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int columnaVista = cabecera.columnAtPoint(e.getPoint());
+                if (columnaVista >= 0) {
+                    ordenarPor(tabla.convertColumnIndexToModel(columnaVista));
+                    cabecera.repaint();
+                }
+            }
+        });
+    }
+
+    /**
+     * @param fila Índice de la fila en el modelo.
+     * @return Elemento de la fila, o null si su página aún no se ha leído.
+     */
+    public T getElemento(int fila) {
+        if (fila < 0 || fila >= filas) {
+            return null;
+        }
+
+        int pagina = fila / TAMANO_PAGINA;
+        List<T> elementos = paginas.get(pagina);
+        if (elementos == null) {
+            solicitar(pagina);
+            return null;
+        }
+
+        // Adelantar las páginas contiguas
+        solicitar(pagina + 1);
+        solicitar(pagina - 1);
+
+        int indice = fila % TAMANO_PAGINA;
+        return indice < elementos.size() ? elementos.get(indice) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        if (columna == columnaOrden) {
+            return columnas[columna] + (descendente ? " ▼" : " ▲");
+        }
+        return columnas[columna];
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        T elemento = getElemento(fila);
+        return elemento != null ? extractor.valor(elemento, columna) : null;
+    }
+
+    /**
+     * @return Fila del elemento con el ID dado entre las páginas de la ventana, o -1.
+     */
+    private int buscarFila(int idElemento) {
+        for (Map.Entry<Integer, List<T>> pagina : paginas.entrySet()) {
+            List<T> elementos = pagina.getValue();
+            for (int i = 0; i < elementos.size(); i++) {
+                if (id.applyAsInt(elementos.get(i)) == idElemento) {
+                    return pagina.getKey() * TAMANO_PAGINA + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lee de nuevo un elemento y reemplaza su fila si sigue en la ventana.
+     */
+    private void releerFila(int idElemento, IntFunction<T> lectura) {
+        int solicitud = generacion;
+
+        EjecutorBD.ejecutar(() -> lectura.apply(idElemento))
+                .whenComplete((elemento, error) -> SwingUtilities.invokeLater(() -> {
+                    if (solicitud != generacion) {
+                        return;
+                    }
+                    if (error != null) {
+                        System.err.println("Error al leer la fila " + idElemento + " de la tabla: " + error.getMessage());
+                        return;
+                    }
+
+                    int fila = buscarFila(idElemento);
+                    if (fila < 0) {
+                        return;
+                    }
+                    if (elemento == null) {
+                        // Ya no existe: se eliminó mientras se leía
+                        quitarFila(fila);
+                        return;
+                    }
+                    paginas.get(fila / TAMANO_PAGINA).set(fila % TAMANO_PAGINA, elemento);
+                    fireTableRowsUpdated(fila, fila);
+                }));
+    }
+
+    /**
+     * Quita una fila de la ventana. Su página y las siguientes quedan desplazadas y se descartan,
+     * también las que se estaban leyendo; las anteriores no cambian de posición y se conservan.
+     */
+    private void quitarFila(int fila) {
+        int pagina = fila / TAMANO_PAGINA;
+        paginas.keySet().removeIf(clave -> clave >= pagina);
+        pendientes.keySet().removeIf(clave -> clave >= pagina);
+
+        filas--;
+        fireTableRowsDeleted(fila, fila);
+    }
+
+    /**
+     * Pide una página en segundo plano si no está en la ventana ni pedida ya.
+     */
+    private void solicitar(int pagina) {
+        if (pagina < 0 || pagina * TAMANO_PAGINA >= filas
+                || paginas.containsKey(pagina) || pendientes.containsKey(pagina)
+                || System.currentTimeMillis() < proximoIntento.getOrDefault(pagina, 0L)) {
+            return;
+        }
+
+        int lectura = ++ultimaLectura;
+        pendientes.put(pagina, lectura);
+        int solicitud = generacion;
+        String orden = clavesOrden[columnaOrden];
+        boolean descendenteSolicitud = descendente;
+
+        EjecutorBD.ejecutar(() -> fuente.leer(pagina * TAMANO_PAGINA, TAMANO_PAGINA, orden, descendenteSolicitud))
+                .whenComplete((elementos, error) -> SwingUtilities.invokeLater(() -> {
+                    // Descartada por una recarga, un cambio de orden o una fila quitada antes de ella
+                    if (!Integer.valueOf(lectura).equals(pendientes.get(pagina))) {
+                        return;
+                    }
+                    pendientes.remove(pagina);
+                    if (solicitud != generacion) {
+                        return;
+                    }
+                    if (error != null) {
+                        System.err.println("Error al leer la página " + pagina + " de la tabla: " + error.getMessage());
+                        programarReintento(pagina);
+                        return;
+                    }
+
+                    fallos.remove(pagina);
+                    proximoIntento.remove(pagina);
+                    paginas.put(pagina, elementos);
+                    repintarPagina(pagina);
+                }));
+    }
+
+    /**
+     * Aplaza la siguiente lectura de una página que falló y la repinta al terminar la espera,
+     * lo que la vuelve a pedir si sigue visible. Tras {@link #MAXIMO_REINTENTOS} fallos solo se
+     * vuelve a pedir con una recarga.
+     */
+    private void programarReintento(int pagina) {
+        int intentos = fallos.merge(pagina, 1, Integer::sum);
+        if (intentos > MAXIMO_REINTENTOS) {
+            proximoIntento.put(pagina, Long.MAX_VALUE);
+            return;
+        }
+
+        int espera = ESPERA_REINTENTO_MS << (intentos - 1);
+        proximoIntento.put(pagina, System.currentTimeMillis() + espera);
+
+        int solicitud = generacion;
+        Timer temporizador = new Timer(espera, e -> {
+            if (solicitud == generacion) {
+                repintarPagina(pagina);
+            }
+        });
+        temporizador.setRepeats(false);
+        temporizador.start();
+    }
+
+    private void olvidarFallos() {
+        fallos.clear();
+        proximoIntento.clear();
+    }
+
+    private void repintarPagina(int pagina) {
+        int primera = pagina * TAMANO_PAGINA;
+        int ultima = Math.min(filas, primera + TAMANO_PAGINA) - 1;
+        if (ultima >= primera) {
+            fireTableRowsUpdated(primera, ultima);
+        }
+    }
+}
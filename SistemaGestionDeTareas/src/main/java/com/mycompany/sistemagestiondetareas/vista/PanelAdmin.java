@@ -5,13 +5,20 @@ import com.mycompany.sistemagestiondetareas.controlador.ControladorTarea;
 import com.mycompany.sistemagestiondetareas.controlador.ControladorUsuario;
 import com.mycompany.sistemagestiondetareas.controlador.ControladorCosto;
 import com.mycompany.sistemagestiondetareas.modelo.Proyecto;
+import com.mycompany.sistemagestiondetareas.modelo.ProyectoResumen;
 import com.mycompany.sistemagestiondetareas.modelo.Tarea;
+import com.mycompany.sistemagestiondetareas.modelo.TareaResumen;
+import com.mycompany.sistemagestiondetareas.modelo.TotalesCosto;
 import com.mycompany.sistemagestiondetareas.modelo.Usuario;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -21,6 +28,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableModel;
 
 /**
@@ -38,8 +46,10 @@ public class PanelAdmin extends JFrame implements ActionListener {
     private JTable tablaTareas;
     private JTable tablaUsuarios;
     private DefaultTableModel modeloProyectos;
-    private DefaultTableModel modeloTareas;
+    private ModeloTablaPaginado<TareaResumen> modeloTareas;
     private DefaultTableModel modeloUsuarios;
+    private CargadorTabla<ProyectoResumen> cargadorProyectos;
+    private CargadorTabla<Usuario> cargadorUsuarios;
     private JButton btnCrearProyecto;
     private JButton btnEditarProyecto;
     private JButton btnEliminarProyecto;
@@ -57,14 +67,19 @@ public class PanelAdmin extends JFrame implements ActionListener {
      */
     public PanelAdmin(Usuario usuario) {
         this.usuario = usuario;
-        this.controladorProyecto = new ControladorProyecto();
-        this.controladorTarea = new ControladorTarea();
-        this.controladorUsuario = new ControladorUsuario();
-        this.controladorCosto = new ControladorCosto();
+        this.controladorProyecto = ControladorProyecto.getInstancia();
+        this.controladorTarea = ControladorTarea.getInstancia();
+        this.controladorUsuario = ControladorUsuario.getInstancia();
+        this.controladorCosto = ControladorCosto.getInstancia();
         
         configurarVentana();
         inicializarComponentes();
         cargarDatos();
+        suscribirCambios();
+        
+        // Listas de los combos de los diálogos: se leen ahora, antes de abrir el primero
+        ModeloComboEntidades.deUsuarios();
+        ModeloComboEntidades.deProyectos();
     }
     
     /**
@@ -148,6 +163,7 @@ public class PanelAdmin extends JFrame implements ActionListener {
         
         tablaProyectos = new JTable(modeloProyectos);
         JScrollPane scrollPane = new JScrollPane(tablaProyectos);
+        cargadorProyectos = new CargadorTabla<>(tablaProyectos);
         
         // Panel de botones
         JPanel panelBotones = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -166,6 +182,7 @@ public class PanelAdmin extends JFrame implements ActionListener {
         panelBotones.add(btnEliminarProyecto);
         panelBotones.add(btnVerCostos);
         
+        panel.add(cargadorProyectos.getEstado(), BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
         panel.add(panelBotones, BorderLayout.SOUTH);
         
@@ -180,24 +197,29 @@ public class PanelAdmin extends JFrame implements ActionListener {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
-        // Modelo de tabla para tareas
-        modeloTareas = new DefaultTableModel() {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // No permitir edición directa
-            }
-        };
-        
-        modeloTareas.addColumn("ID");
-        modeloTareas.addColumn("Nombre");
-        modeloTareas.addColumn("Descripción");
-        modeloTareas.addColumn("Fecha Creación");
-        modeloTareas.addColumn("Fecha Vencimiento");
-        modeloTareas.addColumn("Proyecto");
-        modeloTareas.addColumn("Responsable");
-        modeloTareas.addColumn("Estado");
+        // Modelo de tabla virtual para tareas: lee por páginas solo las filas visibles
+        String[] columnas = {"ID", "Nombre", "Descripción", "Fecha Creación", "Fecha Vencimiento",
+            "Proyecto", "Responsable", "Estado"};
+        String[] clavesOrden = {"id", "nombre", null, "fecha_creacion", "fecha_vencimiento",
+            "proyecto", "responsable", "estado"};
+        
+        modeloTareas = new ModeloTablaPaginado<>(columnas, clavesOrden,
+            new ModeloTablaPaginado.FuentePaginas<TareaResumen>() {
+                @Override
+                public int contar() {
+                    return controladorTarea.contarTareas();
+                }
+                
+                @Override
+                public List<TareaResumen> leer(int desplazamiento, int limite, String orden, boolean descendente) {
+                    return controladorTarea.obtenerPaginaDeResumenes(desplazamiento, limite, orden, descendente);
+                }
+            },
+            this::valorCeldaTarea,
+            resumen -> resumen.getTarea().getId());
         
         tablaTareas = new JTable(modeloTareas);
+        modeloTareas.instalarOrdenEnCabecera(tablaTareas);
         JScrollPane scrollPane = new JScrollPane(tablaTareas);
         
         // Panel de botones
@@ -244,6 +266,7 @@ public class PanelAdmin extends JFrame implements ActionListener {
         
         tablaUsuarios = new JTable(modeloUsuarios);
         JScrollPane scrollPane = new JScrollPane(tablaUsuarios);
+        cargadorUsuarios = new CargadorTabla<>(tablaUsuarios);
         
         // Panel de botones
         JPanel panelBotones = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -259,6 +282,7 @@ public class PanelAdmin extends JFrame implements ActionListener {
         panelBotones.add(btnEditarUsuario);
         panelBotones.add(btnEliminarUsuario);
         
+        panel.add(cargadorUsuarios.getEstado(), BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
         panel.add(panelBotones, BorderLayout.SOUTH);
         
@@ -266,7 +290,7 @@ public class PanelAdmin extends JFrame implements ActionListener {
     }
     
     /**
-     * Carga los datos en las tablas.
+     * Carga los datos en las tablas. Las consultas se ejecutan en segundo plano.
      */
     private void cargarDatos() {
         cargarProyectos();
@@ -275,95 +299,108 @@ public class PanelAdmin extends JFrame implements ActionListener {
     }
     
     /**
-     * Carga la lista de proyectos en la tabla.
+     * Aplica a las tablas, fila a fila, los cambios publicados por los controladores
+     * en lugar de recargarlas. Los avisos se dejan de recibir al cerrar la ventana.
      */
-    public void cargarProyectos() {
-        // Limpiar tabla
-        modeloProyectos.setRowCount(0);
+    private void suscribirCambios() {
+        EventosEntidad.Oyente oyenteProyectos = cambio -> SwingUtilities.invokeLater(() -> {
+            cargadorProyectos.aplicarCambio(cambio, controladorProyecto::obtenerResumenDeProyecto);
+            if (cambio.getOperacion() == EventosEntidad.Operacion.ELIMINADA) {
+                // Sus tareas se eliminaron en cascada
+                cargarTareas();
+            }
+        });
+        EventosEntidad.Oyente oyenteTareas = cambio -> SwingUtilities.invokeLater(() ->
+            modeloTareas.aplicarCambio(cambio, controladorTarea::obtenerResumenDeTarea));
+        EventosEntidad.Oyente oyenteUsuarios = cambio -> SwingUtilities.invokeLater(() -> {
+            cargadorUsuarios.aplicarCambio(cambio, controladorUsuario::obtenerUsuarioPorId);
+            if (cambio.getOperacion() == EventosEntidad.Operacion.ELIMINADA) {
+                // Sus proyectos y tareas se eliminaron en cascada
+                cargarProyectos();
+                cargarTareas();
+            }
+        });
         
-        // Obtener proyectos
-        List<Proyecto> proyectos = controladorProyecto.obtenerTodosLosProyectos();
+        EventosEntidad.suscribir(Proyecto.class, oyenteProyectos);
+        EventosEntidad.suscribir(Tarea.class, oyenteTareas);
+        EventosEntidad.suscribir(Usuario.class, oyenteUsuarios);
         
-        // Llenar tabla
-        for (Proyecto proyecto : proyectos) {
-            Usuario responsable = controladorUsuario.obtenerUsuarioPorId(proyecto.getIdResponsable());
-            
-            double retrasos = controladorCosto.calcularTotalPorTipo("PROYECTO", proyecto.getId(), "RETRASO");
-            double adelantos = controladorCosto.calcularTotalPorTipo("PROYECTO", proyecto.getId(), "ADELANTO");
-            double gastos = controladorCosto.calcularTotalPorTipo("PROYECTO", proyecto.getId(), "GASTO_PLANIFICADO");
-            double balance = proyecto.getPresupuestoTotal() - gastos + adelantos - retrasos;
-            
-            Object[] fila = {
-                proyecto.getId(),
-                proyecto.getNombre(),
-                proyecto.getDescripcion(),
-                proyecto.getFechaInicio(),
-                proyecto.getFechaFin(),
-                responsable != null ? responsable.getNombre() + " " + responsable.getApellido() : "N/A",
-                proyecto.getNivelRiesgo(),
-                String.format("$%.2f", proyecto.getPresupuestoTotal()),
-                String.format("$%.2f", retrasos),
-                String.format("$%.2f", adelantos),
-                String.format("$%.2f", gastos),
-                String.format("$%.2f", balance)
-            };
-            
-            modeloProyectos.addRow(fila);
-        }
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                EventosEntidad.desuscribir(Proyecto.class, oyenteProyectos);
+                EventosEntidad.desuscribir(Tarea.class, oyenteTareas);
+                EventosEntidad.desuscribir(Usuario.class, oyenteUsuarios);
+            }
+        });
+    }
+    
+    /**
+     * Carga la lista de proyectos en la tabla en segundo plano.
+     */
+    public void cargarProyectos() {
+        // Proyectos con su responsable y totales de costos en una sola consulta
+        cargadorProyectos.cargar(
+            receptor -> controladorProyecto.obtenerResumenesDeProyectos().forEach(receptor),
+            resumen -> {
+                Proyecto proyecto = resumen.getProyecto();
+                
+                return new Object[] {
+                    proyecto.getId(),
+                    proyecto.getNombre(),
+                    proyecto.getDescripcion(),
+                    proyecto.getFechaInicio(),
+                    proyecto.getFechaFin(),
+                    resumen.getNombreResponsable() != null ? resumen.getNombreResponsable() : "N/A",
+                    proyecto.getNivelRiesgo(),
+                    String.format("$%.2f", proyecto.getPresupuestoTotal()),
+                    String.format("$%.2f", resumen.getTotalRetrasos()),
+                    String.format("$%.2f", resumen.getTotalAdelantos()),
+                    String.format("$%.2f", resumen.getTotalGastosPlanificados()),
+                    String.format("$%.2f", resumen.getBalance())
+                };
+            });
     }
     
     /**
-     * Carga la lista de tareas en la tabla.
+     * Recarga la tabla de tareas: vuelve a contarlas y lee en segundo plano las páginas visibles.
      */
     private void cargarTareas() {
-        // Limpiar tabla
-        modeloTareas.setRowCount(0);
-        
-        // Obtener tareas
-        List<Tarea> tareas = controladorTarea.obtenerTodasLasTareas();
-        
-        // Llenar tabla
-        for (Tarea tarea : tareas) {
-            Usuario responsable = controladorUsuario.obtenerUsuarioPorId(tarea.getIdResponsable());
-            Proyecto proyecto = controladorProyecto.obtenerProyectoPorId(tarea.getIdProyecto());
-            
-            Object[] fila = {
-                tarea.getId(),
-                tarea.getNombre(),
-                tarea.getDescripcion(),
-                tarea.getFechaCreacion(),
-                tarea.getFechaVencimiento(),
-                proyecto != null ? proyecto.getNombre() : "N/A",
-                responsable != null ? responsable.getNombre() + " " + responsable.getApellido() : "N/A",
-                tarea.getEstado()
-            };
-            
-            modeloTareas.addRow(fila);
+        modeloTareas.recargar();
+    }
+    
+    /**
+     * Obtiene el valor de una celda de la tabla de tareas.
+     */
+    private Object valorCeldaTarea(TareaResumen resumen, int columna) {
+        Tarea tarea = resumen.getTarea();
+        
+        switch (columna) {
+            case 0: return tarea.getId();
+            case 1: return tarea.getNombre();
+            case 2: return tarea.getDescripcion();
+            case 3: return tarea.getFechaCreacion();
+            case 4: return tarea.getFechaVencimiento();
+            case 5: return resumen.getNombreProyecto() != null ? resumen.getNombreProyecto() : "N/A";
+            case 6: return resumen.getNombreResponsable() != null ? resumen.getNombreResponsable() : "N/A";
+            case 7: return tarea.getEstado();
+            default: return null;
         }
     }
     
     /**
-     * Carga la lista de usuarios en la tabla.
+     * Carga la lista de usuarios en la tabla en segundo plano.
      */
     private void cargarUsuarios() {
-        // Limpiar tabla
-        modeloUsuarios.setRowCount(0);
-        
-        // Obtener usuarios
-        List<Usuario> usuarios = controladorUsuario.obtenerTodosLosUsuarios();
-        
-        // Llenar tabla
-        for (Usuario u : usuarios) {
-            Object[] fila = {
+        cargadorUsuarios.cargar(
+            receptor -> controladorUsuario.obtenerTodosLosUsuarios().forEach(receptor),
+            u -> new Object[] {
                 u.getId(),
                 u.getNombre(),
                 u.getApellido(),
                 u.getEmail(),
                 u.isEsAdmin() ? "Administrador" : "Usuario"
-            };
-            
-            modeloUsuarios.addRow(fila);
-        }
+            });
     }
     
     /**
@@ -377,9 +414,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
         } else if (e.getSource() == btnCrearProyecto) {
             DialogoProyecto dialogo = new DialogoProyecto(this, controladorProyecto, controladorUsuario);
             dialogo.setVisible(true);
-            if (dialogo.isProyectoGuardado()) {
-                cargarProyectos();
-            }
         } else if (e.getSource() == btnEditarProyecto) {
             editarProyectoSeleccionado();
         } else if (e.getSource() == btnEliminarProyecto) {
@@ -398,9 +432,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
             if (proyecto != null) {
                 DialogoTarea dialogo = new DialogoTarea(this, controladorTarea, controladorProyecto, controladorUsuario, proyecto, true, usuario);
                 dialogo.setVisible(true);
-                if (dialogo.isTareaGuardada()) {
-                    cargarTareas();
-                }
             }
         } else if (e.getSource() == btnEditarTarea) {
             editarTareaSeleccionada();
@@ -409,9 +440,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
         } else if (e.getSource() == btnCrearUsuario) {
             DialogoUsuario dialogo = new DialogoUsuario(this, controladorUsuario);
             dialogo.setVisible(true);
-            if (dialogo.isUsuarioGuardado()) {
-                cargarUsuarios();
-            }
         } else if (e.getSource() == btnEditarUsuario) {
             editarUsuarioSeleccionado();
         } else if (e.getSource() == btnEliminarUsuario) {
@@ -450,9 +478,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
         DialogoProyecto dialogo = new DialogoProyecto(this, controladorProyecto, controladorUsuario, proyecto);
         dialogo.setVisible(true);
         
-        if (dialogo.isProyectoGuardado()) {
-            cargarProyectos();
-        }
     }
     
     /**
@@ -480,8 +505,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
             if (eliminado) {
                 JOptionPane.showMessageDialog(this, "Proyecto eliminado exitosamente.", 
                         "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                cargarProyectos();
-                cargarTareas();
             } else {
                 JOptionPane.showMessageDialog(this, "Error al eliminar el proyecto.", 
                         "Error", JOptionPane.ERROR_MESSAGE);
@@ -500,8 +523,14 @@ public class PanelAdmin extends JFrame implements ActionListener {
             return;
         }
         
-        int idTarea = (int) tablaTareas.getValueAt(filaSeleccionada, 0);
-        Tarea tarea = controladorTarea.obtenerTareaPorId(idTarea);
+        TareaResumen seleccionada = modeloTareas.getElemento(filaSeleccionada);
+        if (seleccionada == null) {
+            JOptionPane.showMessageDialog(this, "La tarea seleccionada aún se está cargando.", 
+                    "Advertencia", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        Tarea tarea = controladorTarea.obtenerTareaPorId(seleccionada.getTarea().getId());
         
         if (tarea == null) {
             JOptionPane.showMessageDialog(this, "No se pudo encontrar la tarea seleccionada.", 
@@ -512,9 +541,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
         DialogoTarea dialogo = new DialogoTarea(this, controladorTarea, controladorProyecto, controladorUsuario, tarea, true, usuario);
         dialogo.setVisible(true);
         
-        if (dialogo.isTareaGuardada()) {
-            cargarTareas();
-        }
     }
     
     /**
@@ -528,8 +554,15 @@ public class PanelAdmin extends JFrame implements ActionListener {
             return;
         }
         
-        int idTarea = (int) tablaTareas.getValueAt(filaSeleccionada, 0);
-        String nombreTarea = (String) tablaTareas.getValueAt(filaSeleccionada, 1);
+        TareaResumen seleccionada = modeloTareas.getElemento(filaSeleccionada);
+        if (seleccionada == null) {
+            JOptionPane.showMessageDialog(this, "La tarea seleccionada aún se está cargando.", 
+                    "Advertencia", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        int idTarea = seleccionada.getTarea().getId();
+        String nombreTarea = seleccionada.getTarea().getNombre();
         
         int confirmacion = JOptionPane.showConfirmDialog(this, 
                 "¿Está seguro de eliminar la tarea '" + nombreTarea + "'?", 
@@ -541,7 +574,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
             if (eliminado) {
                 JOptionPane.showMessageDialog(this, "Tarea eliminada exitosamente.", 
                         "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                cargarTareas();
             } else {
                 JOptionPane.showMessageDialog(this, "Error al eliminar la tarea.", 
                         "Error", JOptionPane.ERROR_MESSAGE);
@@ -580,9 +612,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
         DialogoUsuario dialogo = new DialogoUsuario(this, controladorUsuario, usuarioSeleccionado);
         dialogo.setVisible(true);
         
-        if (dialogo.isUsuarioGuardado()) {
-            cargarUsuarios();
-        }
     }
     
     /**
@@ -618,9 +647,6 @@ public class PanelAdmin extends JFrame implements ActionListener {
             if (eliminado) {
                 JOptionPane.showMessageDialog(this, "Usuario eliminado exitosamente.", 
                         "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                cargarUsuarios();
-                cargarProyectos();
-                cargarTareas();
             } else {
                 JOptionPane.showMessageDialog(this, "Error al eliminar el usuario.", 
                         "Error", JOptionPane.ERROR_MESSAGE);
@@ -638,15 +664,38 @@ public class PanelAdmin extends JFrame implements ActionListener {
         
         int idProyecto = (int) tablaProyectos.getValueAt(filaSeleccionada, 0);
         String nombreProyecto = (String) tablaProyectos.getValueAt(filaSeleccionada, 1);
-        Proyecto proyecto = controladorProyecto.obtenerProyectoPorId(idProyecto);
+        
+        // El proyecto y sus totales se consultan en paralelo, fuera del hilo de Swing
+        CompletableFuture<Proyecto> proyecto = controladorProyecto.obtenerProyectoPorIdAsincrono(idProyecto);
+        CompletableFuture<TotalesCosto> totales = controladorCosto.calcularTotalesAsincrono("PROYECTO", idProyecto);
+        
+        proyecto.thenAcceptBoth(totales, (p, t) ->
+                SwingUtilities.invokeLater(() -> mostrarCostos(nombreProyecto, p, t)))
+            .exceptionally(error -> {
+                System.err.println("Error al consultar los costos del proyecto: " + error.getMessage());
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                        "No se pudieron cargar los costos del proyecto.", "Error", JOptionPane.ERROR_MESSAGE));
+                return null;
+            });
+    }
+    
+    /**
+     * Muestra el diálogo con los costos de un proyecto ya consultados.
+     */
+    private void mostrarCostos(String nombreProyecto, Proyecto proyecto, TotalesCosto totales) {
+        if (proyecto == null) {
+            JOptionPane.showMessageDialog(this, "No se pudo cargar el proyecto seleccionado.", 
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         
         // Mostrar diálogo con los costos del proyecto
         StringBuilder mensaje = new StringBuilder();
         mensaje.append("Costos del proyecto: ").append(nombreProyecto).append("\n\n");
         
-        double retrasos = controladorCosto.calcularTotalPorTipo("PROYECTO", idProyecto, "RETRASO");
-        double adelantos = controladorCosto.calcularTotalPorTipo("PROYECTO", idProyecto, "ADELANTO");
-        double gastos = controladorCosto.calcularTotalPorTipo("PROYECTO", idProyecto, "GASTO_PLANIFICADO");
+        double retrasos = totales.getRetrasos();
+        double adelantos = totales.getAdelantos();
+        double gastos = totales.getGastosPlanificados();
         double balance = proyecto.getPresupuestoTotal() - gastos + adelantos - retrasos;
         
         mensaje.append("Presupuesto Total: $").append(String.format("%.2f", proyecto.getPresupuestoTotal())).append("\n");
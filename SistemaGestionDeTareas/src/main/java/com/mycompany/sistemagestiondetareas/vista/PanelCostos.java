@@ -4,7 +4,9 @@ import com.mycompany.sistemagestiondetareas.controlador.ControladorCosto;
 import com.mycompany.sistemagestiondetareas.controlador.ControladorProyecto;
 import com.mycompany.sistemagestiondetareas.modelo.Costo;
 import com.mycompany.sistemagestiondetareas.modelo.Proyecto;
+import com.mycompany.sistemagestiondetareas.modelo.ProyectoResumen;
 import com.mycompany.sistemagestiondetareas.modelo.Usuario;
+import com.mycompany.sistemagestiondetareas.util.EjecutorBD;
 import java.awt.BorderLayout;
 import java.awt.GridLayout;
 import java.util.List;
@@ -16,14 +18,14 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.SwingUtilities;
 import javax.swing.BorderFactory;
 
 public class PanelCostos extends JPanel {
     private final ControladorCosto controladorCosto;
     private final ControladorProyecto controladorProyecto;
     private final JTable tablaCostos;
-    private final DefaultTableModel modeloTabla;
+    private final ModeloTablaPaginado<Costo> modeloTabla;
     private final JComboBox<String> comboProyecto;
     private final JTextField txtMonto;
     private final JTextField txtDescripcion;
@@ -32,24 +34,41 @@ public class PanelCostos extends JPanel {
     private final JComboBox<String> comboTipoCosto;
     private final boolean esAdmin;
     private final Usuario usuario;
+    
+    // Proyecto mostrado en la tabla y su resumen (null mientras se carga)
+    private int idProyectoActual = 0;
+    private ProyectoResumen resumenActual = null;
 
     public PanelCostos(boolean esAdmin, Usuario usuario) {
         this.esAdmin = esAdmin;
         this.usuario = usuario;
-        this.controladorCosto = new ControladorCosto();
-        this.controladorProyecto = new ControladorProyecto();
+        this.controladorCosto = ControladorCosto.getInstancia();
+        this.controladorProyecto = ControladorProyecto.getInstancia();
         
-        // Configurar el modelo de la tabla
+        // Configurar el modelo de la tabla: lee por páginas los costos del proyecto seleccionado
         String[] columnas = {"ID", "Descripción", "Monto", "Tipo Costo", "Fecha", "Usuario"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        String[] clavesOrden = {"id", "descripcion", "monto", "tipo_costo", "fecha_registro", "id_usuario_registro"};
+        modeloTabla = new ModeloTablaPaginado<>(columnas, clavesOrden,
+            new ModeloTablaPaginado.FuentePaginas<Costo>() {
+                @Override
+                public int contar() {
+                    return idProyectoActual > 0
+                        ? controladorCosto.contarCostosPorReferencia("PROYECTO", idProyectoActual)
+                        : 0;
+                }
+                
+                @Override
+                public List<Costo> leer(int desplazamiento, int limite, String orden, boolean descendente) {
+                    return controladorCosto.obtenerPaginaDeCostos("PROYECTO", idProyectoActual,
+                        desplazamiento, limite, orden, descendente);
+                }
+            },
+            PanelCostos::valorCeldaCosto,
+            Costo::getId);
         
         // Crear la tabla
         tablaCostos = new JTable(modeloTabla);
+        modeloTabla.instalarOrdenEnCabecera(tablaCostos);
         JScrollPane scrollPane = new JScrollPane(tablaCostos);
         
         // Panel de filtros
@@ -110,74 +129,65 @@ public class PanelCostos extends JPanel {
     private void actualizarComboProyecto() {
         comboProyecto.removeAllItems();
         
-        List<Proyecto> proyectos = esAdmin ? 
-            controladorProyecto.obtenerTodosLosProyectos() : 
-            controladorProyecto.obtenerProyectosPorResponsable(usuario.getId());
+        List<ProyectoResumen> resumenes = esAdmin ? 
+            controladorProyecto.obtenerResumenesDeProyectos() : 
+            controladorProyecto.obtenerResumenesPorResponsable(usuario.getId());
         
-        for (Proyecto proyecto : proyectos) {
+        for (ProyectoResumen resumen : resumenes) {
+            Proyecto proyecto = resumen.getProyecto();
             comboProyecto.addItem(proyecto.getNombre() + " (ID: " + proyecto.getId() + ")");
         }
     }
     
+    /**
+     * Carga en segundo plano los costos del proyecto seleccionado, su presupuesto y su saldo.
+     */
     private void actualizarTabla() {
-        modeloTabla.setRowCount(0);
         String seleccion = (String) comboProyecto.getSelectedItem();
         
-        if (seleccion == null || seleccion.isEmpty()) {
-            return;
-        }
-        
         // Extraer el ID del texto seleccionado
-        int idProyecto = Integer.parseInt(seleccion.substring(seleccion.lastIndexOf("ID: ") + 4, seleccion.length() - 1));
-        
-        // Cargar el presupuesto del proyecto
-        Proyecto proyecto = controladorProyecto.obtenerProyectoPorId(idProyecto);
-        if (proyecto != null) {
-            txtPresupuestoTotal.setText(String.format("%.2f", proyecto.getPresupuestoTotal()));
-        }
+        int idProyecto = seleccion == null || seleccion.isEmpty() ? 0
+            : Integer.parseInt(seleccion.substring(seleccion.lastIndexOf("ID: ") + 4, seleccion.length() - 1));
         
-        List<Costo> costos = controladorCosto.obtenerCostosPorReferencia("PROYECTO", idProyecto);
+        idProyectoActual = idProyecto;
+        resumenActual = null;
+        modeloTabla.recargar();
         
-        double totalGastos = 0;
-        double totalAdelantos = 0;
-        double totalRetrasos = 0;
-        
-        for (Costo costo : costos) {
-            Object[] fila = {
-                costo.getId(),
-                costo.getDescripcion(),
-                String.format("$%.2f", costo.getMonto()),
-                costo.getTipoCosto(),
-                costo.getFechaRegistro(),
-                costo.getIdUsuarioRegistro()
-            };
-            modeloTabla.addRow(fila);
-            
-            // Calcular totales
-            switch (costo.getTipoCosto()) {
-                case "GASTO_PLANIFICADO":
-                    totalGastos += costo.getMonto();
-                    break;
-                case "ADELANTO":
-                    totalAdelantos += costo.getMonto();
-                    break;
-                case "RETRASO":
-                    totalRetrasos += costo.getMonto();
-                    break;
-            }
+        if (idProyecto <= 0) {
+            return;
         }
         
-        // Actualizar saldo disponible
-        double presupuestoTotal = 0;
-        try {
-            presupuestoTotal = Double.parseDouble(txtPresupuestoTotal.getText().trim());
-        } catch (NumberFormatException e) {
-            // Si no hay presupuesto definido, no actualizamos el saldo
+        // Cargar el presupuesto y los totales del proyecto en una sola consulta
+        EjecutorBD.ejecutar(() -> controladorProyecto.obtenerResumenDeProyecto(idProyecto))
+            .thenAccept(resumen -> SwingUtilities.invokeLater(() -> mostrarResumen(idProyecto, resumen)));
+    }
+    
+    /**
+     * Muestra el presupuesto y el saldo disponible del proyecto, si sigue siendo el seleccionado.
+     */
+    private void mostrarResumen(int idProyecto, ProyectoResumen resumen) {
+        if (idProyecto != idProyectoActual || resumen == null) {
             return;
         }
         
-        double saldoDisponible = presupuestoTotal - totalGastos + totalAdelantos - totalRetrasos;
-        lblSaldoDisponible.setText(String.format("Saldo disponible: $%.2f", saldoDisponible));
+        resumenActual = resumen;
+        txtPresupuestoTotal.setText(String.format("%.2f", resumen.getProyecto().getPresupuestoTotal()));
+        lblSaldoDisponible.setText(String.format("Saldo disponible: $%.2f", resumen.getBalance()));
+    }
+    
+    /**
+     * Obtiene el valor de una celda de la tabla de costos.
+     */
+    private static Object valorCeldaCosto(Costo costo, int columna) {
+        switch (columna) {
+            case 0: return costo.getId();
+            case 1: return costo.getDescripcion();
+            case 2: return String.format("$%.2f", costo.getMonto());
+            case 3: return costo.getTipoCosto();
+            case 4: return costo.getFechaRegistro();
+            case 5: return costo.getIdUsuarioRegistro();
+            default: return null;
+        }
     }
     
     private void agregarCosto() {
@@ -203,6 +213,13 @@ public class PanelCostos extends JPanel {
                 return;
             }
             
+            // El saldo disponible solo es válido cuando terminó la carga del proyecto
+            if (resumenActual == null) {
+                JOptionPane.showMessageDialog(this, "Espere a que terminen de cargarse los datos del proyecto", 
+                    "Aviso", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            
             // Validar y convertir el monto
             double monto;
             try {
@@ -3,13 +3,18 @@ package com.mycompany.sistemagestiondetareas.vista;
 import com.mycompany.sistemagestiondetareas.controlador.ControladorProyecto;
 import com.mycompany.sistemagestiondetareas.controlador.ControladorTarea;
 import com.mycompany.sistemagestiondetareas.controlador.ControladorUsuario;
+import com.mycompany.sistemagestiondetareas.modelo.ComentarioTarea;
 import com.mycompany.sistemagestiondetareas.modelo.Proyecto;
 import com.mycompany.sistemagestiondetareas.modelo.Tarea;
+import com.mycompany.sistemagestiondetareas.modelo.TareaResumen;
 import com.mycompany.sistemagestiondetareas.modelo.Usuario;
+import com.mycompany.sistemagestiondetareas.util.EventosEntidad;
 import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.List;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
@@ -20,6 +25,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableModel;
 
 /**
@@ -36,6 +42,8 @@ public class PanelUsuario extends JFrame implements ActionListener {
     private JTable tablaTareas;
     private DefaultTableModel modeloProyectos;
     private DefaultTableModel modeloTareas;
+    private CargadorTabla<Proyecto> cargadorProyectos;
+    private CargadorTabla<TareaResumen> cargadorTareas;
     private JButton btnActualizarEstadoTarea;
     private JButton btnVerDetallesTarea;
     private JButton btnCerrarSesion;
@@ -46,13 +54,18 @@ public class PanelUsuario extends JFrame implements ActionListener {
      */
     public PanelUsuario(Usuario usuario) {
         this.usuario = usuario;
-        this.controladorProyecto = new ControladorProyecto();
-        this.controladorTarea = new ControladorTarea();
-        this.controladorUsuario = new ControladorUsuario();
+        this.controladorProyecto = ControladorProyecto.getInstancia();
+        this.controladorTarea = ControladorTarea.getInstancia();
+        this.controladorUsuario = ControladorUsuario.getInstancia();
         
         configurarVentana();
         inicializarComponentes();
         cargarDatos();
+        suscribirCambios();
+        
+        // Listas de los combos de los diálogos: se leen ahora, antes de abrir el primero
+        ModeloComboEntidades.deUsuarios();
+        ModeloComboEntidades.deProyectos();
     }
     
     /**
@@ -122,6 +135,7 @@ public class PanelUsuario extends JFrame implements ActionListener {
         
         tablaProyectos = new JTable(modeloProyectos);
         JScrollPane scrollPane = new JScrollPane(tablaProyectos);
+        cargadorProyectos = new CargadorTabla<>(tablaProyectos);
         
         // Panel de botones
         JPanel panelBotones = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -130,6 +144,7 @@ public class PanelUsuario extends JFrame implements ActionListener {
         
         panelBotones.add(btnCrearTarea);
         
+        panel.add(cargadorProyectos.getEstado(), BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
         panel.add(panelBotones, BorderLayout.SOUTH);
         
@@ -161,6 +176,7 @@ public class PanelUsuario extends JFrame implements ActionListener {
         
         tablaTareas = new JTable(modeloTareas);
         JScrollPane scrollPane = new JScrollPane(tablaTareas);
+        cargadorTareas = new CargadorTabla<>(tablaTareas);
         
         // Panel de botones
         JPanel panelBotones = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -173,6 +189,7 @@ public class PanelUsuario extends JFrame implements ActionListener {
         panelBotones.add(btnActualizarEstadoTarea);
         panelBotones.add(btnVerDetallesTarea);
         
+        panel.add(cargadorTareas.getEstado(), BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
         panel.add(panelBotones, BorderLayout.SOUTH);
         
@@ -188,55 +205,74 @@ public class PanelUsuario extends JFrame implements ActionListener {
     }
     
     /**
-     * Carga la lista de proyectos asignados en la tabla.
+     * Aplica a las tablas, fila a fila, los cambios publicados por los controladores.
+     * Una entidad que deja de estar asignada al usuario se quita de su tabla.
+     * Los avisos se dejan de recibir al cerrar la ventana.
      */
-    private void cargarProyectos() {
-        // Limpiar tabla
-        modeloProyectos.setRowCount(0);
+    private void suscribirCambios() {
+        EventosEntidad.Oyente oyenteProyectos = cambio -> SwingUtilities.invokeLater(() -> {
+            cargadorProyectos.aplicarCambio(cambio, id -> {
+                Proyecto proyecto = controladorProyecto.obtenerProyectoPorId(id);
+                return proyecto != null && proyecto.getIdResponsable() == usuario.getId() ? proyecto : null;
+            });
+            if (cambio.getOperacion() == EventosEntidad.Operacion.ELIMINADA) {
+                // Sus tareas se eliminaron en cascada
+                cargarTareas();
+            }
+        });
+        EventosEntidad.Oyente oyenteTareas = cambio -> SwingUtilities.invokeLater(() ->
+            cargadorTareas.aplicarCambio(cambio, id -> {
+                TareaResumen resumen = controladorTarea.obtenerResumenDeTarea(id);
+                return resumen != null && resumen.getTarea().getIdResponsable() == usuario.getId() ? resumen : null;
+            }));
         
-        // Obtener proyectos asignados al usuario
-        List<Proyecto> proyectos = controladorProyecto.obtenerProyectosPorResponsable(usuario.getId());
+        EventosEntidad.suscribir(Proyecto.class, oyenteProyectos);
+        EventosEntidad.suscribir(Tarea.class, oyenteTareas);
         
-        // Llenar tabla
-        for (Proyecto proyecto : proyectos) {
-            Object[] fila = {
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                EventosEntidad.desuscribir(Proyecto.class, oyenteProyectos);
+                EventosEntidad.desuscribir(Tarea.class, oyenteTareas);
+            }
+        });
+    }
+    
+    /**
+     * Carga la lista de proyectos asignados en la tabla en segundo plano.
+     */
+    private void cargarProyectos() {
+        cargadorProyectos.cargar(
+            receptor -> controladorProyecto.obtenerProyectosPorResponsable(usuario.getId()).forEach(receptor),
+            proyecto -> new Object[] {
                 proyecto.getId(),
                 proyecto.getNombre(),
                 proyecto.getDescripcion(),
                 proyecto.getFechaInicio(),
                 proyecto.getFechaFin(),
                 proyecto.getNivelRiesgo()
-            };
-            
-            modeloProyectos.addRow(fila);
-        }
+            });
     }
     
     /**
-     * Carga la lista de tareas asignadas en la tabla.
+     * Carga la lista de tareas asignadas en la tabla en segundo plano.
      */
     private void cargarTareas() {
-        // Limpiar tabla
-        modeloTareas.setRowCount(0);
-        
-        // Obtener tareas asignadas al usuario
-        List<Tarea> tareas = controladorTarea.obtenerTareasPorResponsable(usuario.getId());
-        
-        // Llenar tabla
-        for (Tarea tarea : tareas) {
-            Proyecto proyecto = controladorProyecto.obtenerProyectoPorId(tarea.getIdProyecto());
-            
-            Object[] fila = {
-                tarea.getId(),
-                tarea.getNombre(),
-                tarea.getDescripcion(),
-                tarea.getFechaVencimiento(),
-                proyecto != null ? proyecto.getNombre() : "N/A",
-                tarea.getEstado()
-            };
-            
-            modeloTareas.addRow(fila);
-        }
+        // Tareas asignadas al usuario junto con el nombre de su proyecto
+        cargadorTareas.cargar(
+            receptor -> controladorTarea.obtenerResumenesPorResponsable(usuario.getId()).forEach(receptor),
+            resumen -> {
+                Tarea tarea = resumen.getTarea();
+                
+                return new Object[] {
+                    tarea.getId(),
+                    tarea.getNombre(),
+                    tarea.getDescripcion(),
+                    tarea.getFechaVencimiento(),
+                    resumen.getNombreProyecto() != null ? resumen.getNombreProyecto() : "N/A",
+                    tarea.getEstado()
+                };
+            });
     }
     
     /**
@@ -293,9 +329,6 @@ public class PanelUsuario extends JFrame implements ActionListener {
                         "Estado actualizado correctamente.",
                         "Actualización Exitosa",
                         JOptionPane.INFORMATION_MESSAGE);
-                
-                // Recargar tareas
-                cargarTareas();
             } else {
                 JOptionPane.showMessageDialog(this,
                         "Error al actualizar el estado de la tarea.",
@@ -332,6 +365,15 @@ public class PanelUsuario extends JFrame implements ActionListener {
             detalles.append("Estado: ").append(tarea.getEstado()).append("\n");
             detalles.append("Comentarios: ").append(tarea.getComentarios().isEmpty() ? "Ninguno" : tarea.getComentarios());
             
+            // Historial de comentarios: solo la página más reciente
+            List<ComentarioTarea> historial = controladorTarea.obtenerComentariosDeTarea(idTarea, 0);
+            if (!historial.isEmpty()) {
+                detalles.append("\n\nHistorial (más recientes primero):");
+                for (ComentarioTarea comentario : historial) {
+                    detalles.append("\n[").append(comentario.getFecha()).append("] ").append(comentario.getTexto());
+                }
+            }
+            
             JOptionPane.showMessageDialog(this,
                     detalles.toString(),
                     "Detalles de la Tarea",
@@ -366,9 +408,6 @@ public class PanelUsuario extends JFrame implements ActionListener {
         if (proyecto != null) {
             DialogoTarea dialogo = new DialogoTarea(this, controladorTarea, controladorProyecto, controladorUsuario, proyecto, false, usuario);
             dialogo.setVisible(true);
-            if (dialogo.isTareaGuardada()) {
-                cargarTareas();
-            }
         }
     }
 } 
\ No newline at end of file
@@ -72,6 +72,9 @@ CREATE INDEX idx_costos_referencia ON costos(tipo, id_referencia);
 CREATE INDEX idx_costos_tipo ON costos(tipo_costo);
 CREATE INDEX idx_costos_fecha ON costos(fecha_registro);
 
+-- Los índices de tareas y proyectos, y los cambios posteriores del esquema, los aplica
+-- la aplicación al arrancar como migraciones versionadas (ver MigracionesBD y la tabla esquema_version)
+
 -- Insertar datos de ejemplo básicos (usuario admin y usuario regular)
 INSERT INTO usuarios (nombre, apellido, email, password, es_admin)
 VALUES ('Admin', 'Sistema', 'admin@sistema.com', 'admin123', TRUE)
@@ -0,0 +1,148 @@
+package com.mycompany.sistemagestiondetareas.dao;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import com.mycompany.sistemagestiondetareas.util.ConexionBD;
+import com.mycompany.sistemagestiondetareas.util.MigracionesBD;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Comprueba con EXPLAIN que las consultas filtradas u ordenadas de los DAO usan un índice.
+ *
+ * - Se ejecuta el mismo SQL que los DAO (sus constantes), con valores de ejemplo, contra la base de
+ *   datos de db.properties tras aplicar las migraciones. Si no hay base de datos, las pruebas se omiten.
+ * - Falla si alguna tabla de una consulta se lee sin índice (key null): un cambio en el SQL de un DAO
+ *   o en los índices que deje una consulta sin índice se detecta aquí.
+ * - Con tablas casi vacías el optimizador puede preferir recorrerlas; la sesión se configura para
+ *   preferir índices, pero los planes son más fiables con datos representativos.
+ * - Un listado ordenado sin filtro solo necesita el índice cuando la tabla tiene más filas que una
+ *   página: si tiene menos, leerla entera y ordenarla es el plan correcto y esas pruebas se omiten.
+ */
+class PlanesConsultasTest {
+
+    private static final Timestamp AHORA = new Timestamp(System.currentTimeMillis());
+    private static final Timestamp MANANA = new Timestamp(AHORA.getTime() + TimeUnit.DAYS.toMillis(1));
+    private static final int PAGINA = 200;
+
+    private static Connection conn;
+
+    @BeforeAll
+    static void conectar() throws SQLException {
+        MigracionesBD.aplicar();
+        try {
+            conn = ConexionBD.obtenerConexion();
+        } catch (SQLException | RuntimeException e) {
+            assumeTrue(false, "Base de datos no disponible: " + e.getMessage());
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            // Estima pocas lecturas por clave: en tablas pequeñas, índice antes que recorrido
+            stmt.execute("SET SESSION max_seeks_for_key = 1");
+        }
+    }
+
+    @AfterAll
+    static void cerrar() throws SQLException {
+        if (conn != null) {
+            conn.close();
+        }
+        ConexionBD.cerrarConexion();
+    }
+
+    static Stream<Arguments> consultas() {
+        return Stream.of(
+                arguments("TareaDAO.listarPagina", TareaDAO.SQL_PAGINA, new Object[] {0, PAGINA}),
+                arguments("TareaDAO.listarPorProyecto", TareaDAO.SQL_POR_PROYECTO, new Object[] {1}),
+                arguments("TareaDAO.listarPorResponsable", TareaDAO.SQL_POR_RESPONSABLE, new Object[] {1}),
+                arguments("TareaDAO.listarPorVencimientoEntre", TareaDAO.sqlPorVencimiento(2),
+                        new Object[] {"PENDIENTE", "EN PROCESO", AHORA, MANANA}),
+                arguments("TareaDAO.listarResumenesPorProyecto", TareaDAO.sqlResumenes(TareaDAO.FILTRO_PROYECTO), new Object[] {1}),
+                arguments("TareaDAO.listarResumenesPorResponsable", TareaDAO.sqlResumenes(TareaDAO.FILTRO_RESPONSABLE), new Object[] {1}),
+                arguments("TareaDAO.listarResumenesPagina por id", TareaDAO.sqlResumenesPagina("id", false), new Object[] {PAGINA, 0}),
+                arguments("ProyectoDAO.listarPorResponsable", ProyectoDAO.SQL_POR_RESPONSABLE, new Object[] {1}),
+                arguments("ProyectoDAO.listarResumenesPorResponsable",
+                        ProyectoDAO.sqlResumenes(ProyectoDAO.FILTRO_COSTOS_RESPONSABLE, ProyectoDAO.FILTRO_PROYECTOS_RESPONSABLE), new Object[] {1, 1}),
+                arguments("ProyectoDAO.buscarResumenPorId",
+                        ProyectoDAO.sqlResumenes(ProyectoDAO.FILTRO_COSTOS_PROYECTO, ProyectoDAO.FILTRO_PROYECTOS_ID), new Object[] {1, 1}),
+                arguments("CostoDAO.listarPorReferencia", CostoDAO.SQL_POR_REFERENCIA, new Object[] {"PROYECTO", 1}),
+                arguments("CostoDAO.contarPorReferencia", CostoDAO.SQL_CONTAR_POR_REFERENCIA, new Object[] {"PROYECTO", 1}),
+                arguments("CostoDAO.listarPaginaPorReferencia", CostoDAO.sqlPaginaPorReferencia("id", false), new Object[] {"PROYECTO", 1, PAGINA, 0}),
+                arguments("CostoDAO.listarPaginaPorReferencia por fecha", CostoDAO.sqlPaginaPorReferencia("fecha_registro", true), new Object[] {"PROYECTO", 1, PAGINA, 0}),
+                arguments("CostoDAO.listarPorUsuario", CostoDAO.SQL_POR_USUARIO, new Object[] {1}),
+                arguments("CostoDAO.calcularTotalPorTipo", CostoDAO.SQL_TOTAL_POR_TIPO, new Object[] {"PROYECTO", 1, "RETRASO"}),
+                arguments("CostoDAO.calcularTotales", CostoDAO.SQL_TOTALES, new Object[] {"PROYECTO", 1}),
+                arguments("ComentarioTareaDAO.listarPagina", ComentarioTareaDAO.SQL_PAGINA, new Object[] {1, Long.MAX_VALUE, 20}),
+                arguments("UsuarioDAO.buscarPorEmail", UsuarioDAO.SQL_POR_EMAIL, new Object[] {"admin@example.com"}));
+    }
+
+    /**
+     * Listados de tareas ordenados por una columna distinta de la clave primaria y sin filtro.
+     */
+    static Stream<Arguments> consultasOrdenadas() {
+        return Stream.of(
+                arguments("TareaDAO.listarResumenesPagina por nombre", TareaDAO.sqlResumenesPagina("nombre", false), new Object[] {PAGINA, 0}),
+                arguments("TareaDAO.listarResumenesPagina por nombre desc", TareaDAO.sqlResumenesPagina("nombre", true), new Object[] {PAGINA, 0}),
+                arguments("TareaDAO.listarResumenesPagina por vencimiento", TareaDAO.sqlResumenesPagina("fecha_vencimiento", false), new Object[] {PAGINA, 0}),
+                arguments("TareaDAO.listarResumenesPagina por vencimiento desc", TareaDAO.sqlResumenesPagina("fecha_vencimiento", true), new Object[] {PAGINA, 0}));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultas")
+    void usaIndice(String nombre, String sql, Object[] parametros) throws SQLException {
+        comprobarIndice(nombre, sql, parametros);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultasOrdenadas")
+    void ordenaConIndice(String nombre, String sql, Object[] parametros) throws SQLException {
+        long filas = contarFilas("tareas");
+        assumeTrue(filas > PAGINA, "tareas tiene " + filas + " filas, menos que una página");
+        comprobarIndice(nombre, sql, parametros);
+    }
+
+    private static long contarFilas(String tabla) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + tabla)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static void comprobarIndice(String nombre, String sql, Object[] parametros) throws SQLException {
+        List<String> sinIndice = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String tabla = rs.getString("table");
+                    // Sin tabla (resuelta por clave primaria o sin filas) o tabla derivada (<derivedN>): no aplica
+                    if (tabla != null && !tabla.startsWith("<") && rs.getString("key") == null) {
+                        sinIndice.add(tabla + " (type=" + rs.getString("type") + ", possible_keys=" + rs.getString("possible_keys") + ")");
+                    }
+                }
+            }
+        }
+
+        assertTrue(sinIndice.isEmpty(), () -> nombre + " lee sin índice " + sinIndice + ": " + sql);
+    }
+}